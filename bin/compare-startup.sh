@@ -0,0 +1,66 @@
+#!/bin/bash
+
+# Usage: compare-startup.sh [application arguments...]
+#
+# Starts the server in each startup mode of startup.sh ($MODES, default: jar cds aot-cache native;
+# modes that cannot start here are skipped) $RUNS times (default 5) and prints the medians of
+#   healthy_ms  wall time from launch until /actuator/health answers UP
+#   started_s   the "Started ... in" time Spring Boot logs
+#   rss_mb      resident set size once healthy
+# The first start of every mode is not counted: it creates the CDS archive or AOT cache and warms
+# the page cache. Pass the spec to discover, e.g. --swagger.api.url=file:/path/to/spec.json, so
+# the runs include tool discovery; the server listens on $PORT (default 8080). Linux only.
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+PROJECT_ROOT="$(cd "$SCRIPT_DIR/.." && pwd)"
+LOG_FILE="$PROJECT_ROOT/log/server.log"
+MODES="${MODES:-jar cds aot-cache native}"
+RUNS="${RUNS:-5}"
+PORT="${PORT:-8080}"
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { if (NR) print (NR % 2 ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+# Starts the server once; prints "healthy_ms started_s rss_kb", or fails
+start_once() {
+  local mode="$1"; shift
+  local begin end pid status output
+  begin=$(date +%s%N)
+  output=$("$SCRIPT_DIR/startup.sh" "$mode" --server.port="$PORT" "$@") || { echo "$output" | tail -1 >&2; return 1; }
+  pid=$(cat "$SCRIPT_DIR/server.pid")
+  for _ in $(seq 1 1200); do
+    status=$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health")
+    [ "$status" = "200" ] && break
+    ps -p "$pid" > /dev/null 2>&1 || break
+    sleep 0.05
+  done
+  end=$(date +%s%N)
+  if [ "$status" != "200" ]; then
+    echo "Not healthy, see $LOG_FILE" >&2
+    "$SCRIPT_DIR/shutdown.sh" > /dev/null
+    return 1
+  fi
+  local rss started
+  rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+  started=$(sed -n 's/.*Started .* in \([0-9.]*\) seconds.*/\1/p' "$LOG_FILE" | head -1)
+  "$SCRIPT_DIR/shutdown.sh" > /dev/null
+  echo "$(( (end - begin) / 1000000 )) ${started:-0} $rss"
+}
+
+printf '%-10s %12s %10s %8s\n' mode healthy_ms started_s rss_mb
+for mode in $MODES; do
+  if ! start_once "$mode" "$@" > /dev/null; then
+    printf '%-10s %12s\n' "$mode" "skipped"
+    continue
+  fi
+  results=()
+  for _ in $(seq 1 "$RUNS"); do
+    result=$(start_once "$mode" "$@") && results+=("$result")
+  done
+  [ ${#results[@]} -gt 0 ] || { printf '%-10s %12s\n' "$mode" "failed"; continue; }
+  healthy=$(printf '%s\n' "${results[@]}" | awk '{ print $1 }' | median)
+  started=$(printf '%s\n' "${results[@]}" | awk '{ print $2 }' | median)
+  rss=$(printf '%s\n' "${results[@]}" | awk '{ print $3 }' | median)
+  printf '%-10s %12d %10.2f %8d\n' "$mode" "$healthy" "$started" "$(( ${rss%.*} / 1024 ))"
+done
@@ -1,12 +1,31 @@
 #!/bin/bash
 
+# Usage: startup.sh [jar|cds|aot-cache|native] [application arguments...]
+#
+#   jar        java -jar on the executable jar (default, or $STARTUP_MODE)
+#   cds        the jar with a class data sharing archive, created by a training run on first use
+#   aot-cache  the jar with an ahead-of-time cache (JDK 24+), created by a training run on first use
+#   native     the GraalVM native image built by mvn -Pnative native:compile
+#
+# The training runs start the application with the same arguments and stop it once the context
+# is refreshed (tools discovered), so the spec URL should be reachable. The archive or cache is
+# recreated whenever the jar is newer. $JAVA_OPTS is passed to the JVM; SPRING_AOT=true runs the
+# Spring AOT initialization of a jar built with -Pnative.
+
 # Directory where the script resides
 SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
 PROJECT_ROOT="$(cd "$SCRIPT_DIR/.." && pwd)"
-JAR="$PROJECT_ROOT/swagger-mcp-server/target/swagger-mcp-server-1.0.0-SNAPSHOT.jar"
+TARGET_DIR="$PROJECT_ROOT/swagger-mcp-server/target"
+JAR="$TARGET_DIR/swagger-mcp-server-1.0.0-SNAPSHOT-exec.jar"
+NATIVE_IMAGE="$TARGET_DIR/swagger-mcp-server"
 PID_FILE="$SCRIPT_DIR/server.pid"
 LOG_FILE="$PROJECT_ROOT/log/server.log"
 
+MODE="${STARTUP_MODE:-jar}"
+case "$1" in
+  jar|cds|aot-cache|native) MODE="$1"; shift ;;
+esac
+
 if [ -f "$PID_FILE" ]; then
   PID=$(cat "$PID_FILE")
   if ps -p "$PID" > /dev/null 2>&1; then
@@ -18,8 +37,74 @@ if [ -f "$PID_FILE" ]; then
   fi
 fi
 
-echo "Starting application..."
-nohup java -jar "$JAR" > "$LOG_FILE" 2>&1 &
+mkdir -p "$(dirname "$LOG_FILE")"
+JVM_OPTS=($JAVA_OPTS)
+if [ "$SPRING_AOT" = "true" ]; then
+  JVM_OPTS+=(-Dspring.aot.enabled=true)
+fi
+
+# Unpacks the jar into $1, the layout the JVM can map from an archive (classes from nested jars
+# cannot be archived), unless an extracted copy at least as new as the jar is there
+extract_jar() {
+  local dir="$1"
+  if [ ! -f "$dir/$(basename "$JAR")" ] || [ "$JAR" -nt "$dir/$(basename "$JAR")" ]; then
+    echo "Extracting $JAR to $dir"
+    java -Djarmode=tools -jar "$JAR" extract --force --destination "$dir" || exit 1
+    touch "$dir/$(basename "$JAR")"
+  fi
+}
+
+# Starts and stops the application once with the given JVM options to record the classes it loads
+training_run() {
+  echo "Training run, logs: $LOG_FILE.training"
+  java "${JVM_OPTS[@]}" "$@" -Dspring.context.exit=onRefresh -jar "$APP_JAR" "${APP_ARGS[@]}" \
+    > "$LOG_FILE.training" 2>&1
+}
+
+APP_ARGS=("$@")
+case "$MODE" in
+  jar)
+    CMD=(java "${JVM_OPTS[@]}" -jar "$JAR")
+    ;;
+  cds)
+    CDS_DIR="$TARGET_DIR/cds"
+    APP_JAR="$CDS_DIR/$(basename "$JAR")"
+    extract_jar "$CDS_DIR"
+    if [ ! -f "$CDS_DIR/application.jsa" ] || [ "$APP_JAR" -nt "$CDS_DIR/application.jsa" ]; then
+      training_run -XX:ArchiveClassesAtExit="$CDS_DIR/application.jsa"
+      [ -f "$CDS_DIR/application.jsa" ] || { echo "Creating the CDS archive failed"; exit 1; }
+    fi
+    CMD=(java "${JVM_OPTS[@]}" -XX:SharedArchiveFile="$CDS_DIR/application.jsa" -jar "$APP_JAR")
+    ;;
+  aot-cache)
+    JAVA_MAJOR=$(java -XshowSettings:properties -version 2>&1 | sed -n 's/^ *java.specification.version = //p')
+    if [ "${JAVA_MAJOR:-0}" -lt 24 ]; then
+      echo "The AOT cache needs JDK 24 or later (found ${JAVA_MAJOR:-unknown}); use cds instead"
+      exit 1
+    fi
+    AOT_DIR="$TARGET_DIR/aot-cache"
+    APP_JAR="$AOT_DIR/$(basename "$JAR")"
+    extract_jar "$AOT_DIR"
+    if [ ! -f "$AOT_DIR/application.aot" ] || [ "$APP_JAR" -nt "$AOT_DIR/application.aot" ]; then
+      training_run -XX:AOTMode=record -XX:AOTConfiguration="$AOT_DIR/application.aotconf"
+      java "${JVM_OPTS[@]}" -XX:AOTMode=create -XX:AOTConfiguration="$AOT_DIR/application.aotconf" \
+        -XX:AOTCache="$AOT_DIR/application.aot" -jar "$APP_JAR" >> "$LOG_FILE.training" 2>&1
+      [ -f "$AOT_DIR/application.aot" ] || { echo "Creating the AOT cache failed"; exit 1; }
+    fi
+    CMD=(java "${JVM_OPTS[@]}" -XX:AOTCache="$AOT_DIR/application.aot" -jar "$APP_JAR")
+    ;;
+  native)
+    [ -x "$NATIVE_IMAGE" ] || { echo "No native image at $NATIVE_IMAGE; build it with mvn -Pnative native:compile"; exit 1; }
+    CMD=("$NATIVE_IMAGE")
+    ;;
+  *)
+    echo "Unknown startup mode: $MODE (expected jar, cds, aot-cache or native)"
+    exit 1
+    ;;
+esac
+
+echo "Starting application ($MODE)..."
+nohup "${CMD[@]}" "${APP_ARGS[@]}" > "$LOG_FILE" 2>&1 &
 NEW_PID=$!
 echo $NEW_PID > "$PID_FILE"
 echo "Application started with PID $NEW_PID. Logs: $LOG_FILE"
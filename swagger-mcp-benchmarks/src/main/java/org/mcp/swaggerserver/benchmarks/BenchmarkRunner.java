@@ -0,0 +1,32 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of benchmarks.jar: the regular JMH command line, with the gc profiler always on
+ * so every run reports allocation rates (gc.alloc.rate.norm = bytes allocated per operation).
+ */
+public final class BenchmarkRunner {
+
+    private static final List<String> INFO_FLAGS = List.of("-h", "-l", "-lp", "-lprof", "-lrf");
+
+    private BenchmarkRunner() {}
+
+    public static void main(String[] args) throws Exception {
+        if (Arrays.stream(args).anyMatch(INFO_FLAGS::contains)) {
+            Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
@@ -0,0 +1,142 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mcp.swaggerserver.config.AccessLogConfig;
+import org.mcp.swaggerserver.config.ApiSourcesConfig;
+import org.mcp.swaggerserver.config.ConcurrencyLimitConfig;
+import org.mcp.swaggerserver.config.HttpClientConfig;
+import org.mcp.swaggerserver.config.ResilienceConfig;
+import org.mcp.swaggerserver.config.ResponseCacheConfig;
+import org.mcp.swaggerserver.config.ResponseLimitsConfig;
+import org.mcp.swaggerserver.config.ResponseShapingConfig;
+import org.mcp.swaggerserver.config.SwaggerRestHeadersConfig;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.DynamicToolDefinition.ToolParameter;
+import org.mcp.swaggerserver.service.AccessLog;
+import org.mcp.swaggerserver.service.ApiSourceRegistry;
+import org.mcp.swaggerserver.service.CircuitBreakerRegistry;
+import org.mcp.swaggerserver.service.EndpointInvokerService;
+import org.mcp.swaggerserver.service.ToolMetrics;
+import org.mcp.swaggerserver.service.ToolRegistry;
+import org.mcp.swaggerserver.service.ToolResponseCache;
+import org.mcp.swaggerserver.service.ToolTracing;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+/**
+ * End-to-end cost of one tool invocation (URI building, headers, request, response aggregation)
+ * against a local stub upstream that answers immediately, so the numbers are dominated by the
+ * server's own work rather than by the network.
+ *
+ * {@code accessLog} measures the logging on that path: {@code off} writes no access records,
+ * {@code on} one record per call with the default sample rate, {@code sampled} one record per call
+ * that always carries the arguments and result (the worst case).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class InvocationBenchmark {
+
+    private static final String RESPONSE = "{\"id\":42,\"name\":\"benchmark\",\"status\":\"active\",\"tags\":[\"a\",\"b\",\"c\"]}";
+
+    @Param({"off", "on", "sampled"})
+    public String accessLog;
+
+    private DisposableServer stub;
+    private EndpointInvokerService invoker;
+    private DynamicToolDefinition getTool;
+    private DynamicToolDefinition listTool;
+    private DynamicToolDefinition createTool;
+    private final Map<String, Object> getArgs = Map.of("id", 42);
+    private final Map<String, Object> listArgs = Map.of("limit", 20, "offset", 40, "status", "active");
+    private final Map<String, Object> createArgs = Map.of("body", Map.of("name", "benchmark", "tags", List.of("a", "b", "c")));
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        stub = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/resources0", (request, response) -> response
+                                .header("Content-Type", "application/json").sendString(Mono.just(RESPONSE)))
+                        .get("/resources0/{id}", (request, response) -> response
+                                .header("Content-Type", "application/json").sendString(Mono.just(RESPONSE)))
+                        .post("/resources0", (request, response) -> request.receive().then(response
+                                .header("Content-Type", "application/json").sendString(Mono.just(RESPONSE)).then())))
+                .bindNow();
+        String baseUrl = "http://127.0.0.1:" + stub.port();
+
+        ApiSourceRegistry sources = new ApiSourceRegistry(new ApiSourcesConfig(), baseUrl + "/swagger.json", baseUrl, "", "", "");
+        HttpClientConfig httpClientConfig = new HttpClientConfig();
+        httpClientConfig.setMetrics(false);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ResilienceConfig resilienceConfig = new ResilienceConfig();
+        AccessLogConfig accessLogConfig = new AccessLogConfig();
+        accessLogConfig.setEnabled(!"off".equals(accessLog));
+        if ("sampled".equals(accessLog)) {
+            accessLogConfig.setSampleRate(1.0);
+        }
+        invoker = new EndpointInvokerService(WebClient.builder(), new SwaggerRestHeadersConfig(), sources, httpClientConfig,
+                new ToolResponseCache(new ResponseCacheConfig(), meterRegistry), new ResponseLimitsConfig(), new ResponseShapingConfig(),
+                new ToolMetrics(meterRegistry, new AccessLog(accessLogConfig)), new ToolTracing(ObservationRegistry.NOOP),
+                new ConcurrencyLimitConfig(), resilienceConfig,
+                new CircuitBreakerRegistry(resilienceConfig, meterRegistry), meterRegistry,
+                new ToolRegistry(null, new ObjectMapper()));
+
+        getTool = new DynamicToolDefinition("getResource0", "Get a Resource0 by id", "/resources0/{id}", "GET",
+                List.of(new ToolParameter("id", "path", true, "integer", "The id path parameter")));
+        listTool = new DynamicToolDefinition("listResource0", "List Resource0 items", "/resources0", "GET",
+                List.of(new ToolParameter("limit", "query", false, "integer", null),
+                        new ToolParameter("offset", "query", false, "integer", null),
+                        new ToolParameter("status", "query", false, "string", null)));
+        createTool = new DynamicToolDefinition("createResource0", "Create a Resource0", "/resources0", "POST",
+                List.of(new ToolParameter("body", "body", true, "object", "Request body")));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        invoker.disposeConnectionPools();
+        stub.disposeNow();
+    }
+
+    @Benchmark
+    public String getWithPathParam() {
+        return invoker.invokeEndpoint(getTool, getArgs).block();
+    }
+
+    @Benchmark
+    public String getWithQueryParams() {
+        return invoker.invokeEndpoint(listTool, listArgs).block();
+    }
+
+    @Benchmark
+    public String postWithBody() {
+        return invoker.invokeEndpoint(createTool, createArgs).block();
+    }
+}
@@ -0,0 +1,74 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.service.StreamingSpecParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link StreamingSpecParser} on the 5000-operation specs with fork-join pools of different
+ * sizes. {@code parallelism=0} uses one worker per available processor; compare it with
+ * {@code parallelism=1} for the speedup of reading path items and building tools in parallel.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ParallelDiscoveryBenchmark {
+
+    @Param({"2.0", "3.0", "3.1"})
+    public String version;
+
+    @Param({"5000"})
+    public int operations;
+
+    @Param({"1", "0"})
+    public int parallelism;
+
+    private String content;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        content = SampleSpecs.load(version, operations);
+        pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        List<DynamicToolDefinition> parallel = StreamingSpecParser.parse(content, pool).tools();
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            if (!parallel.equals(StreamingSpecParser.parse(content, single).tools())) {
+                throw new IllegalStateException("Tools parsed with parallelism " + pool.getParallelism()
+                        + " differ from a sequential parse");
+            }
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<DynamicToolDefinition> parse() throws IOException {
+        return StreamingSpecParser.parse(content, pool).tools();
+    }
+}
@@ -0,0 +1,83 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.mcp.swaggerserver.config.ResponseShapingConfig;
+import org.mcp.swaggerserver.service.BoundedBodyReader;
+import org.mcp.swaggerserver.service.ResponseShaper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Reading a pretty-printed ~2 MB JSON list (5000 items) into a tool result, as it arrives in 8 KB
+ * buffers: {@code none} copies the bytes as they are, {@code compact} strips whitespace,
+ * {@code fields} keeps two fields per item and {@code maxItems} keeps the first 20 items.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms512m", "-Xmx512m"})
+public class ResponseShapingBenchmark {
+
+    private static final int CHUNK = 8192;
+
+    @Param({"none", "compact", "fields", "maxItems"})
+    public String shaping;
+
+    private final DefaultDataBufferFactory buffers = DefaultDataBufferFactory.sharedInstance;
+    private byte[] body;
+    private ResponseShaper shaper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            items.add(Map.of("id", i, "name", "item-" + i, "status", i % 2 == 0 ? "active" : "archived",
+                    "owner", Map.of("id", i % 50, "name", "owner " + (i % 50), "email", "owner" + (i % 50) + "@example.com"),
+                    "tags", List.of("alpha", "beta", "gamma"),
+                    "description", "Synthetic item number " + i + " with a few words of free text"));
+        }
+        body = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(Map.of("items", items))
+                .getBytes(StandardCharsets.UTF_8);
+
+        ResponseShapingConfig config = new ResponseShapingConfig();
+        config.setCompact(!"none".equals(shaping));
+        ResponseShaper base = ResponseShaper.forTool("listItems", config);
+        shaper = switch (shaping) {
+            case "fields" -> base.withArguments(Map.of(ResponseShaper.FIELDS_PARAM, List.of("items.id", "items.name")));
+            case "maxItems" -> base.withArguments(Map.of(ResponseShaper.MAX_ITEMS_PARAM, 20));
+            default -> base;
+        };
+    }
+
+    @Benchmark
+    public String read() {
+        Flux<DataBuffer> chunks = Flux.range(0, (body.length + CHUNK - 1) / CHUNK)
+                .map(i -> buffers.wrap(ByteBuffer.wrap(body, i * CHUNK, Math.min(CHUNK, body.length - i * CHUNK))));
+        return BoundedBodyReader.read(chunks, shaper.isActive() ? shaper : null, 0, 4 * 1024 * 1024, body.length, true)
+                .block();
+    }
+}
@@ -0,0 +1,44 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Access to the checked-in sample specs generated by {@link SpecGenerator}.
+ */
+final class SampleSpecs {
+
+    private SampleSpecs() {}
+
+    static String load(String version, int operations) {
+        String resource = "/specs/" + SpecGenerator.fileName(version, operations);
+        try (InputStream in = SampleSpecs.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("No sample spec " + resource);
+            }
+            try (InputStream unzipped = new GZIPInputStream(in)) {
+                return new String(unzipped.readAllBytes(), StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes the spec to a temp file, for code paths that read the spec from a URL.
+     */
+    static Path writeTempFile(String content) {
+        try {
+            Path file = Files.createTempFile("benchmark-spec-", ".json");
+            file.toFile().deleteOnExit();
+            return Files.writeString(file, content);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
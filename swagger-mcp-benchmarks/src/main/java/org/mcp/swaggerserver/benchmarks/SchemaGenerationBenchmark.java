@@ -0,0 +1,59 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mcp.swaggerserver.config.ResponseLimitsConfig;
+import org.mcp.swaggerserver.config.ResponseShapingConfig;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.service.MCPDynamicToolRegistrar;
+import org.mcp.swaggerserver.service.SwaggerApiDiscoveryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Input schema generation for every tool of a spec, as done when tools are registered with
+ * the MCP server (at startup and on every reload).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SchemaGenerationBenchmark {
+
+    @Param({"100", "1000", "5000"})
+    public int operations;
+
+    private MCPDynamicToolRegistrar registrar;
+    private List<DynamicToolDefinition> tools;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        String content = SampleSpecs.load("3.0", operations);
+        String specUrl = SampleSpecs.writeTempFile(content).toUri().toString();
+        tools = new SwaggerApiDiscoveryService().parseTools(specUrl, content);
+        // Schema generation only needs the response limits; the other collaborators are not touched
+        registrar = new MCPDynamicToolRegistrar(null, null, new ResponseLimitsConfig(), new ResponseShapingConfig(),
+                null, null, null, null, null);
+    }
+
+    @Benchmark
+    public void buildInputJsonSchema(Blackhole blackhole) {
+        for (DynamicToolDefinition tool : tools) {
+            blackhole.consume(registrar.buildInputJsonSchema(tool));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPOutputStream;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Generates the synthetic sample specs checked in under {@code src/main/resources/specs}.
+ *
+ * Every resource contributes five CRUD operations (list with query parameters, create with a
+ * request body, get/update/delete by id) and a component schema referencing a shared one, so
+ * the specs exercise parameters, request bodies and $ref resolution the way real APIs do.
+ * The output is deterministic; regenerate with
+ * {@code java -cp target/benchmarks.jar org.mcp.swaggerserver.benchmarks.SpecGenerator src/main/resources/specs}.
+ */
+public final class SpecGenerator {
+
+    public static final int[] OPERATION_COUNTS = {100, 1000, 5000};
+    public static final String[] VERSIONS = {"2.0", "3.0", "3.1"};
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private SpecGenerator() {}
+
+    public static void main(String[] args) throws IOException {
+        Path outputDir = Path.of(args.length > 0 ? args[0] : "src/main/resources/specs");
+        Files.createDirectories(outputDir);
+        for (String version : VERSIONS) {
+            for (int operations : OPERATION_COUNTS) {
+                Path file = outputDir.resolve(fileName(version, operations));
+                try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+                    MAPPER.writerWithDefaultPrettyPrinter().writeValue(out, generate(version, operations));
+                }
+                System.out.printf("Wrote %s%n", file);
+            }
+        }
+    }
+
+    public static String fileName(String version, int operations) {
+        return ("2.0".equals(version) ? "swagger-2.0-" : "openapi-" + version + "-") + operations + ".json.gz";
+    }
+
+    public static ObjectNode generate(String version, int operations) {
+        boolean swagger2 = "2.0".equals(version);
+        ObjectNode root = MAPPER.createObjectNode();
+        if (swagger2) {
+            root.put("swagger", "2.0");
+        } else {
+            root.put("openapi", "3.1".equals(version) ? "3.1.0" : "3.0.3");
+        }
+        root.putObject("info").put("title", "Synthetic benchmark API").put("version", "1.0.0");
+        if (swagger2) {
+            root.put("host", "127.0.0.1").put("basePath", "/");
+            root.putArray("schemes").add("http");
+        } else {
+            root.putArray("servers").addObject().put("url", "http://127.0.0.1/");
+        }
+
+        ObjectNode paths = root.putObject("paths");
+        ObjectNode schemas = swagger2 ? root.putObject("definitions") : root.putObject("components").putObject("schemas");
+        schemas.set("Owner", objectSchema(swagger2, null));
+
+        int resources = Math.max(1, operations / 5);
+        for (int i = 0; i < resources; i++) {
+            String name = "Resource" + i;
+            schemas.set(name, objectSchema(swagger2, ref(swagger2, "Owner")));
+
+            ObjectNode collection = paths.putObject("/resources" + i);
+            ObjectNode list = operation(collection, "get", "list" + name, "List " + name + " items");
+            ArrayNode listParams = list.putArray("parameters");
+            listParams.add(parameter(swagger2, "limit", "query", false, "integer"));
+            listParams.add(parameter(swagger2, "offset", "query", false, "integer"));
+            listParams.add(parameter(swagger2, "status", "query", false, "string"));
+            ObjectNode create = operation(collection, "post", "create" + name, "Create a " + name);
+            requestBody(swagger2, create, ref(swagger2, name));
+
+            ObjectNode item = paths.putObject("/resources" + i + "/{id}");
+            operation(item, "get", "get" + name, "Get a " + name + " by id")
+                    .putArray("parameters").add(parameter(swagger2, "id", "path", true, "integer"));
+            ObjectNode update = operation(item, "put", "update" + name, "Update a " + name);
+            update.putArray("parameters").add(parameter(swagger2, "id", "path", true, "integer"));
+            requestBody(swagger2, update, ref(swagger2, name));
+            operation(item, "delete", "delete" + name, "Delete a " + name)
+                    .putArray("parameters").add(parameter(swagger2, "id", "path", true, "integer"));
+        }
+        return root;
+    }
+
+    private static ObjectNode operation(ObjectNode pathItem, String method, String operationId, String summary) {
+        ObjectNode operation = pathItem.putObject(method);
+        operation.put("operationId", operationId);
+        operation.put("summary", summary);
+        operation.putObject("responses").putObject("200").put("description", "OK");
+        return operation;
+    }
+
+    private static ObjectNode parameter(boolean swagger2, String name, String in, boolean required, String type) {
+        ObjectNode parameter = MAPPER.createObjectNode();
+        parameter.put("name", name).put("in", in).put("required", required)
+                .put("description", "The " + name + " " + in + " parameter");
+        if (swagger2) {
+            parameter.put("type", type);
+        } else {
+            parameter.putObject("schema").put("type", type);
+        }
+        return parameter;
+    }
+
+    private static void requestBody(boolean swagger2, ObjectNode operation, ObjectNode schema) {
+        if (swagger2) {
+            ArrayNode parameters = operation.has("parameters") ? (ArrayNode) operation.get("parameters") : operation.putArray("parameters");
+            ObjectNode body = parameters.addObject();
+            body.put("name", "body").put("in", "body").put("required", true);
+            body.set("schema", schema);
+        } else {
+            ObjectNode requestBody = operation.putObject("requestBody");
+            requestBody.put("required", true);
+            requestBody.putObject("content").putObject("application/json").set("schema", schema);
+        }
+    }
+
+    private static ObjectNode objectSchema(boolean swagger2, ObjectNode ownerRef) {
+        ObjectNode schema = MAPPER.createObjectNode();
+        schema.put("type", "object");
+        schema.putArray("required").add("name");
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("id").put("type", "integer").put("format", "int64");
+        properties.putObject("name").put("type", "string").put("description", "Display name");
+        ObjectNode status = properties.putObject("status").put("type", "string");
+        status.putArray("enum").add("active").add("archived");
+        properties.putObject("tags").put("type", "array").putObject("items").put("type", "string");
+        if (ownerRef != null) {
+            properties.set("owner", ownerRef);
+        }
+        return schema;
+    }
+
+    private static ObjectNode ref(boolean swagger2, String schemaName) {
+        return MAPPER.createObjectNode().put("$ref", (swagger2 ? "#/definitions/" : "#/components/schemas/") + schemaName);
+    }
+}
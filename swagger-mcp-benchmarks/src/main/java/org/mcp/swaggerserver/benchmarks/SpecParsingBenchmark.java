@@ -0,0 +1,64 @@
+package org.mcp.swaggerserver.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.service.SwaggerApiDiscoveryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Spec discovery: Swagger 2.0, OpenAPI 3.0 and 3.1 specs with 100 to 5000 operations.
+ * {@code parseTools} starts from downloaded content; {@code loadToolsFromSwagger} includes
+ * reading the spec from its (file) URL, as discovery does at startup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class SpecParsingBenchmark {
+
+    @Param({"2.0", "3.0", "3.1"})
+    public String version;
+
+    @Param({"100", "1000", "5000"})
+    public int operations;
+
+    private SwaggerApiDiscoveryService discovery;
+    private String specUrl;
+    private String content;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        discovery = new SwaggerApiDiscoveryService();
+        content = SampleSpecs.load(version, operations);
+        specUrl = SampleSpecs.writeTempFile(content).toUri().toString();
+        int parsed = discovery.parseTools(specUrl, content).size();
+        if (parsed != operations) {
+            throw new IllegalStateException("Expected " + operations + " tools from " + specUrl + " but parsed " + parsed);
+        }
+    }
+
+    @Benchmark
+    public List<DynamicToolDefinition> parseTools() {
+        return discovery.parseTools(specUrl, content);
+    }
+
+    @Benchmark
+    public List<DynamicToolDefinition> loadToolsFromSwagger() {
+        return discovery.loadToolsFromSwagger(specUrl);
+    }
+}
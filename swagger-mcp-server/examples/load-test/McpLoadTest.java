@@ -0,0 +1,211 @@
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Self-contained load test for the MCP tool execution path. Runs with the JDK alone
+ * (single-file source launch), no build needed:
+ *
+ * <pre>
+ *   java McpLoadTest.java stub 9099 2000          # slow upstream answering after 2000 ms
+ *   java McpLoadTest.java run http://localhost:8081 getSlow 1000
+ * </pre>
+ *
+ * The "stub" mode serves a one-operation Swagger 2.0 spec at /swagger.json and a /slow
+ * endpoint that delays every response without holding a thread. The "run" mode opens an
+ * MCP SSE session against the server and fires N concurrent tools/call requests, each with
+ * its own "call" query argument so that every one reaches the upstream, then
+ * reports latency percentiles and the concurrency the server actually sustained.
+ * See load_test.sh for the full orchestration.
+ */
+public class McpLoadTest {
+
+    private static final Pattern ID_PATTERN = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        if (args.length >= 1 && "stub".equals(args[0])) {
+            int port = args.length > 1 ? Integer.parseInt(args[1]) : 9099;
+            long delayMs = args.length > 2 ? Long.parseLong(args[2]) : 2000;
+            runStub(port, delayMs);
+        } else if (args.length >= 1 && "run".equals(args[0])) {
+            String serverUrl = args.length > 1 ? args[1] : "http://localhost:8081";
+            String toolId = args.length > 2 ? args[2] : "getSlow";
+            int concurrency = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+            System.exit(runLoad(serverUrl, toolId, concurrency) ? 0 : 1);
+        } else {
+            System.err.println("Usage: java McpLoadTest.java stub <port> <delayMs> | run <serverUrl> <toolId> <concurrency>");
+            System.exit(2);
+        }
+    }
+
+    // ---- Slow upstream stub ----------------------------------------------------------
+
+    private static void runStub(int port, long delayMs) throws IOException {
+        String spec = """
+                {"swagger":"2.0","info":{"title":"Slow stub","version":"1.0"},
+                 "basePath":"/","schemes":["http"],
+                 "paths":{"/slow":{"get":{"operationId":"getSlow","summary":"Responds after a fixed delay",
+                   "parameters":[{"name":"call","in":"query","type":"integer","description":"Number of the call"}],
+                   "responses":{"200":{"description":"OK"}}}}}}
+                """;
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        HttpServer server = HttpServer.create(new InetSocketAddress(port), 4096);
+        server.setExecutor(Executors.newFixedThreadPool(8));
+        server.createContext("/swagger.json", exchange -> respond(exchange, spec));
+        server.createContext("/slow", exchange ->
+                scheduler.schedule(() -> respond(exchange, "{\"status\":\"ok\"}"), delayMs, TimeUnit.MILLISECONDS));
+        server.start();
+        System.out.printf("Slow upstream listening on http://127.0.0.1:%d (delay %d ms)%n", port, delayMs);
+    }
+
+    private static void respond(HttpExchange exchange, String body) {
+        try (exchange) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (IOException e) {
+            System.err.println("Stub response failed: " + e.getMessage());
+        }
+    }
+
+    // ---- MCP load driver ---------------------------------------------------------------
+
+    private static boolean runLoad(String serverUrl, String toolId, int concurrency) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(Executors.newFixedThreadPool(16))
+                .build();
+
+        Map<Integer, CompletableFuture<String>> pending = new ConcurrentHashMap<>();
+        CompletableFuture<String> endpoint = new CompletableFuture<>();
+
+        HttpRequest sseRequest = HttpRequest.newBuilder(URI.create(serverUrl + "/sse"))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+        client.sendAsync(sseRequest, HttpResponse.BodyHandlers.ofLines())
+                .thenAccept(response -> consumeEvents(response.body().iterator(), endpoint, pending));
+
+        String messageUrl = serverUrl + endpoint.get(10, TimeUnit.SECONDS);
+        post(client, messageUrl, pending, 0, """
+                {"jsonrpc":"2.0","id":0,"method":"initialize","params":{"protocolVersion":"2024-11-05",
+                 "capabilities":{},"clientInfo":{"name":"mcp-load-test","version":"1.0"}}}""")
+                .get(30, TimeUnit.SECONDS);
+        client.send(HttpRequest.newBuilder(URI.create(messageUrl))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"jsonrpc\":\"2.0\",\"method\":\"notifications/initialized\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.discarding());
+
+        System.out.printf("Firing %d concurrent tools/call requests for '%s'...%n", concurrency, toolId);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger errors = new AtomicInteger();
+        List<CompletableFuture<?>> calls = new ArrayList<>();
+        long start = System.nanoTime();
+        for (int i = 1; i <= concurrency; i++) {
+            long callStart = System.nanoTime();
+            // A distinct argument per call, so identical calls are not coalesced into one upstream request
+            String call = "{\"jsonrpc\":\"2.0\",\"id\":" + i + ",\"method\":\"tools/call\",\"params\":{\"name\":\""
+                    + toolId + "\",\"arguments\":{\"call\":" + i + "}}}";
+            calls.add(post(client, messageUrl, pending, i, call)
+                    .orTimeout(5, TimeUnit.MINUTES)
+                    .whenComplete((result, error) -> {
+                        if (error != null || result.contains("\"isError\":true") || result.contains("\"error\"")) {
+                            errors.incrementAndGet();
+                        } else {
+                            latencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - callStart));
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(calls.toArray(new CompletableFuture[0])).handle((r, e) -> null).join();
+        long wallMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        long totalLatency = sorted.stream().mapToLong(Long::longValue).sum();
+        System.out.printf("Completed: %d ok, %d failed in %d ms%n", sorted.size(), errors.get(), wallMs);
+        if (!sorted.isEmpty()) {
+            System.out.printf("Latency ms: p50=%d p95=%d p99=%d max=%d%n",
+                    percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99), sorted.get(sorted.size() - 1));
+            System.out.printf("Sustained concurrency (sum of latencies / wall time): %.1f%n", (double) totalLatency / Math.max(wallMs, 1));
+        }
+        return errors.get() == 0;
+    }
+
+    private static CompletableFuture<String> post(HttpClient client, String messageUrl,
+                                                  Map<Integer, CompletableFuture<String>> pending, int id, String body) {
+        CompletableFuture<String> response = new CompletableFuture<>();
+        pending.put(id, response);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(messageUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((r, error) -> {
+                    if (error != null) {
+                        response.completeExceptionally(error);
+                    } else if (r.statusCode() >= 400) {
+                        response.completeExceptionally(new IOException("POST rejected with status " + r.statusCode()));
+                    }
+                });
+        return response;
+    }
+
+    /**
+     * Reads the SSE stream: the first "endpoint" event carries the message URL, every
+     * "message" event carries a JSON-RPC response that is routed to its pending call by id.
+     */
+    private static void consumeEvents(java.util.Iterator<String> lines, CompletableFuture<String> endpoint,
+                                      Map<Integer, CompletableFuture<String>> pending) {
+        String event = null;
+        while (lines.hasNext()) {
+            String line = lines.next();
+            if (line.startsWith("event:")) {
+                event = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                String data = line.substring(5).trim();
+                if ("endpoint".equals(event)) {
+                    endpoint.complete(data);
+                } else {
+                    Matcher matcher = ID_PATTERN.matcher(data);
+                    if (matcher.find()) {
+                        CompletableFuture<String> call = pending.remove(Integer.parseInt(matcher.group(1)));
+                        if (call != null) {
+                            call.complete(data);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static long percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+}
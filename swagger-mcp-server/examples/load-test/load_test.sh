@@ -0,0 +1,42 @@
+#!/bin/bash
+#
+# Load test for the MCP tool execution path: starts a slow upstream stub, boots the
+# server against it and fires CONCURRENCY simultaneous tools/call requests over SSE.
+#
+# Usage: bash examples/load-test/load_test.sh [concurrency] [upstream-delay-ms]
+# Extra server options go in SERVER_ARGS, e.g. SERVER_ARGS=--swagger.concurrency.enabled=true
+# Build the server jar first (mvn clean package).
+
+CONCURRENCY="${1:-1000}"
+DELAY_MS="${2:-2000}"
+STUB_PORT="${STUB_PORT:-9099}"
+SERVER_PORT="${SERVER_PORT:-8081}"
+
+SCRIPT_DIR="$(cd "$(dirname "$0")" && pwd)"
+MODULE_DIR="$(cd "$SCRIPT_DIR/../.." && pwd)"
+JAR="$MODULE_DIR/target/swagger-mcp-server-1.0.0-SNAPSHOT-exec.jar"
+
+cleanup() {
+  [ -n "$SERVER_PID" ] && kill "$SERVER_PID" 2>/dev/null
+  [ -n "$STUB_PID" ] && kill "$STUB_PID" 2>/dev/null
+}
+trap cleanup EXIT
+
+java "$SCRIPT_DIR/McpLoadTest.java" stub "$STUB_PORT" "$DELAY_MS" &
+STUB_PID=$!
+sleep 3
+
+java ${SERVER_JAVA_OPTS} -jar "$JAR" \
+  --server.port="$SERVER_PORT" \
+  --swagger.api.url="http://127.0.0.1:$STUB_PORT/swagger.json" \
+  --api.base.url="http://127.0.0.1:$STUB_PORT" \
+  --debug=false ${SERVER_ARGS} > "$SCRIPT_DIR/server-under-load.log" 2>&1 &
+SERVER_PID=$!
+
+echo "Waiting for server on port $SERVER_PORT ..."
+for _ in $(seq 1 60); do
+  curl -sf "http://localhost:$SERVER_PORT/actuator/health" > /dev/null && break
+  sleep 1
+done
+
+java "$SCRIPT_DIR/McpLoadTest.java" run "http://localhost:$SERVER_PORT" getSlow "$CONCURRENCY"
@@ -1,12 +1,17 @@
 package org.mcp.swaggerserver;
 
+import org.mcp.swaggerserver.config.NativeHints;
 import org.springframework.ai.tool.ToolCallback;
 import org.springframework.ai.tool.function.FunctionToolCallback;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
+@ImportRuntimeHints(NativeHints.class)
 public class SwaggerMcpServerApplication {
     public static void main(String[] args) {
 		System.out.println("Starting Swagger MCP Server Application...");
@@ -0,0 +1,28 @@
+package org.mcp.swaggerserver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.access-log")
+public class AccessLogConfig {
+
+    /**
+     * Per-invocation access records on the org.mcp.swaggerserver.access logger, e.g.
+     * swagger.access-log.enabled=true
+     * swagger.access-log.sample-rate=0.01
+     * swagger.access-log.max-payload-chars=256
+     */
+    private boolean enabled = true;
+    /** Fraction of records (0 to 1) that also carry the call's arguments and the start of its result. */
+    private double sampleRate = 0.01;
+    /** Arguments and results of sampled records are cut after this many characters. */
+    private int maxPayloadChars = 256;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public double getSampleRate() { return sampleRate; }
+    public void setSampleRate(double sampleRate) { this.sampleRate = sampleRate; }
+    public int getMaxPayloadChars() { return maxPayloadChars; }
+    public void setMaxPayloadChars(int maxPayloadChars) { this.maxPayloadChars = maxPayloadChars; }
+}
@@ -0,0 +1,84 @@
+package org.mcp.swaggerserver.config;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger")
+public class ApiSourcesConfig {
+
+    /**
+     * Named Swagger/OpenAPI sources served by this process, e.g.
+     * swagger.sources[0].name=petstore
+     * swagger.sources[0].spec-url=https://petstore.swagger.io/v2/swagger.json
+     * swagger.sources[0].base-url=https://petstore.swagger.io/v2
+     * swagger.sources[0].headers.X-Api-Key=...
+     * swagger.sources[0].auth.header-name=Authorization
+     *
+     * When empty, a single source is built from the legacy swagger.api.url / api.base.url / auth.* properties.
+     */
+    private List<ApiSource> sources = new ArrayList<>();
+
+    public List<ApiSource> getSources() {
+        return sources;
+    }
+
+    public void setSources(List<ApiSource> sources) {
+        this.sources = sources;
+    }
+
+    public static class ApiSource {
+
+        private String name;
+        private String specUrl;
+        private String baseUrl;
+        /**
+         * Prefix prepended to every tool id of this source ("prefix__toolId"). Defaults to the
+         * source name; set to an empty string to keep the spec's own ids.
+         */
+        private String toolPrefix;
+        /**
+         * Headers sent to this source only, on top of swagger.rest.headers.
+         */
+        private Map<String, String> headers = new HashMap<>();
+        private Auth auth = new Auth();
+        /**
+         * Connection pool / protocol overrides for this source; unset fields use swagger.http.*.
+         */
+        private HttpClientSettings http = new HttpClientSettings();
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+        public String getSpecUrl() { return specUrl; }
+        public void setSpecUrl(String specUrl) { this.specUrl = specUrl; }
+        public String getBaseUrl() { return baseUrl; }
+        public void setBaseUrl(String baseUrl) { this.baseUrl = baseUrl; }
+        public String getToolPrefix() { return toolPrefix != null ? toolPrefix : name; }
+        public void setToolPrefix(String toolPrefix) { this.toolPrefix = toolPrefix; }
+        public Map<String, String> getHeaders() { return headers; }
+        public void setHeaders(Map<String, String> headers) { this.headers = headers; }
+        public Auth getAuth() { return auth; }
+        public void setAuth(Auth auth) { this.auth = auth; }
+        public HttpClientSettings getHttp() { return http; }
+        public void setHttp(HttpClientSettings http) { this.http = http; }
+    }
+
+    public static class Auth {
+
+        private String headerName;
+        private String headerPrefix;
+        private String tokenValue;
+
+        public String getHeaderName() { return headerName; }
+        public void setHeaderName(String headerName) { this.headerName = headerName; }
+        public String getHeaderPrefix() { return headerPrefix; }
+        public void setHeaderPrefix(String headerPrefix) { this.headerPrefix = headerPrefix; }
+        public String getTokenValue() { return tokenValue; }
+        public void setTokenValue(String tokenValue) { this.tokenValue = tokenValue; }
+    }
+}
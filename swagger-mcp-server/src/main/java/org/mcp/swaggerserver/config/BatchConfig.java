@@ -0,0 +1,34 @@
+package org.mcp.swaggerserver.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.batch")
+public class BatchConfig {
+
+    /**
+     * Batch tool invocation (POST /tools/batch and the batch_invoke MCP tool), e.g.
+     * swagger.batch.max-calls=100
+     * swagger.batch.parallelism=16
+     * swagger.batch.call-timeout=30s
+     */
+    private int maxCalls = 100;
+    /** Upper bound on the calls of one batch in flight at a time; a request may ask for fewer. */
+    private int parallelism = 16;
+    /** Upper bound on the time a single call of a batch may take; a request may ask for less. */
+    private Duration callTimeout = Duration.ofSeconds(30);
+    /** Whether to expose the batch_invoke tool to MCP clients. */
+    private boolean mcpTool = true;
+
+    public int getMaxCalls() { return maxCalls; }
+    public void setMaxCalls(int maxCalls) { this.maxCalls = maxCalls; }
+    public int getParallelism() { return parallelism; }
+    public void setParallelism(int parallelism) { this.parallelism = parallelism; }
+    public Duration getCallTimeout() { return callTimeout; }
+    public void setCallTimeout(Duration callTimeout) { this.callTimeout = callTimeout; }
+    public boolean isMcpTool() { return mcpTool; }
+    public void setMcpTool(boolean mcpTool) { this.mcpTool = mcpTool; }
+}
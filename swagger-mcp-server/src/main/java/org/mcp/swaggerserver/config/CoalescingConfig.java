@@ -0,0 +1,26 @@
+package org.mcp.swaggerserver.config;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.coalescing")
+public class CoalescingConfig {
+
+    /**
+     * Single-flight for concurrent identical tool calls, e.g.
+     * swagger.coalescing.enabled=true
+     * swagger.coalescing.methods=GET,HEAD
+     */
+    private boolean enabled = true;
+    /** HTTP methods whose identical in-flight calls share one upstream request. Only list safe methods. */
+    private Set<String> methods = new LinkedHashSet<>(Set.of("GET", "HEAD"));
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Set<String> getMethods() { return methods; }
+    public void setMethods(Set<String> methods) { this.methods = methods; }
+}
@@ -0,0 +1,52 @@
+package org.mcp.swaggerserver.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.concurrency")
+public class ConcurrencyLimitConfig {
+
+    /**
+     * Adaptive (AIMD) limit on the concurrent requests to each API source (opt-in), e.g.
+     * swagger.concurrency.enabled=true
+     * swagger.concurrency.max-limit=1000
+     * swagger.concurrency.latency-tolerance=2.0
+     */
+    private boolean enabled = false;
+    /** Starting limit; unset means the source's swagger.http.max-connections. */
+    private Integer initialLimit;
+    private int minLimit = 1;
+    private int maxLimit = 1000;
+    /** Factor the limit is multiplied by when a call fails, times out or is slow. */
+    private double backoffRatio = 0.9;
+    /** Calls slower than this multiple of the source's observed average latency count as slow. */
+    private double latencyTolerance = 2.0;
+    /** Calls slower than this also count as slow, whatever the average; unset means no fixed threshold. */
+    private Duration latencyThreshold;
+    /** Calls waiting for a slot beyond this are rejected straight away. */
+    private int maxQueueSize = 1000;
+    /** How long a queued call waits for a slot before it is rejected. */
+    private Duration maxQueueWait = Duration.ofSeconds(5);
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Integer getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(Integer initialLimit) { this.initialLimit = initialLimit; }
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+    public double getBackoffRatio() { return backoffRatio; }
+    public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+    public double getLatencyTolerance() { return latencyTolerance; }
+    public void setLatencyTolerance(double latencyTolerance) { this.latencyTolerance = latencyTolerance; }
+    public Duration getLatencyThreshold() { return latencyThreshold; }
+    public void setLatencyThreshold(Duration latencyThreshold) { this.latencyThreshold = latencyThreshold; }
+    public int getMaxQueueSize() { return maxQueueSize; }
+    public void setMaxQueueSize(int maxQueueSize) { this.maxQueueSize = maxQueueSize; }
+    public Duration getMaxQueueWait() { return maxQueueWait; }
+    public void setMaxQueueWait(Duration maxQueueWait) { this.maxQueueWait = maxQueueWait; }
+}
@@ -0,0 +1,40 @@
+package org.mcp.swaggerserver.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Default HTTP client settings for every API source, e.g.
+ * swagger.http.max-connections=500
+ * swagger.http.pending-acquire-timeout=5s
+ * swagger.http.response-timeout=10s
+ * swagger.http.protocols=H2,HTTP11
+ *
+ * Individual sources override any of them under swagger.sources[n].http.*.
+ */
+@Component
+@ConfigurationProperties(prefix = "swagger.http")
+public class HttpClientConfig extends HttpClientSettings {
+
+    public HttpClientConfig() {
+        setMaxConnections(500);
+        setPendingAcquireMaxCount(1000);
+        setPendingAcquireTimeout(Duration.ofSeconds(10));
+        setMaxIdleTime(Duration.ofSeconds(30));
+        setMaxLifeTime(Duration.ofMinutes(10));
+        setEvictInBackground(Duration.ofSeconds(30));
+        setLeasingStrategy("fifo");
+        setConnectTimeout(Duration.ofSeconds(5));
+        setResponseTimeout(Duration.ofSeconds(30));
+        setTimeout(Duration.ofSeconds(60));
+        setKeepAlive(true);
+        setProtocols(List.of(HttpProtocol.HTTP11));
+        setMaxConcurrentStreams(100L);
+        setMetrics(true);
+    }
+}
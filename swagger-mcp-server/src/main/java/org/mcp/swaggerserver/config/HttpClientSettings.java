@@ -0,0 +1,97 @@
+package org.mcp.swaggerserver.config;
+
+import java.time.Duration;
+import java.util.List;
+
+import reactor.netty.http.HttpProtocol;
+
+/**
+ * Connection pool and protocol settings for the HTTP client of an API source. Used for the
+ * global defaults (swagger.http.*) and for per-source overrides (swagger.sources[n].http.*);
+ * fields left unset in an override inherit the global value.
+ */
+public class HttpClientSettings {
+
+    /** Maximum pooled connections per upstream host (HTTP/1.1) or connections for HTTP/2. */
+    private Integer maxConnections;
+    /** Requests allowed to wait for a pooled connection; -1 means unbounded. */
+    private Integer pendingAcquireMaxCount;
+    /** How long a request may wait for a pooled connection before failing. */
+    private Duration pendingAcquireTimeout;
+    /** Idle connections are closed after this long. */
+    private Duration maxIdleTime;
+    /** Connections are closed after this age, which also rebalances across DNS changes. */
+    private Duration maxLifeTime;
+    /** Interval of the background sweep evicting idle/expired connections; zero disables it. */
+    private Duration evictInBackground;
+    /** "fifo" spreads load over all pooled connections, "lifo" keeps the hottest ones busy. */
+    private String leasingStrategy;
+    private Duration connectTimeout;
+    /** Longest silence from the upstream while waiting for or reading a response, per attempt. */
+    private Duration responseTimeout;
+    /** Upper bound on a whole tool call, retries included. */
+    private Duration timeout;
+    /** TCP keep-alive on pooled connections. */
+    private Boolean keepAlive;
+    /** HTTP versions to negotiate, e.g. HTTP11, H2 (TLS + ALPN) or H2C (cleartext). */
+    private List<HttpProtocol> protocols;
+    /** Concurrent streams per HTTP/2 connection. */
+    private Long maxConcurrentStreams;
+    /** Publish Reactor Netty pool metrics to Micrometer. */
+    private Boolean metrics;
+
+    /**
+     * Returns a copy of these settings with every field set in {@code override} replacing ours.
+     */
+    public HttpClientSettings mergedWith(HttpClientSettings override) {
+        HttpClientSettings merged = new HttpClientSettings();
+        merged.maxConnections = pick(override == null ? null : override.maxConnections, maxConnections);
+        merged.pendingAcquireMaxCount = pick(override == null ? null : override.pendingAcquireMaxCount, pendingAcquireMaxCount);
+        merged.pendingAcquireTimeout = pick(override == null ? null : override.pendingAcquireTimeout, pendingAcquireTimeout);
+        merged.maxIdleTime = pick(override == null ? null : override.maxIdleTime, maxIdleTime);
+        merged.maxLifeTime = pick(override == null ? null : override.maxLifeTime, maxLifeTime);
+        merged.evictInBackground = pick(override == null ? null : override.evictInBackground, evictInBackground);
+        merged.leasingStrategy = pick(override == null ? null : override.leasingStrategy, leasingStrategy);
+        merged.connectTimeout = pick(override == null ? null : override.connectTimeout, connectTimeout);
+        merged.responseTimeout = pick(override == null ? null : override.responseTimeout, responseTimeout);
+        merged.timeout = pick(override == null ? null : override.timeout, timeout);
+        merged.keepAlive = pick(override == null ? null : override.keepAlive, keepAlive);
+        merged.protocols = pick(override == null ? null : override.protocols, protocols);
+        merged.maxConcurrentStreams = pick(override == null ? null : override.maxConcurrentStreams, maxConcurrentStreams);
+        merged.metrics = pick(override == null ? null : override.metrics, metrics);
+        return merged;
+    }
+
+    private static <T> T pick(T override, T fallback) {
+        return override != null ? override : fallback;
+    }
+
+    public Integer getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(Integer maxConnections) { this.maxConnections = maxConnections; }
+    public Integer getPendingAcquireMaxCount() { return pendingAcquireMaxCount; }
+    public void setPendingAcquireMaxCount(Integer pendingAcquireMaxCount) { this.pendingAcquireMaxCount = pendingAcquireMaxCount; }
+    public Duration getPendingAcquireTimeout() { return pendingAcquireTimeout; }
+    public void setPendingAcquireTimeout(Duration pendingAcquireTimeout) { this.pendingAcquireTimeout = pendingAcquireTimeout; }
+    public Duration getMaxIdleTime() { return maxIdleTime; }
+    public void setMaxIdleTime(Duration maxIdleTime) { this.maxIdleTime = maxIdleTime; }
+    public Duration getMaxLifeTime() { return maxLifeTime; }
+    public void setMaxLifeTime(Duration maxLifeTime) { this.maxLifeTime = maxLifeTime; }
+    public Duration getEvictInBackground() { return evictInBackground; }
+    public void setEvictInBackground(Duration evictInBackground) { this.evictInBackground = evictInBackground; }
+    public String getLeasingStrategy() { return leasingStrategy; }
+    public void setLeasingStrategy(String leasingStrategy) { this.leasingStrategy = leasingStrategy; }
+    public Duration getConnectTimeout() { return connectTimeout; }
+    public void setConnectTimeout(Duration connectTimeout) { this.connectTimeout = connectTimeout; }
+    public Duration getResponseTimeout() { return responseTimeout; }
+    public void setResponseTimeout(Duration responseTimeout) { this.responseTimeout = responseTimeout; }
+    public Duration getTimeout() { return timeout; }
+    public void setTimeout(Duration timeout) { this.timeout = timeout; }
+    public Boolean getKeepAlive() { return keepAlive; }
+    public void setKeepAlive(Boolean keepAlive) { this.keepAlive = keepAlive; }
+    public List<HttpProtocol> getProtocols() { return protocols; }
+    public void setProtocols(List<HttpProtocol> protocols) { this.protocols = protocols; }
+    public Long getMaxConcurrentStreams() { return maxConcurrentStreams; }
+    public void setMaxConcurrentStreams(Long maxConcurrentStreams) { this.maxConcurrentStreams = maxConcurrentStreams; }
+    public Boolean getMetrics() { return metrics; }
+    public void setMetrics(Boolean metrics) { this.metrics = metrics; }
+}
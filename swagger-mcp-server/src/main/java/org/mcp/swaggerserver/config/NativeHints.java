@@ -0,0 +1,79 @@
+package org.mcp.swaggerserver.config;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.mcp.swaggerserver.SwaggerMcpServerApplication;
+import org.mcp.swaggerserver.model.BatchRequest;
+import org.mcp.swaggerserver.model.BatchResult;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolDefinitionSnapshot;
+import org.mcp.swaggerserver.model.ToolSearchHit;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.TypeReference;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.core.type.classreading.CachingMetadataReaderFactory;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+
+/**
+ * Reflection and resource hints for the native image (mvn -Pnative native:compile), on top of
+ * what Spring AOT derives from the beans and Spring AI ships for the MCP schema: the Jackson
+ * models of this server, the input type of the FunctionToolCallback beans, and the models of
+ * swagger-parser and openapi4j, which map specs onto them with Jackson. Evaluated at build time
+ * only.
+ */
+public class NativeHints implements RuntimeHintsRegistrar {
+
+    /** Packages whose classes are (de)serialized reflectively by the spec parsers. */
+    private static final List<String> PARSER_MODEL_PACKAGES = List.of(
+            "io.swagger.v3.oas.models",
+            "io.swagger.v3.core.jackson",
+            "io.swagger.v3.parser.core.models",
+            "io.swagger.models",
+            "org.openapi4j.core.model",
+            "org.openapi4j.parser.model");
+
+    private static final MemberCategory[] BEAN_MEMBERS = {
+            MemberCategory.DECLARED_FIELDS,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_DECLARED_METHODS,
+            MemberCategory.INVOKE_PUBLIC_METHODS};
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                DynamicToolDefinition.class, ToolDefinitionSnapshot.class, BatchRequest.class,
+                BatchResult.class, ToolSearchHit.class, SwaggerMcpServerApplication.TextInput.class);
+        PathMatchingResourcePatternResolver resolver = new PathMatchingResourcePatternResolver(classLoader);
+        MetadataReaderFactory readers = new CachingMetadataReaderFactory(resolver);
+        for (String modelPackage : PARSER_MODEL_PACKAGES) {
+            for (String className : classesIn(modelPackage, resolver, readers)) {
+                hints.reflection().registerType(TypeReference.of(className), BEAN_MEMBERS);
+            }
+        }
+        hints.resources().registerPattern("logback-spring.xml");
+    }
+
+    private static List<String> classesIn(String modelPackage, PathMatchingResourcePatternResolver resolver,
+                                          MetadataReaderFactory readers) {
+        String pattern = "classpath*:" + modelPackage.replace('.', '/') + "/**/*.class";
+        try {
+            Resource[] resources = resolver.getResources(pattern);
+            List<String> classNames = new ArrayList<>(resources.length);
+            for (Resource resource : resources) {
+                String className = readers.getMetadataReader(resource).getClassMetadata().getClassName();
+                if (!className.endsWith("package-info") && !className.endsWith("module-info")) {
+                    classNames.add(className);
+                }
+            }
+            return classNames;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to scan " + modelPackage + " for native hints", e);
+        }
+    }
+}
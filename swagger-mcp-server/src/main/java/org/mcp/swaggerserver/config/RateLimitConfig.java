@@ -0,0 +1,85 @@
+package org.mcp.swaggerserver.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.rate-limit")
+public class RateLimitConfig {
+
+    /**
+     * Token-bucket rate limits on tool calls per client and per tool, e.g.
+     * swagger.rate-limit.enabled=true
+     * swagger.rate-limit.requests-per-second=10
+     * swagger.rate-limit.burst=20
+     * swagger.rate-limit.clients.reporting-agent.requests-per-second=50
+     * swagger.rate-limit.clients.reporting-agent.weight=2
+     * swagger.rate-limit.tools.createOrder.requests-per-second=5
+     * Per-client usage is counted either way.
+     */
+    private boolean enabled = false;
+    /**
+     * Request header naming the client, e.g. X-Client-Id; unset by default, which keys clients by
+     * MCP session or else remote address. Callers can put any id in the header, so only set this
+     * behind a trusted proxy that sets or overwrites it.
+     */
+    private String clientHeader = "";
+    /** Default sustained rate per client; 0 for no limit. */
+    private double requestsPerSecond = 10;
+    /** Default number of calls a client can make at once after being idle. */
+    private int burst = 20;
+    /** Most clients tracked at once; the least recently seen are forgotten beyond this. */
+    private int maxClients = 10000;
+    /** Clients tagged by id in the swagger.client.requests metric; later ones are tagged "other". */
+    private int metricsClients = 100;
+    /** Per-client limits and queue weights, by client id: the header value, the MCP session id prefixed with "mcp-session:", or the remote address. */
+    private Map<String, ClientLimit> clients = new HashMap<>();
+    /** Limits per tool id across all clients. */
+    private Map<String, Limit> tools = new HashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public String getClientHeader() { return clientHeader; }
+    public void setClientHeader(String clientHeader) { this.clientHeader = clientHeader; }
+    public double getRequestsPerSecond() { return requestsPerSecond; }
+    public void setRequestsPerSecond(double requestsPerSecond) { this.requestsPerSecond = requestsPerSecond; }
+    public int getBurst() { return burst; }
+    public void setBurst(int burst) { this.burst = burst; }
+    public int getMaxClients() { return maxClients; }
+    public void setMaxClients(int maxClients) { this.maxClients = maxClients; }
+    public int getMetricsClients() { return metricsClients; }
+    public void setMetricsClients(int metricsClients) { this.metricsClients = metricsClients; }
+    public Map<String, ClientLimit> getClients() { return clients; }
+    public void setClients(Map<String, ClientLimit> clients) { this.clients = clients; }
+    public Map<String, Limit> getTools() { return tools; }
+    public void setTools(Map<String, Limit> tools) { this.tools = tools; }
+
+    /** The queue weight of a client; 1 unless configured. */
+    public int weightOf(String clientId) {
+        ClientLimit client = clients.get(clientId);
+        return client != null ? Math.max(1, client.getWeight()) : 1;
+    }
+
+    public static class Limit {
+        /** Sustained rate; 0 for no limit. */
+        private Double requestsPerSecond;
+        /** Calls allowed at once after being idle; defaults to swagger.rate-limit.burst for clients, one second's worth for tools. */
+        private Integer burst;
+
+        public Double getRequestsPerSecond() { return requestsPerSecond; }
+        public void setRequestsPerSecond(Double requestsPerSecond) { this.requestsPerSecond = requestsPerSecond; }
+        public Integer getBurst() { return burst; }
+        public void setBurst(Integer burst) { this.burst = burst; }
+    }
+
+    public static class ClientLimit extends Limit {
+        /** Share of the upstream concurrency queues relative to other clients. */
+        private int weight = 1;
+
+        public int getWeight() { return weight; }
+        public void setWeight(int weight) { this.weight = weight; }
+    }
+}
@@ -0,0 +1,100 @@
+package org.mcp.swaggerserver.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.resilience")
+public class ResilienceConfig {
+
+    /**
+     * Per-tool timeouts, retries and circuit breaking of upstream calls, e.g.
+     * swagger.resilience.tool-timeouts.getReport=2m
+     * swagger.resilience.retry.max-retries=2
+     * swagger.resilience.circuit-breaker.failure-rate-threshold=50
+     *
+     * Connect, response and default overall timeouts are set per source under swagger.http.*.
+     */
+    private Map<String, Duration> toolTimeouts = new HashMap<>();
+    private Retry retry = new Retry();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    public Map<String, Duration> getToolTimeouts() { return toolTimeouts; }
+    public void setToolTimeouts(Map<String, Duration> toolTimeouts) { this.toolTimeouts = toolTimeouts; }
+    public Retry getRetry() { return retry; }
+    public void setRetry(Retry retry) { this.retry = retry; }
+    public CircuitBreaker getCircuitBreaker() { return circuitBreaker; }
+    public void setCircuitBreaker(CircuitBreaker circuitBreaker) { this.circuitBreaker = circuitBreaker; }
+
+    public static class Retry {
+
+        private boolean enabled = true;
+        /** Retries after the first attempt. */
+        private int maxRetries = 2;
+        private Duration initialBackoff = Duration.ofMillis(100);
+        private Duration maxBackoff = Duration.ofSeconds(2);
+        /** Random share of each backoff, between 0 and 1. */
+        private double jitter = 0.5;
+        /** HTTP methods that are retried. Only list idempotent methods. */
+        private Set<String> methods = new LinkedHashSet<>(Set.of("GET", "HEAD", "OPTIONS", "PUT", "DELETE"));
+        /** Upstream statuses that are retried; I/O errors and response timeouts always are. */
+        private Set<Integer> statuses = new LinkedHashSet<>(Set.of(502, 503, 504));
+        /** Retries each source earns per call made to it. */
+        private double budgetRatio = 0.2;
+        /** Retries each source may make per second regardless of its traffic. */
+        private double budgetMinPerSecond = 5;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getMaxRetries() { return maxRetries; }
+        public void setMaxRetries(int maxRetries) { this.maxRetries = maxRetries; }
+        public Duration getInitialBackoff() { return initialBackoff; }
+        public void setInitialBackoff(Duration initialBackoff) { this.initialBackoff = initialBackoff; }
+        public Duration getMaxBackoff() { return maxBackoff; }
+        public void setMaxBackoff(Duration maxBackoff) { this.maxBackoff = maxBackoff; }
+        public double getJitter() { return jitter; }
+        public void setJitter(double jitter) { this.jitter = jitter; }
+        public Set<String> getMethods() { return methods; }
+        public void setMethods(Set<String> methods) { this.methods = methods; }
+        public Set<Integer> getStatuses() { return statuses; }
+        public void setStatuses(Set<Integer> statuses) { this.statuses = statuses; }
+        public double getBudgetRatio() { return budgetRatio; }
+        public void setBudgetRatio(double budgetRatio) { this.budgetRatio = budgetRatio; }
+        public double getBudgetMinPerSecond() { return budgetMinPerSecond; }
+        public void setBudgetMinPerSecond(double budgetMinPerSecond) { this.budgetMinPerSecond = budgetMinPerSecond; }
+    }
+
+    public static class CircuitBreaker {
+
+        private boolean enabled = true;
+        /** Number of most recent calls per host the failure rate is computed over. */
+        private int windowSize = 20;
+        /** Calls needed in the window before the breaker may open. */
+        private int minimumCalls = 10;
+        /** Failure percentage at which the breaker opens. */
+        private int failureRateThreshold = 50;
+        /** How long an open breaker fails fast before letting trial calls through. */
+        private Duration openDuration = Duration.ofSeconds(30);
+        /** Trial calls in the half-open state; all must succeed to close the breaker. */
+        private int halfOpenCalls = 3;
+
+        public boolean isEnabled() { return enabled; }
+        public void setEnabled(boolean enabled) { this.enabled = enabled; }
+        public int getWindowSize() { return windowSize; }
+        public void setWindowSize(int windowSize) { this.windowSize = windowSize; }
+        public int getMinimumCalls() { return minimumCalls; }
+        public void setMinimumCalls(int minimumCalls) { this.minimumCalls = minimumCalls; }
+        public int getFailureRateThreshold() { return failureRateThreshold; }
+        public void setFailureRateThreshold(int failureRateThreshold) { this.failureRateThreshold = failureRateThreshold; }
+        public Duration getOpenDuration() { return openDuration; }
+        public void setOpenDuration(Duration openDuration) { this.openDuration = openDuration; }
+        public int getHalfOpenCalls() { return halfOpenCalls; }
+        public void setHalfOpenCalls(int halfOpenCalls) { this.halfOpenCalls = halfOpenCalls; }
+    }
+}
@@ -0,0 +1,42 @@
+package org.mcp.swaggerserver.config;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.response-cache")
+public class ResponseCacheConfig {
+
+    /**
+     * Opt-in cache for responses of GET tools, e.g.
+     * swagger.response-cache.enabled=true
+     * swagger.response-cache.default-ttl=60s
+     * swagger.response-cache.tools=getPetById,findPetsByStatus
+     */
+    private boolean enabled = false;
+    private int maxEntries = 10_000;
+    private long maxBytes = 64L * 1024 * 1024;
+    /** TTL used when the upstream sends no Cache-Control max-age (or it is ignored). */
+    private Duration defaultTtl = Duration.ofSeconds(60);
+    /** Honour upstream Cache-Control (no-store, private, no-cache, max-age, s-maxage). */
+    private boolean respectCacheControl = true;
+    /** Tool ids to cache; empty means every GET tool. */
+    private Set<String> tools = new HashSet<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+    public long getMaxBytes() { return maxBytes; }
+    public void setMaxBytes(long maxBytes) { this.maxBytes = maxBytes; }
+    public Duration getDefaultTtl() { return defaultTtl; }
+    public void setDefaultTtl(Duration defaultTtl) { this.defaultTtl = defaultTtl; }
+    public boolean isRespectCacheControl() { return respectCacheControl; }
+    public void setRespectCacheControl(boolean respectCacheControl) { this.respectCacheControl = respectCacheControl; }
+    public Set<String> getTools() { return tools; }
+    public void setTools(Set<String> tools) { this.tools = tools; }
+}
@@ -0,0 +1,25 @@
+package org.mcp.swaggerserver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.response")
+public class ResponseLimitsConfig {
+
+    /**
+     * Bounds the upstream body buffered for one tool result (MCP calls and /tools/{id}/invoke), e.g.
+     * swagger.response.max-bytes=1048576
+     * swagger.response.pagination=true
+     * Larger bodies are cut at this size for MCP calls and fail /tools/{id}/invoke with 502;
+     * /tools/{id}/invoke/stream is not limited.
+     */
+    private int maxBytes = 1024 * 1024;
+    /** Offer the rest of a truncated body through the "_responseOffset" argument; otherwise just truncate. */
+    private boolean pagination = true;
+
+    public int getMaxBytes() { return maxBytes; }
+    public void setMaxBytes(int maxBytes) { this.maxBytes = maxBytes; }
+    public boolean isPagination() { return pagination; }
+    public void setPagination(boolean pagination) { this.pagination = pagination; }
+}
@@ -0,0 +1,51 @@
+package org.mcp.swaggerserver.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.response.shaping")
+public class ResponseShapingConfig {
+
+    /**
+     * Shaping of JSON tool results while they are read from the upstream (opt-in), e.g.
+     * swagger.response.shaping.arguments=true
+     * swagger.response.shaping.compact=true
+     * swagger.response.shaping.max-items=0
+     * swagger.response.shaping.tools.findPetsByStatus.fields=id,name,status
+     * swagger.response.shaping.tools.findPetsByStatus.max-items=20
+     * Offer and honor the per-call "_fields", "_maxItems" and "_cursor" arguments.
+     */
+    private boolean arguments = false;
+    /** Strip insignificant whitespace from JSON results. */
+    private boolean compact = false;
+    /** Default cap on the items of every array in a JSON result; 0 keeps all items. */
+    private int maxItems = 0;
+    /** Per-tool defaults, by tool id; per-call arguments take precedence. */
+    private Map<String, ToolShaping> tools = new HashMap<>();
+
+    public boolean isArguments() { return arguments; }
+    public void setArguments(boolean arguments) { this.arguments = arguments; }
+    public boolean isCompact() { return compact; }
+    public void setCompact(boolean compact) { this.compact = compact; }
+    public int getMaxItems() { return maxItems; }
+    public void setMaxItems(int maxItems) { this.maxItems = maxItems; }
+    public Map<String, ToolShaping> getTools() { return tools; }
+    public void setTools(Map<String, ToolShaping> tools) { this.tools = tools; }
+
+    public static class ToolShaping {
+        /** Field paths to keep, e.g. id, owner.name or $.items[*].id; all fields if empty. */
+        private List<String> fields;
+        /** Cap on the items of every array in the tool's results; overrides the default when set. */
+        private Integer maxItems;
+
+        public List<String> getFields() { return fields; }
+        public void setFields(List<String> fields) { this.fields = fields; }
+        public Integer getMaxItems() { return maxItems; }
+        public void setMaxItems(Integer maxItems) { this.maxItems = maxItems; }
+    }
+}
@@ -0,0 +1,43 @@
+package org.mcp.swaggerserver.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@ConfigurationProperties(prefix = "swagger.tool-search")
+public class ToolSearchConfig {
+
+    /**
+     * Tool search (the search_tools / describe_tool MCP tools and GET /tools/search), e.g.
+     * swagger.tool-search.enabled=true
+     * swagger.tool-search.exposure=lazy
+     * swagger.tool-search.default-results=10
+     */
+    private boolean enabled = true;
+    /**
+     * ALL lists every operation as its own MCP tool next to the search tools. LAZY lists only
+     * search_tools, describe_tool, invoke_tool (and batch_invoke), so clients fetch the schemas
+     * of the operations they need instead of all of them.
+     */
+    private Exposure exposure = Exposure.ALL;
+    /** Results returned when a search does not ask for a number. */
+    private int defaultResults = 10;
+    /** Upper bound on the results of one search. */
+    private int maxResults = 50;
+
+    public enum Exposure { ALL, LAZY }
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+    public Exposure getExposure() { return exposure; }
+    public void setExposure(Exposure exposure) { this.exposure = exposure; }
+    public int getDefaultResults() { return defaultResults; }
+    public void setDefaultResults(int defaultResults) { this.defaultResults = defaultResults; }
+    public int getMaxResults() { return maxResults; }
+    public void setMaxResults(int maxResults) { this.maxResults = maxResults; }
+
+    /** Whether the search tools are exposed over MCP; always the case with lazy exposure. */
+    public boolean exposesSearchTools() {
+        return enabled || exposure == Exposure.LAZY;
+    }
+}
@@ -0,0 +1,43 @@
+package org.mcp.swaggerserver.controller;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mcp.swaggerserver.service.CircuitBreaker;
+import org.mcp.swaggerserver.service.CircuitBreakerRegistry;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/circuitbreakers}: state of the circuit breaker of every upstream host called
+ * so far.
+ */
+@Component
+@Endpoint(id = "circuitbreakers")
+public class CircuitBreakerEndpoint {
+
+    private final CircuitBreakerRegistry circuitBreakers;
+
+    public CircuitBreakerEndpoint(CircuitBreakerRegistry circuitBreakers) {
+        this.circuitBreakers = circuitBreakers;
+    }
+
+    @ReadOperation
+    public List<Map<String, Object>> circuitBreakers() {
+        return circuitBreakers.all().stream()
+                .sorted(Comparator.comparing(CircuitBreaker::host))
+                .map(breaker -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("host", breaker.host());
+                    entry.put("state", breaker.state());
+                    float failureRate = breaker.failureRate();
+                    entry.put("failureRate", failureRate >= 0 ? failureRate : null);
+                    entry.put("openedAt", breaker.openedAt());
+                    return entry;
+                })
+                .toList();
+    }
+}
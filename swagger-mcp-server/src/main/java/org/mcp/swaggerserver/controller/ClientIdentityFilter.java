@@ -0,0 +1,72 @@
+package org.mcp.swaggerserver.controller;
+
+import java.net.InetSocketAddress;
+
+import org.mcp.swaggerserver.config.RateLimitConfig;
+import org.mcp.swaggerserver.model.ClientIdentity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves the {@link ClientIdentity} of every request and puts it into the Reactor context, where
+ * the rate limits and the fair queues of the concurrency limiters find it. MCP tool calls run in
+ * the context of the POST that delivered the message, so they are identified the same way.
+ *
+ * The client is, in this order: the value of swagger.rate-limit.client-header if one is configured,
+ * the MCP session (the sessionId query parameter of the SSE message endpoint, which only accepts
+ * sessions the server opened), or the remote address. The header is unset by default: callers
+ * choose its value freely, so it is only safe behind a trusted proxy that sets it.
+ */
+@Component
+public class ClientIdentityFilter implements WebFilter {
+
+    private static final String MCP_SESSION_PARAM = "sessionId";
+    private static final int MAX_ID_LENGTH = 128;
+
+    private final RateLimitConfig config;
+    private final String messageEndpoint;
+
+    public ClientIdentityFilter(RateLimitConfig config,
+                                @Value("${spring.ai.mcp.server.sse-message-endpoint:/mcp/message}") String messageEndpoint) {
+        this.config = config;
+        this.messageEndpoint = messageEndpoint;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ClientIdentity client = resolve(exchange.getRequest());
+        return chain.filter(exchange).contextWrite(client::putInto);
+    }
+
+    private ClientIdentity resolve(ServerHttpRequest request) {
+        String id = StringUtils.hasText(config.getClientHeader())
+                ? request.getHeaders().getFirst(config.getClientHeader())
+                : null;
+        if (!StringUtils.hasText(id)) {
+            String session = request.getPath().pathWithinApplication().value().endsWith(messageEndpoint)
+                    ? request.getQueryParams().getFirst(MCP_SESSION_PARAM)
+                    : null;
+            id = StringUtils.hasText(session) ? "mcp-session:" + session : remoteAddress(request);
+        }
+        if (id == null) {
+            return ClientIdentity.ANONYMOUS;
+        }
+        id = id.strip();
+        if (id.length() > MAX_ID_LENGTH) {
+            id = id.substring(0, MAX_ID_LENGTH);
+        }
+        return new ClientIdentity(id, config.weightOf(id));
+    }
+
+    private static String remoteAddress(ServerHttpRequest request) {
+        InetSocketAddress remote = request.getRemoteAddress();
+        return remote != null && remote.getAddress() != null ? remote.getAddress().getHostAddress() : null;
+    }
+}
@@ -0,0 +1,57 @@
+package org.mcp.swaggerserver.controller;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mcp.swaggerserver.config.RateLimitConfig;
+import org.mcp.swaggerserver.service.ClientRateLimiter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code /actuator/ratelimits}: usage and remaining tokens of every client tracked at the moment,
+ * and the remaining tokens of every rate-limited tool. Clients beyond swagger.rate-limit.metrics-clients
+ * share the counters of the "other" client.
+ */
+@Component
+@Endpoint(id = "ratelimits")
+public class RateLimitEndpoint {
+
+    private final ClientRateLimiter rateLimiter;
+    private final RateLimitConfig config;
+
+    public RateLimitEndpoint(ClientRateLimiter rateLimiter, RateLimitConfig config) {
+        this.rateLimiter = rateLimiter;
+        this.config = config;
+    }
+
+    @ReadOperation
+    public Map<String, Object> rateLimits() {
+        List<Map<String, Object>> clients = rateLimiter.clients().stream()
+                .map(usage -> {
+                    Map<String, Object> entry = new LinkedHashMap<>();
+                    entry.put("client", usage.clientId());
+                    entry.put("weight", config.weightOf(usage.clientId()));
+                    entry.put("availableTokens", usage.bucket() != null ? round(usage.bucket().available()) : null);
+                    entry.put("allowed", (long) usage.allowed().count());
+                    entry.put("throttled", (long) usage.throttled().count());
+                    entry.put("toolThrottled", (long) usage.toolThrottled().count());
+                    return entry;
+                })
+                .toList();
+        Map<String, Object> tools = new TreeMap<>();
+        rateLimiter.tools().forEach((toolId, bucket) -> tools.put(toolId, Map.of("availableTokens", round(bucket.available()))));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", config.isEnabled());
+        result.put("clients", clients);
+        result.put("tools", tools);
+        return result;
+    }
+
+    private static double round(double tokens) {
+        return Math.round(tokens * 100) / 100.0;
+    }
+}
@@ -1,25 +1,46 @@
 package org.mcp.swaggerserver.controller;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeoutException;
 
+import org.mcp.swaggerserver.config.ToolSearchConfig;
+import org.mcp.swaggerserver.model.BatchRequest;
+import org.mcp.swaggerserver.model.BatchResult;
 import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolSearchHit;
+import org.mcp.swaggerserver.service.AccessLog;
+import org.mcp.swaggerserver.service.BatchInvoker;
+import org.mcp.swaggerserver.service.BoundedBodyReader;
+import org.mcp.swaggerserver.service.CircuitOpenException;
+import org.mcp.swaggerserver.service.ClientRateLimiter;
+import org.mcp.swaggerserver.service.ConcurrencyLimitExceededException;
 import org.mcp.swaggerserver.service.EndpointInvokerService;
-import org.mcp.swaggerserver.service.SwaggerApiDiscoveryService;
+import org.mcp.swaggerserver.service.RateLimitExceededException;
+import org.mcp.swaggerserver.service.RequestCoalescer;
+import org.mcp.swaggerserver.service.ResponseTooLargeException;
+import org.mcp.swaggerserver.service.ToolIndex;
+import org.mcp.swaggerserver.service.ToolRegistry;
+import org.mcp.swaggerserver.service.UpstreamResponseException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
-import jakarta.annotation.PostConstruct;
+import reactor.core.publisher.Flux;
 
 @RestController
 @RequestMapping("/tools")
@@ -27,37 +48,42 @@ public class ToolController {
 
     private static final Logger log = LoggerFactory.getLogger(ToolController.class);
 
-    private final SwaggerApiDiscoveryService swaggerApiDiscoveryService;
+    private final ToolRegistry toolRegistry;
+    private final RequestCoalescer requestCoalescer;
     private final EndpointInvokerService endpointInvokerService;
+    private final BatchInvoker batchInvoker;
+    private final ClientRateLimiter rateLimiter;
+    private final ToolIndex toolIndex;
+    private final ToolSearchConfig searchConfig;
 
-    @Value("${swagger.api.url}")
-    private String swaggerApiUrl;
-
-    @Value("${api.base.url}")
-    private String apiBaseUrlConfig;
-
-    private Map<String, DynamicToolDefinition> toolRegistry = new HashMap<>();
-
-    public ToolController(SwaggerApiDiscoveryService discoveryService, EndpointInvokerService endpointInvokerService) {
-        this.swaggerApiDiscoveryService = discoveryService;
+    public ToolController(ToolRegistry toolRegistry, RequestCoalescer requestCoalescer,
+                          EndpointInvokerService endpointInvokerService, BatchInvoker batchInvoker,
+                          ClientRateLimiter rateLimiter, ToolIndex toolIndex, ToolSearchConfig searchConfig) {
+        this.toolRegistry = toolRegistry;
+        this.requestCoalescer = requestCoalescer;
         this.endpointInvokerService = endpointInvokerService;
+        this.batchInvoker = batchInvoker;
+        this.rateLimiter = rateLimiter;
+        this.toolIndex = toolIndex;
+        this.searchConfig = searchConfig;
     }
 
-    @PostConstruct
-    public void loadTools() {
-        log.info("Loading tools from Swagger at configured api url: {}", swaggerApiUrl);
-        List<DynamicToolDefinition> tools = swaggerApiDiscoveryService.loadToolsFromSwagger(swaggerApiUrl);
-        for (DynamicToolDefinition tool : tools) {
-            log.info("Discovered tool: {} -> {}", tool.getId(), tool.getSummary());
-            toolRegistry.put(tool.getId(), tool);
-        }
-        log.info("Tool registry now has {} tools.", toolRegistry.size());
+    /** The tool list, serialized once per registry snapshot rather than on every request. */
+    @GetMapping
+    public ResponseEntity<byte[]> listTools() {
+        log.debug("Listing all registered tools (count={})", toolRegistry.size());
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(toolRegistry.listJson());
     }
 
-    @GetMapping
-    public List<DynamicToolDefinition> listTools() {
-        log.info("Listing all registered tools (count={})", toolRegistry.size());
-        return new ArrayList<>(toolRegistry.values());
+    /**
+     * The tools best matching a keyword query, best first, without their schemas; the REST
+     * counterpart of the search_tools MCP tool.
+     */
+    @GetMapping("/search")
+    public List<ToolSearchHit> searchTools(@RequestParam("q") String query,
+                                           @RequestParam(value = "limit", required = false) Integer limit) {
+        int results = limit != null && limit > 0 ? limit : searchConfig.getDefaultResults();
+        return toolIndex.search(query, Math.min(results, searchConfig.getMaxResults()));
     }
 
     @PostMapping("/{toolId}/invoke")
@@ -65,63 +91,133 @@ public class ToolController {
             @PathVariable String toolId,
             @RequestBody(required = false) Map<String, Object> params
     ) {
-        log.info("Invoke requested for toolId: {}", toolId);
+        log.debug("Invoke requested for toolId: {}", toolId);
         DynamicToolDefinition tool = toolRegistry.get(toolId);
         if (tool == null) {
             log.warn("Invocation failed: No tool with id: {}", toolId);
             return reactor.core.publisher.Mono.just(ResponseEntity.badRequest().body("No tool with id: " + toolId));
         }
-        if (params == null) params = new HashMap<>();
-        // Provide base URL for endpoint construction if needed by invoker
-        String apiBaseUrl;
-        try {
-            java.net.URI uri = new java.net.URI(swaggerApiUrl);
-            String scheme = uri.getScheme();
-            String host = uri.getHost();
-            int port = uri.getPort();
-            String path = uri.getPath();
-
-            // Remove /swagger.json or /swagger.yaml for Petstore, but preserve trailing slash if needed
-            if (path != null && (path.endsWith("/swagger.json") || path.endsWith("/swagger.yaml"))) {
-                path = path.substring(0, path.lastIndexOf('/'));
-            }
-            // If path is just blank or "/", don't append to apiBaseUrl
-            StringBuilder baseUrlBuilder = new StringBuilder();
-            if (scheme != null && host != null) {
-                baseUrlBuilder.append(scheme).append("://").append(host);
-                if (port > 0) {
-                    baseUrlBuilder.append(":").append(port);
+        final Map<String, Object> finalParams = params != null ? params : Map.of();
+        // Every call, with its outcome and sampled arguments, is on the access log. REST results
+        // are never truncated: a body over swagger.response.max-bytes fails the call instead
+        return requestCoalescer.invoke(tool, finalParams)
+            .contextWrite(context -> context.put(BoundedBodyReader.REJECT_TRUNCATED, true))
+            .map(result -> ResponseEntity.ok((Object) result))
+            .onErrorResume(e -> {
+                ResponseEntity<String> failure = failure(toolId, e);
+                return reactor.core.publisher.Mono.just(
+                        new ResponseEntity<>((Object) failure.getBody(), failure.getHeaders(), failure.getStatusCode()));
+            });
+    }
+
+    /**
+     * Like {@link #invoke}, but relays the upstream status, content type and body as it arrives
+     * instead of buffering it, for large report or export payloads. Not subject to
+     * swagger.response.max-bytes. Upstream error responses are relayed as they are; calls that
+     * fail before reaching the upstream get the same status as from {@link #invoke}.
+     */
+    @PostMapping("/{toolId}/invoke/stream")
+    public reactor.core.publisher.Mono<ResponseEntity<Flux<DataBuffer>>> invokeStreaming(
+            @PathVariable String toolId,
+            @RequestBody(required = false) Map<String, Object> params
+    ) {
+        log.debug("Streaming invoke requested for toolId: {}", toolId);
+        DynamicToolDefinition tool = toolRegistry.get(toolId);
+        if (tool == null) {
+            log.warn("Invocation failed: No tool with id: {}", toolId);
+            return reactor.core.publisher.Mono.just(ResponseEntity.badRequest()
+                    .contentType(MediaType.TEXT_PLAIN).body(textBody("No tool with id: " + toolId)));
+        }
+        Map<String, Object> arguments = params != null ? params : Map.of();
+        return rateLimiter.limit(tool, reactor.core.publisher.Mono.defer(() -> endpointInvokerService.invokeEndpointStreaming(tool, arguments)))
+            .map(upstream -> {
+                HttpHeaders headers = new HttpHeaders();
+                if (upstream.getHeaders().getContentType() != null) {
+                    headers.setContentType(upstream.getHeaders().getContentType());
                 }
-                if (path != null && !path.trim().isEmpty() && !path.trim().equals("/")) {
-                    baseUrlBuilder.append(path);
+                if (upstream.getHeaders().getContentLength() >= 0) {
+                    headers.setContentLength(upstream.getHeaders().getContentLength());
                 }
-                apiBaseUrl = baseUrlBuilder.toString();
-            } else {
-                log.warn("Parsed host or scheme was null for '{}', falling back to api.base.url property", swaggerApiUrl);
-                apiBaseUrl = apiBaseUrlConfig;
-            }
-            // Further validation: fallback if resolved baseUrl is accidentally localhost (bad env!)
-            if (apiBaseUrl.contains("localhost") || apiBaseUrl.endsWith("://")) {
-                log.warn("Resolved apiBaseUrl looks like localhost or invalid, falling back to api.base.url property");
-                apiBaseUrl = apiBaseUrlConfig;
-            }
-            log.debug("Resolved base URL: {}", apiBaseUrl);
-        } catch (Exception e) {
-            apiBaseUrl = apiBaseUrlConfig;
-            log.warn("Failed to parse Swagger API URL '{}', defaulted apiBaseUrl to {}", swaggerApiUrl, apiBaseUrl, e);
-        }
-        params.put("_apiBaseUrl", apiBaseUrl);
-        final String finalToolId = toolId;
-        final Map<String, Object> finalParams = new HashMap<>(params);
-        log.info("Invoking endpoint for tool: {} with params: {}", finalToolId, finalParams);
-        return endpointInvokerService.invokeEndpoint(tool, finalParams)
-            .map(result -> {
-                log.info("Invocation for tool {} returned result of length {}", finalToolId, result != null ? result.length() : 0);
-                return ResponseEntity.ok((Object) result);
+                return ResponseEntity.status(upstream.getStatusCode()).headers(headers).body(upstream.getBody());
             })
             .onErrorResume(e -> {
-                log.error("Invocation failed for toolId={} with params={}, error={}", finalToolId, finalParams, e.getMessage(), e);
-                return reactor.core.publisher.Mono.just(ResponseEntity.internalServerError().body("Invocation failed: " + e.getMessage()));
+                if (e instanceof UpstreamResponseException upstream) {
+                    log.debug("Relaying upstream error for toolId={}: {}", toolId, upstream.getStatusCode());
+                    HttpHeaders headers = new HttpHeaders();
+                    if (upstream.getContentType() != null) {
+                        headers.setContentType(upstream.getContentType());
+                    }
+                    return reactor.core.publisher.Mono.just(ResponseEntity.status(upstream.getStatusCode()).headers(headers)
+                            .body(textBody(upstream.getResponseBody())));
+                }
+                ResponseEntity<String> failure = failure(toolId, e);
+                return reactor.core.publisher.Mono.just(ResponseEntity.status(failure.getStatusCode())
+                        .headers(failure.getHeaders()).contentType(MediaType.TEXT_PLAIN).body(textBody(failure.getBody())));
             });
     }
+
+    /**
+     * Invokes several tools concurrently (bounded by swagger.batch.parallelism) and streams one
+     * result per call as it completes, as NDJSON or, with {@code Accept: text/event-stream}, as
+     * server-sent events. Results carry the call's index in the request; failed calls are
+     * reported in their result and do not fail the batch. As with {@link #invoke}, results are
+     * never truncated: a call whose body exceeds swagger.response.max-bytes fails with status 502.
+     */
+    @PostMapping(value = "/batch", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.TEXT_EVENT_STREAM_VALUE})
+    public Flux<BatchResult> invokeBatch(@RequestBody BatchRequest request) {
+        return batchInvoker.invoke(request)
+            .contextWrite(context -> context.put(BoundedBodyReader.REJECT_TRUNCATED, true))
+            .onErrorMap(IllegalArgumentException.class, e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage()));
+    }
+
+    /**
+     * The response to a failed invocation: 429 when the client is over its rate limit, 503 when
+     * the call was rejected by a concurrency limit or an open circuit, 504 on timeout, 400 for
+     * invalid arguments, 502 with a link to the streaming endpoint when the response is too large
+     * to buffer, and 500 otherwise.
+     */
+    private static ResponseEntity<String> failure(String toolId, Throwable e) {
+        if (e instanceof RateLimitExceededException throttled) {
+            return tooManyRequests(throttled).body("Invocation rejected: " + e.getMessage());
+        }
+        if (e instanceof ConcurrencyLimitExceededException || e instanceof CircuitOpenException) {
+            log.debug("Invocation rejected for toolId={}: {}", toolId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("Invocation rejected: " + e.getMessage());
+        }
+        if (e instanceof TimeoutException) {
+            log.debug("Invocation timed out for toolId={}: {}", toolId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).body("Invocation failed: " + e.getMessage());
+        }
+        if (e instanceof IllegalArgumentException) {
+            log.debug("Invalid arguments for toolId={}: {}", toolId, e.getMessage());
+            return ResponseEntity.badRequest().body("Invocation failed: " + e.getMessage());
+        }
+        if (e instanceof ResponseTooLargeException) {
+            log.debug("Response too large for toolId={}: {}", toolId, e.getMessage());
+            String stream = "/tools/" + toolId + "/invoke/stream";
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY)
+                    .header(HttpHeaders.LINK, "<" + stream + ">; rel=\"alternate\"")
+                    .body("Invocation failed: " + e.getMessage() + "; use POST " + stream + " for the whole response");
+        }
+        logFailure(toolId, e);
+        return ResponseEntity.internalServerError().body("Invocation failed: " + e.getMessage());
+    }
+
+    /** 429 with a Retry-After of the whole seconds until the client's next call is allowed. */
+    private static ResponseEntity.BodyBuilder tooManyRequests(RateLimitExceededException e) {
+        long seconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, Long.toString(seconds));
+    }
+
+    private static void logFailure(String toolId, Throwable e) {
+        if (AccessLog.isExpectedFailure(e)) {
+            log.debug("Invocation failed for toolId={}: {}", toolId, e.getMessage());
+        } else {
+            log.error("Invocation failed for toolId={}: {}", toolId, e.getMessage(), e);
+        }
+    }
+
+    private static Flux<DataBuffer> textBody(String text) {
+        return Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(text.getBytes(StandardCharsets.UTF_8)));
+    }
 }
@@ -0,0 +1,18 @@
+package org.mcp.swaggerserver.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A batch of tool calls. {@code parallelism} and {@code timeoutMs} are optional and can only
+ * lower the configured limits (swagger.batch.parallelism, swagger.batch.call-timeout).
+ */
+public record BatchRequest(
+        List<Call> calls,
+        Integer parallelism,
+        Long timeoutMs
+) {
+
+    /** One tool call of a batch; {@code params} are the same arguments /tools/{toolId}/invoke takes. */
+    public record Call(String toolId, Map<String, Object> params) {}
+}
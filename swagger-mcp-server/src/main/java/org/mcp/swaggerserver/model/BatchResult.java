@@ -0,0 +1,30 @@
+package org.mcp.swaggerserver.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one call of a batch. {@code index} is the call's position in the request, since
+ * results are delivered in completion order. A failed call has {@code ok=false} and an
+ * {@code error}, plus the upstream {@code status} when the API answered with an error status
+ * (429 when the call was throttled by the server's own rate limits, 502 when a REST result was
+ * larger than swagger.response.max-bytes); it does not affect the other calls of the batch.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchResult(
+        int index,
+        String toolId,
+        boolean ok,
+        Integer status,
+        String result,
+        String error,
+        long durationMs
+) {
+
+    public static BatchResult success(int index, String toolId, String result, long durationMs) {
+        return new BatchResult(index, toolId, true, null, result, null, durationMs);
+    }
+
+    public static BatchResult failure(int index, String toolId, Integer status, String error, long durationMs) {
+        return new BatchResult(index, toolId, false, status, null, error, durationMs);
+    }
+}
@@ -0,0 +1,22 @@
+package org.mcp.swaggerserver.model;
+
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Who a tool call is made for: the id that keys the client's rate limit and usage metrics, and
+ * the weight of its share when calls queue for an upstream. Resolved per request by
+ * {@code ClientIdentityFilter} and carried in the Reactor context of the call.
+ */
+public record ClientIdentity(String id, int weight) {
+
+    public static final ClientIdentity ANONYMOUS = new ClientIdentity("anonymous", 1);
+
+    public static ClientIdentity from(ContextView context) {
+        return context.getOrDefault(ClientIdentity.class, ANONYMOUS);
+    }
+
+    public Context putInto(Context context) {
+        return context.put(ClientIdentity.class, this);
+    }
+}
@@ -1,6 +1,9 @@
 package org.mcp.swaggerserver.model;
 
 import java.util.List;
+import java.util.Objects;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
 public class DynamicToolDefinition {
 
@@ -9,6 +12,7 @@ public class DynamicToolDefinition {
     private String path;
     private String method;
     private List<ToolParameter> parameters;
+    private String source;       // name of the API source the tool was discovered from
 
     public DynamicToolDefinition() {}
 
@@ -31,6 +35,8 @@ public class DynamicToolDefinition {
     public void setMethod(String method) { this.method = method; }
     public List<ToolParameter> getParameters() { return parameters; }
     public void setParameters(List<ToolParameter> parameters) { this.parameters = parameters; }
+    public String getSource() { return source; }
+    public void setSource(String source) { this.source = source; }
 
     /**
      * Returns true if this tool definition represents an endpoint with a request body (e.g. POST body payload).
@@ -45,21 +51,41 @@ public class DynamicToolDefinition {
         return false;
     }
 
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DynamicToolDefinition that)) return false;
+        return Objects.equals(id, that.id) && Objects.equals(summary, that.summary)
+                && Objects.equals(path, that.path) && Objects.equals(method, that.method)
+                && Objects.equals(parameters, that.parameters) && Objects.equals(source, that.source);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, summary, path, method, parameters, source);
+    }
+
     public static class ToolParameter {
         private String name;
         private String inType;       // path, query, header, body
         private boolean required;
         private String type;         // string, integer, boolean, object, etc.
         private String description;
+        private JsonNode schema;     // JSON Schema of the value with $refs inlined, null if unknown
 
         public ToolParameter() {}
 
         public ToolParameter(String name, String inType, boolean required, String type, String description) {
+            this(name, inType, required, type, description, null);
+        }
+
+        public ToolParameter(String name, String inType, boolean required, String type, String description, JsonNode schema) {
             this.name = name;
             this.inType = inType;
             this.required = required;
             this.type = type;
             this.description = description;
+            this.schema = schema;
         }
 
         // Getters and setters
@@ -73,5 +99,21 @@ public class DynamicToolDefinition {
         public void setType(String type) { this.type = type; }
         public String getDescription() { return description; }
         public void setDescription(String description) { this.description = description; }
+        public JsonNode getSchema() { return schema; }
+        public void setSchema(JsonNode schema) { this.schema = schema; }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ToolParameter that)) return false;
+            return required == that.required && Objects.equals(name, that.name)
+                    && Objects.equals(inType, that.inType) && Objects.equals(type, that.type)
+                    && Objects.equals(description, that.description) && Objects.equals(schema, that.schema);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, inType, required, type, description, schema);
+        }
     }
 }
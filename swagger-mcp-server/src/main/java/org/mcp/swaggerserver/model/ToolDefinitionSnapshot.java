@@ -0,0 +1,23 @@
+package org.mcp.swaggerserver.model;
+
+import java.util.List;
+
+/**
+ * Serialized form of the tools parsed from one Swagger/OpenAPI spec, as stored in the
+ * local tool cache directory. The ETag and content hash identify the spec revision the
+ * tools were built from, so the snapshot can be revalidated without re-parsing.
+ */
+public record ToolDefinitionSnapshot(
+        int formatVersion,
+        String specUrl,
+        String etag,
+        String contentHash,
+        long createdAtEpochMillis,
+        List<DynamicToolDefinition> tools
+) {
+    /**
+     * Bump whenever {@link DynamicToolDefinition} changes shape or discovery derives tools
+     * differently, so stale snapshots are ignored.
+     */
+    public static final int CURRENT_FORMAT_VERSION = 4;
+}
@@ -0,0 +1,15 @@
+package org.mcp.swaggerserver.model;
+
+import java.util.List;
+
+/**
+ * Published when an API source's Swagger/OpenAPI spec is reloaded and its tool set differs from
+ * the one currently served. {@link #tools()} is the source's complete new tool set; listeners
+ * apply {@link #diff()} incrementally or swap in the full set.
+ */
+public record ToolDefinitionsChangedEvent(
+        String source,
+        List<DynamicToolDefinition> tools,
+        ToolSetDiff diff
+) {
+}
@@ -0,0 +1,11 @@
+package org.mcp.swaggerserver.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * A tool matching a search, without its input schema: enough for a client to pick the tool and
+ * ask for its full description.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ToolSearchHit(String id, String method, String path, String summary, double score) {
+}
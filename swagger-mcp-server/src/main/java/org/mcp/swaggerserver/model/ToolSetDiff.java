@@ -0,0 +1,60 @@
+package org.mcp.swaggerserver.model;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Difference between two revisions of a tool set, by tool id. A tool counts as changed when
+ * its id is present in both revisions but any other part of its definition differs.
+ */
+public record ToolSetDiff(
+        List<DynamicToolDefinition> added,
+        List<DynamicToolDefinition> removed,
+        List<DynamicToolDefinition> changed
+) {
+
+    public static final ToolSetDiff NONE = new ToolSetDiff(List.of(), List.of(), List.of());
+
+    public static ToolSetDiff between(List<DynamicToolDefinition> previous, List<DynamicToolDefinition> current) {
+        Map<String, DynamicToolDefinition> before = byId(previous);
+        Map<String, DynamicToolDefinition> after = byId(current);
+        List<DynamicToolDefinition> added = new ArrayList<>();
+        List<DynamicToolDefinition> changed = new ArrayList<>();
+        List<DynamicToolDefinition> removed = new ArrayList<>();
+        after.forEach((id, tool) -> {
+            DynamicToolDefinition old = before.get(id);
+            if (old == null) {
+                added.add(tool);
+            } else if (!old.equals(tool)) {
+                changed.add(tool);
+            }
+        });
+        before.forEach((id, tool) -> {
+            if (!after.containsKey(id)) {
+                removed.add(tool);
+            }
+        });
+        return new ToolSetDiff(List.copyOf(added), List.copyOf(removed), List.copyOf(changed));
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && changed.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return "+" + added.size() + " -" + removed.size() + " ~" + changed.size();
+    }
+
+    private static Map<String, DynamicToolDefinition> byId(List<DynamicToolDefinition> tools) {
+        Map<String, DynamicToolDefinition> map = new LinkedHashMap<>();
+        if (tools != null) {
+            for (DynamicToolDefinition tool : tools) {
+                map.put(tool.getId(), tool);
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,193 @@
+package org.mcp.swaggerserver.service;
+
+import java.lang.reflect.Array;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+
+import org.mcp.swaggerserver.config.AccessLogConfig;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+/**
+ * Writes one structured record per tool invocation to the {@value #LOGGER} logger, in logfmt:
+ *
+ * <pre>
+ * tool=getPetById method=GET host=petstore.swagger.io status=2xx http=200 durationMs=12.48 resultChars=532
+ * </pre>
+ *
+ * Arguments and results are not logged by default; a sampled fraction of the records
+ * (swagger.access-log.sample-rate) carries them, cut to swagger.access-log.max-payload-chars.
+ * Failed calls add the exception type and message (for upstream error responses, whose message
+ * holds the response body, only on sampled records).
+ */
+@Component
+public class AccessLog {
+
+    public static final String LOGGER = "org.mcp.swaggerserver.access";
+    private static final Logger log = LoggerFactory.getLogger(LOGGER);
+
+    private final AccessLogConfig config;
+
+    public AccessLog(AccessLogConfig config) {
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled() && log.isInfoEnabled();
+    }
+
+    /**
+     * Whether a failed invocation ended the expected way (error response, I/O error, timeout,
+     * rejection, bad arguments), which its access record covers; any other failure points at a
+     * problem in this server and is worth a stack trace in the application log.
+     */
+    public static boolean isExpectedFailure(Throwable error) {
+        return error instanceof UpstreamResponseException
+                || error instanceof WebClientRequestException
+                || error instanceof TimeoutException
+                || error instanceof ConcurrencyLimitExceededException
+                || error instanceof RateLimitExceededException
+                || error instanceof CircuitOpenException
+                || error instanceof ResponseTooLargeException
+                || error instanceof IllegalArgumentException;
+    }
+
+    /** Whether the record of the invocation starting now should carry its arguments and result. */
+    boolean sample() {
+        double rate = config.getSampleRate();
+        return rate > 0 && (rate >= 1 || ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    /**
+     * @param httpStatus  the upstream status, null if there was no response
+     * @param resultChars length of the result, negative if unknown
+     * @param arguments   the call's arguments if sampled, null otherwise
+     * @param result      the call's result if sampled, null otherwise
+     */
+    void write(DynamicToolDefinition tool, String host, String status, HttpStatusCode httpStatus, long durationNanos,
+               int resultChars, Throwable error, Map<String, Object> arguments, Object result) {
+        StringBuilder line = new StringBuilder(160);
+        line.append("tool=");
+        appendValue(line, tool.getId());
+        line.append(" method=").append(String.valueOf(tool.getMethod()).toUpperCase());
+        line.append(" host=");
+        appendValue(line, host);
+        line.append(" status=").append(status);
+        if (httpStatus != null) {
+            line.append(" http=").append(httpStatus.value());
+        }
+        line.append(" durationMs=").append(durationNanos / 1000 / 1000.0);
+        if (resultChars >= 0) {
+            line.append(" resultChars=").append(resultChars);
+        }
+        if (error != null) {
+            line.append(" error=").append(error.getClass().getSimpleName());
+            // The message of an upstream error response carries its body, which is payload
+            if (!(error instanceof UpstreamResponseException) || arguments != null) {
+                line.append(" message=");
+                appendValue(line, bounded(error.getMessage()));
+            }
+        }
+        if (arguments != null) {
+            line.append(" args=");
+            appendValue(line, bounded(arguments));
+        }
+        if (result != null) {
+            line.append(" result=");
+            appendValue(line, bounded(result));
+        }
+        log.info(line.toString());
+    }
+
+    /** Renders a value the way Map/List toString would, stopping once the payload limit is reached. */
+    private String bounded(Object value) {
+        if (value == null) {
+            return null;
+        }
+        int limit = config.getMaxPayloadChars();
+        StringBuilder out = new StringBuilder(Math.min(limit, 64) + 3);
+        render(out, value, limit);
+        if (out.length() > limit) {
+            out.setLength(limit);
+            out.append("...");
+        }
+        return out.toString();
+    }
+
+    private static void render(StringBuilder out, Object value, int limit) {
+        if (out.length() > limit) {
+            return;
+        }
+        if (value instanceof Map<?, ?> map) {
+            out.append('{');
+            String separator = "";
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (out.length() > limit) {
+                    return;
+                }
+                out.append(separator).append(entry.getKey()).append('=');
+                render(out, entry.getValue(), limit);
+                separator = ", ";
+            }
+            out.append('}');
+        } else if (value instanceof Iterable<?> items) {
+            out.append('[');
+            String separator = "";
+            for (Object item : items) {
+                if (out.length() > limit) {
+                    return;
+                }
+                out.append(separator);
+                render(out, item, limit);
+                separator = ", ";
+            }
+            out.append(']');
+        } else if (value != null && value.getClass().isArray() && !(value instanceof byte[])) {
+            out.append('[');
+            for (int i = 0; i < Array.getLength(value) && out.length() <= limit; i++) {
+                out.append(i > 0 ? ", " : "");
+                render(out, Array.get(value, i), limit);
+            }
+            out.append(']');
+        } else {
+            String text = String.valueOf(value);
+            // One past the limit is enough for the caller to see that the value was cut
+            out.append(text, 0, Math.min(text.length(), limit + 1 - out.length()));
+        }
+    }
+
+    /** Appends a logfmt value, quoted and escaped if it contains spaces, quotes or control characters. */
+    static void appendValue(StringBuilder line, String value) {
+        if (value == null) {
+            line.append("null");
+            return;
+        }
+        boolean plain = !value.isEmpty();
+        for (int i = 0; i < value.length() && plain; i++) {
+            char c = value.charAt(i);
+            plain = c > ' ' && c != '"' && c != '=' && c != '\\';
+        }
+        if (plain) {
+            line.append(value);
+            return;
+        }
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> line.append("\\\"");
+                case '\\' -> line.append("\\\\");
+                case '\n' -> line.append("\\n");
+                case '\r' -> line.append("\\r");
+                case '\t' -> line.append("\\t");
+                default -> line.append(c < ' ' ? ' ' : c);
+            }
+        }
+        line.append('"');
+    }
+}
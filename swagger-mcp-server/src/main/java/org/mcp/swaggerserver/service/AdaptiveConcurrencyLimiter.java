@@ -0,0 +1,245 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.mcp.swaggerserver.config.ConcurrencyLimitConfig;
+import org.mcp.swaggerserver.model.ClientIdentity;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+/**
+ * Limits the concurrent requests to one API source with an AIMD limit: every call that succeeds
+ * while the limit is being used raises it by one, and every call that fails with a 5xx, 429 or
+ * I/O error, or is slow, multiplies it by swagger.concurrency.backoff-ratio. A call is slow when
+ * it takes longer than swagger.concurrency.latency-tolerance times the source's average latency
+ * (a moving average over its calls), or longer than swagger.concurrency.latency-threshold
+ * if set. A backend that slows down thus gets fewer concurrent calls instead of an ever longer
+ * backlog, while one that is slow all along is not throttled for it.
+ *
+ * Calls beyond the limit wait for at most swagger.concurrency.max-queue-wait in a bounded queue
+ * that is weighted fair across clients (see {@link FairQueue} and {@link ClientIdentity}): a
+ * client with many waiting calls does not hold back the others, and when the queue is full its
+ * newest call makes room for another client's. When the queue is full or the wait is over calls
+ * fail with {@link ConcurrencyLimitExceededException} without reaching the upstream. Published as
+ * {@code swagger.upstream.concurrency.limit}, {@code .in.flight}, {@code .queued} and
+ * {@code .rejected}, tagged with the source.
+ */
+public final class AdaptiveConcurrencyLimiter {
+
+    /** Weight of the latest call in the average latency. */
+    private static final double LATENCY_SMOOTHING = 0.05;
+
+    private final String source;
+    private final ConcurrencyLimitConfig config;
+    private final long latencyThresholdNanos;
+    private final double latencyTolerance;
+    private final Counter rejected;
+    private final ToolTracing tracing;
+
+    // Guarded by this
+    private int limit;
+    private int inFlight;
+    // Moving average of the latency of calls that were not dropped; 0 until the first one
+    private double averageLatencyNanos;
+    private final FairQueue<Waiter> waiters = new FairQueue<>();
+
+    /**
+     * @param defaultLimit the starting limit when swagger.concurrency.initial-limit is unset,
+     *                     normally the size of the source's connection pool
+     */
+    public AdaptiveConcurrencyLimiter(String source, ConcurrencyLimitConfig config, int defaultLimit,
+                                      MeterRegistry meterRegistry, ToolTracing tracing) {
+        this.source = source;
+        this.config = config;
+        this.tracing = tracing;
+        this.latencyThresholdNanos = config.getLatencyThreshold() != null
+                ? config.getLatencyThreshold().toNanos()
+                : Long.MAX_VALUE;
+        this.latencyTolerance = config.getLatencyTolerance();
+        int initialLimit = config.getInitialLimit() != null ? config.getInitialLimit() : defaultLimit;
+        this.limit = Math.max(config.getMinLimit(), Math.min(initialLimit, config.getMaxLimit()));
+        Gauge.builder("swagger.upstream.concurrency.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Current adaptive concurrency limit of the API source")
+                .tag("source", source)
+                .register(meterRegistry);
+        Gauge.builder("swagger.upstream.concurrency.in.flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests to the API source currently holding a concurrency slot")
+                .tag("source", source)
+                .register(meterRegistry);
+        Gauge.builder("swagger.upstream.concurrency.queued", this, AdaptiveConcurrencyLimiter::queued)
+                .description("Requests waiting for a concurrency slot of the API source")
+                .tag("source", source)
+                .register(meterRegistry);
+        this.rejected = Counter.builder("swagger.upstream.concurrency.rejected")
+                .description("Requests rejected because the API source was at its concurrency limit")
+                .tag("source", source)
+                .register(meterRegistry);
+    }
+
+    public synchronized int limit() { return limit; }
+    public synchronized int inFlight() { return inFlight; }
+    public synchronized int queued() { return waiters.size(); }
+
+    /**
+     * Runs {@code call} once a slot is free and feeds its outcome and latency back into the limit.
+     * Cancelling the call frees its slot without changing the limit.
+     */
+    public <T> Mono<T> run(Mono<T> call) {
+        return acquire().flatMap(permit -> call
+                .doOnSuccess(value -> permit.release(null))
+                .doOnError(permit::release)
+                .doOnCancel(permit::cancel));
+    }
+
+    private Mono<Permit> acquire() {
+        return Mono.deferContextual(context -> {
+            synchronized (this) {
+                if (inFlight < limit) {
+                    inFlight++;
+                    return Mono.just(new Permit(inFlight));
+                }
+            }
+            return tracing.phase(ToolTracing.QUEUE, enqueue(ClientIdentity.from(context)));
+        });
+    }
+
+    private Mono<Permit> enqueue(ClientIdentity client) {
+        Mono<Permit> queued = Mono.create(sink -> {
+            Permit granted = null;
+            Waiter evicted = null;
+            boolean waiting = false;
+            synchronized (this) {
+                if (inFlight < limit) {
+                    // A slot was freed since acquire() looked
+                    inFlight++;
+                    granted = new Permit(inFlight);
+                } else if (waiters.size() < config.getMaxQueueSize()
+                        || (evicted = waiters.evictFor(client.id())) != null) {
+                    Waiter waiter = new Waiter(sink);
+                    waiters.add(client.id(), client.weight(), waiter);
+                    sink.onCancel(() -> cancel(waiter));
+                    waiting = true;
+                }
+            }
+            if (granted != null) {
+                sink.success(granted);
+            } else if (!waiting) {
+                rejected.increment();
+                sink.error(rejection("the wait queue is full"));
+            }
+            if (evicted != null) {
+                // Made room for a client with fewer calls waiting
+                rejected.increment();
+                evicted.sink.error(rejection("the wait queue is full"));
+            }
+        });
+        return queued.timeout(config.getMaxQueueWait())
+                .onErrorMap(TimeoutException.class, e -> {
+                    rejected.increment();
+                    return rejection("no slot became free within " + config.getMaxQueueWait().toMillis() + " ms");
+                });
+    }
+
+    private ConcurrencyLimitExceededException rejection(String reason) {
+        return new ConcurrencyLimitExceededException(source, "API source '" + source + "' is at its concurrency limit of "
+                + limit() + " requests and " + reason + "; try again later");
+    }
+
+    private void cancel(Waiter waiter) {
+        Permit granted;
+        synchronized (this) {
+            if (waiters.remove(waiter)) {
+                return;
+            }
+            granted = waiter.permit;
+        }
+        // Granted concurrently with the cancellation; the slot is handed on
+        if (granted != null) {
+            granted.cancel();
+        }
+    }
+
+    private void release(Permit permit, boolean adjust, boolean dropped) {
+        List<Waiter> woken;
+        synchronized (this) {
+            inFlight--;
+            if (adjust) {
+                long latency = System.nanoTime() - permit.startNanos;
+                boolean slow = latency > latencyThresholdNanos
+                        || (averageLatencyNanos > 0 && latency > averageLatencyNanos * latencyTolerance);
+                if (!dropped) {
+                    averageLatencyNanos = averageLatencyNanos == 0
+                            ? latency
+                            : averageLatencyNanos + (latency - averageLatencyNanos) * LATENCY_SMOOTHING;
+                }
+                if (dropped || slow) {
+                    limit = Math.max(config.getMinLimit(), (int) (limit * config.getBackoffRatio()));
+                } else if (permit.inFlightAtStart * 2 >= limit) {
+                    // Only grow while the limit is actually being used
+                    limit = Math.min(config.getMaxLimit(), limit + 1);
+                }
+            }
+            woken = grantWaiting();
+        }
+        woken.forEach(waiter -> waiter.sink.success(waiter.permit));
+    }
+
+    /** Hands free slots to queued calls in fair order. Called with the lock held. */
+    private List<Waiter> grantWaiting() {
+        List<Waiter> woken = new ArrayList<>();
+        while (inFlight < limit && waiters.size() > 0) {
+            Waiter waiter = waiters.poll();
+            inFlight++;
+            waiter.permit = new Permit(inFlight);
+            woken.add(waiter);
+        }
+        return woken;
+    }
+
+    /** Whether a failure means the upstream is overloaded, as opposed to a bad request. */
+    private static boolean isDropped(Throwable error) {
+        if (error instanceof UpstreamResponseException upstream) {
+            return upstream.getStatusCode().is5xxServerError() || upstream.getStatusCode().value() == 429;
+        }
+        return !(error instanceof IllegalArgumentException);
+    }
+
+    private final class Permit {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /** Releases after the call finished; {@code error} is null on success. */
+        void release(Throwable error) {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, true, error != null && isDropped(error));
+            }
+        }
+
+        void cancel() {
+            if (released.compareAndSet(false, true)) {
+                AdaptiveConcurrencyLimiter.this.release(this, false, false);
+            }
+        }
+    }
+
+    private static final class Waiter {
+        private final MonoSink<Permit> sink;
+        private Permit permit;
+
+        private Waiter(MonoSink<Permit> sink) {
+            this.sink = sink;
+        }
+    }
+}
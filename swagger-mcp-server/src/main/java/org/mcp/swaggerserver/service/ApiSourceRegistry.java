@@ -0,0 +1,173 @@
+package org.mcp.swaggerserver.service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mcp.swaggerserver.config.ApiSourcesConfig;
+import org.mcp.swaggerserver.config.ApiSourcesConfig.ApiSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolved, validated view of the configured API sources. Falls back to a single "default"
+ * source built from the legacy swagger.api.url / api.base.url / auth.* properties, whose tool
+ * ids are not prefixed so existing clients keep working.
+ *
+ * The base URL tools of a source are called on is resolved here once: the source's base-url if
+ * set (validated at startup), otherwise derived from its spec URL.
+ */
+@Service
+public class ApiSourceRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ApiSourceRegistry.class);
+
+    public static final String DEFAULT_SOURCE = "default";
+
+    private final Map<String, ApiSource> sources;
+    private final Map<String, String> baseUrls = new LinkedHashMap<>();
+
+    public ApiSourceRegistry(
+            ApiSourcesConfig apiSourcesConfig,
+            @Value("${swagger.api.url:}") String legacySpecUrl,
+            @Value("${api.base.url:}") String legacyBaseUrl,
+            @Value("${auth.header.name:}") String authHeaderName,
+            @Value("${auth.header.prefix:}") String authHeaderPrefix,
+            @Value("${auth.token.value:}") String authTokenValue
+    ) {
+        Map<String, ApiSource> resolved = new LinkedHashMap<>();
+        for (ApiSource source : apiSourcesConfig.getSources()) {
+            if (!StringUtils.hasText(source.getName()) || !StringUtils.hasText(source.getSpecUrl())) {
+                throw new IllegalStateException("Every swagger.sources entry needs a name and a spec-url");
+            }
+            if (!source.getName().matches("[A-Za-z0-9_-]+")) {
+                throw new IllegalStateException("API source name '" + source.getName()
+                        + "' may only contain letters, digits, '_' and '-'");
+            }
+            if (resolved.putIfAbsent(source.getName(), source) != null) {
+                throw new IllegalStateException("Duplicate API source name '" + source.getName() + "'");
+            }
+        }
+        if (resolved.isEmpty()) {
+            if (!StringUtils.hasText(legacySpecUrl)) {
+                throw new IllegalStateException("No API source configured: set swagger.sources[*] or swagger.api.url");
+            }
+            ApiSource legacy = new ApiSource();
+            legacy.setName(DEFAULT_SOURCE);
+            legacy.setSpecUrl(legacySpecUrl);
+            legacy.setBaseUrl(legacyBaseUrl);
+            legacy.setToolPrefix("");
+            legacy.getAuth().setHeaderName(authHeaderName);
+            legacy.getAuth().setHeaderPrefix(authHeaderPrefix);
+            legacy.getAuth().setTokenValue(authTokenValue);
+            resolved.put(DEFAULT_SOURCE, legacy);
+        }
+        this.sources = resolved;
+        for (ApiSource source : resolved.values()) {
+            String baseUrl = resolveBaseUrl(source);
+            if (baseUrl != null) {
+                baseUrls.put(source.getName(), baseUrl);
+            } else {
+                log.warn("API source '{}' has no base-url and none can be derived from its spec URL {}; its tools cannot be invoked",
+                        source.getName(), source.getSpecUrl());
+            }
+        }
+        log.info("Configured API sources: {}", baseUrls.isEmpty() ? resolved.keySet() : baseUrls);
+    }
+
+    public List<ApiSource> getSources() {
+        return List.copyOf(sources.values());
+    }
+
+    /**
+     * @throws IllegalArgumentException if no source with that name is configured
+     */
+    public ApiSource getSource(String name) {
+        ApiSource source = sources.get(name != null ? name : DEFAULT_SOURCE);
+        if (source == null) {
+            throw new IllegalArgumentException("Unknown API source: " + name);
+        }
+        return source;
+    }
+
+    /**
+     * The base URL the tools of a source are called on, without a trailing slash; null if the
+     * source has none.
+     *
+     * @throws IllegalArgumentException if no source with that name is configured
+     */
+    public String getBaseUrl(String name) {
+        return baseUrls.get(getSource(name).getName());
+    }
+
+    private static String resolveBaseUrl(ApiSource source) {
+        if (StringUtils.hasText(source.getBaseUrl())) {
+            return validatedBaseUrl(source.getName(), source.getBaseUrl().trim());
+        }
+        return derivedBaseUrl(source.getSpecUrl());
+    }
+
+    /**
+     * @throws IllegalStateException if the configured base URL is not an absolute http(s) URL
+     */
+    static String validatedBaseUrl(String sourceName, String baseUrl) {
+        URI uri;
+        try {
+            uri = new URI(baseUrl);
+        } catch (URISyntaxException e) {
+            throw new IllegalStateException("Invalid base-url '" + baseUrl + "' of API source '" + sourceName + "': " + e.getMessage());
+        }
+        if (!("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) || uri.getHost() == null) {
+            throw new IllegalStateException("The base-url of API source '" + sourceName
+                    + "' must be an absolute http or https URL, got '" + baseUrl + "'");
+        }
+        if (uri.getRawQuery() != null || uri.getRawFragment() != null) {
+            throw new IllegalStateException("The base-url of API source '" + sourceName
+                    + "' must not have a query or fragment, got '" + baseUrl + "'");
+        }
+        return withoutTrailingSlash(uri.toString());
+    }
+
+    /**
+     * The spec URL's scheme, authority and path, minus a trailing /swagger.json or /swagger.yaml
+     * file name (e.g. https://petstore.swagger.io/v2/swagger.json -> https://petstore.swagger.io/v2);
+     * null for specs not served over http(s).
+     */
+    static String derivedBaseUrl(String specUrl) {
+        URI uri;
+        try {
+            uri = new URI(specUrl.trim());
+        } catch (URISyntaxException e) {
+            return null;
+        }
+        if (!("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) || uri.getHost() == null) {
+            return null;
+        }
+        String path = uri.getRawPath() != null ? uri.getRawPath() : "";
+        if (path.endsWith("/swagger.json") || path.endsWith("/swagger.yaml")) {
+            path = path.substring(0, path.lastIndexOf('/'));
+        }
+        return withoutTrailingSlash(uri.getScheme() + "://" + uri.getRawAuthority() + path);
+    }
+
+    private static String withoutTrailingSlash(String url) {
+        int end = url.length();
+        while (end > 0 && url.charAt(end - 1) == '/') {
+            end--;
+        }
+        return url.substring(0, end);
+    }
+
+    /**
+     * Tool id as exposed to clients: the spec's own id, prefixed with the source's tool prefix.
+     */
+    public static String namespacedToolId(ApiSource source, String toolId) {
+        String prefix = source.getToolPrefix();
+        return StringUtils.hasText(prefix) ? prefix + "__" + toolId : toolId;
+    }
+}
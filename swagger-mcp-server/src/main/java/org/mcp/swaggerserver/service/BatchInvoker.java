@@ -0,0 +1,107 @@
+package org.mcp.swaggerserver.service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.mcp.swaggerserver.config.BatchConfig;
+import org.mcp.swaggerserver.model.BatchRequest;
+import org.mcp.swaggerserver.model.BatchResult;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs a batch of tool calls concurrently, at most {@code swagger.batch.parallelism} at a time,
+ * and emits each call's {@link BatchResult} as soon as it completes. Every call goes through the
+ * {@link RequestCoalescer} like a single invocation and has its own timeout; a failed, timed out
+ * or unknown call yields an error result and the rest of the batch carries on.
+ */
+@Service
+public class BatchInvoker {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchInvoker.class);
+
+    private final ToolRegistry toolRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final BatchConfig config;
+
+    public BatchInvoker(ToolRegistry toolRegistry, RequestCoalescer requestCoalescer, BatchConfig config) {
+        this.toolRegistry = toolRegistry;
+        this.requestCoalescer = requestCoalescer;
+        this.config = config;
+    }
+
+    /**
+     * Runs a batch, passing each call's params to its tool as they are.
+     *
+     * @return the results in completion order, or an {@link IllegalArgumentException} error if the
+     *         batch itself is invalid (no calls, or more than swagger.batch.max-calls)
+     */
+    public Flux<BatchResult> invoke(BatchRequest request) {
+        List<BatchRequest.Call> calls = request != null ? request.calls() : null;
+        if (calls == null || calls.isEmpty()) {
+            return Flux.error(new IllegalArgumentException("A batch needs at least one call"));
+        }
+        if (calls.size() > config.getMaxCalls()) {
+            return Flux.error(new IllegalArgumentException("A batch may have at most " + config.getMaxCalls()
+                    + " calls, got " + calls.size()));
+        }
+        int parallelism = limit(request.parallelism(), config.getParallelism());
+        Duration timeout = request.timeoutMs() != null && request.timeoutMs() > 0
+                && request.timeoutMs() < config.getCallTimeout().toMillis()
+                ? Duration.ofMillis(request.timeoutMs()) : config.getCallTimeout();
+        log.debug("Invoking batch of {} calls with parallelism {} and call timeout {}", calls.size(), parallelism, timeout);
+
+        return Flux.range(0, calls.size())
+            .flatMap(index -> invokeCall(index, calls.get(index), timeout), parallelism);
+    }
+
+    private Mono<BatchResult> invokeCall(int index, BatchRequest.Call call, Duration timeout) {
+        String toolId = call != null ? call.toolId() : null;
+        DynamicToolDefinition tool = toolId != null ? toolRegistry.get(toolId) : null;
+        if (tool == null) {
+            return Mono.just(BatchResult.failure(index, toolId, null, "No tool with id: " + toolId, 0));
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            Map<String, Object> params = call.params() != null ? call.params() : Map.of();
+            return requestCoalescer.invoke(tool, params)
+                .timeout(timeout, Mono.error(() -> new TimeoutException("Timed out after " + timeout.toMillis() + " ms")))
+                .defaultIfEmpty("")
+                .map(result -> BatchResult.success(index, toolId, result, elapsedMillis(start)))
+                .onErrorResume(e -> {
+                    log.debug("Batch call {} of tool {} failed: {}", index, toolId, e.getMessage());
+                    return Mono.just(failure(index, toolId, e, elapsedMillis(start)));
+                });
+        });
+    }
+
+    private static BatchResult failure(int index, String toolId, Throwable e, long durationMs) {
+        if (e instanceof TimeoutException) {
+            return BatchResult.failure(index, toolId, null, e.getMessage(), durationMs);
+        }
+        if (e instanceof RateLimitExceededException) {
+            return BatchResult.failure(index, toolId, 429, e.getMessage(), durationMs);
+        }
+        if (e instanceof ResponseTooLargeException) {
+            return BatchResult.failure(index, toolId, 502, "Invocation failed: " + e.getMessage() + "; use POST /tools/"
+                    + toolId + "/invoke/stream for the whole response", durationMs);
+        }
+        Integer status = e instanceof UpstreamResponseException upstream ? upstream.getStatusCode().value() : null;
+        return BatchResult.failure(index, toolId, status, "Invocation failed: " + e.getMessage(), durationMs);
+    }
+
+    private static int limit(Integer requested, int configured) {
+        return requested != null && requested > 0 ? Math.min(requested, configured) : configured;
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+}
@@ -0,0 +1,219 @@
+package org.mcp.swaggerserver.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Reads at most {@code maxBytes} of an upstream body, starting at a byte offset, into a String.
+ *
+ * Buffers before the offset are released as they arrive and the upstream is cancelled once the
+ * window is full, so memory per call stays bounded by the window no matter how large the body
+ * is. A truncated result ends with a marker naming the offset to continue from.
+ *
+ * With a {@link ResponseShaper}, the body is shaped on the way in and the window, the offset and
+ * the marker refer to the shaped result.
+ *
+ * Calls made with {@link #REJECT_TRUNCATED} in their Reactor context (REST invocations) fail with
+ * {@link ResponseTooLargeException} instead of returning a truncated result.
+ */
+public final class BoundedBodyReader {
+
+    /** Tool argument carrying the byte offset of the requested page of a truncated response. */
+    public static final String OFFSET_PARAM = "_responseOffset";
+
+    /** Reactor context key; when true, a body that does not fit fails the call instead of being truncated. */
+    public static final String REJECT_TRUNCATED = "swagger.response.rejectTruncated";
+
+    private BoundedBodyReader() {}
+
+    public static Mono<String> read(Flux<DataBuffer> body, long offset, int maxBytes, long contentLength,
+                                    boolean pagination) {
+        return read(body, null, offset, maxBytes, contentLength, pagination);
+    }
+
+    public static Mono<String> read(Flux<DataBuffer> body, ResponseShaper shaper, long offset, int maxBytes,
+                                    long contentLength, boolean pagination) {
+        return read(body, shaper, offset, maxBytes, contentLength, pagination, false);
+    }
+
+    public static Mono<String> read(Flux<DataBuffer> body, ResponseShaper shaper, long offset, int maxBytes,
+                                    long contentLength, boolean pagination, boolean rejectTruncated) {
+        return Mono.defer(() -> {
+            Window window = new Window(offset, maxBytes);
+            Shaping shaping = shaper != null ? new Shaping(shaper.open(window), window) : null;
+            return body.<Void>handle((buffer, sink) -> {
+                        try {
+                            if (!(shaping != null ? shaping.accept(buffer) : window.accept(buffer))) {
+                                sink.complete(); // cancels the upstream, remaining bytes are never read
+                            }
+                        } catch (IOException e) {
+                            sink.error(shapingFailed(e));
+                        } finally {
+                            DataBufferUtils.release(buffer);
+                        }
+                    })
+                    .then(Mono.fromCallable(() -> {
+                        try {
+                            if (shaping != null && !window.isFull()) {
+                                shaping.transform.finish();
+                            }
+                        } catch (IOException e) {
+                            throw shapingFailed(e);
+                        }
+                        if (rejectTruncated && window.isFull()) {
+                            throw new ResponseTooLargeException(maxBytes);
+                        }
+                        // The upstream length says nothing about the shaped result
+                        return shaping == null
+                                ? window.render(contentLength, pagination, null)
+                                : window.render(-1, pagination, shaping.transform.notes());
+                    }));
+        });
+    }
+
+    private static IllegalStateException shapingFailed(IOException e) {
+        return new IllegalStateException("Could not shape the response, it is not valid JSON: " + e.getMessage(), e);
+    }
+
+    /** Whether the call running with {@code context} must fail rather than return a truncated result. */
+    public static boolean rejectsTruncated(ContextView context) {
+        return context.getOrDefault(REJECT_TRUNCATED, Boolean.FALSE);
+    }
+
+    public static long offsetOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        try {
+            return Math.max(0, value instanceof Number n ? n.longValue() : Long.parseLong(value.toString().trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(OFFSET_PARAM + " must be a non-negative integer, got: " + value);
+        }
+    }
+
+    /** Feeds each buffer to a shaper, which writes the shaped bytes to the window. */
+    private static final class Shaping {
+        final ResponseShaper.Transform transform;
+        private final Window window;
+        private byte[] chunk = new byte[0];
+
+        Shaping(ResponseShaper.Transform transform, Window window) {
+            this.transform = transform;
+            this.window = window;
+        }
+
+        /** False once the window is full. */
+        boolean accept(DataBuffer buffer) throws IOException {
+            int readable = buffer.readableByteCount();
+            if (chunk.length < readable) {
+                chunk = new byte[Math.max(readable, 8192)];
+            }
+            buffer.read(chunk, 0, readable);
+            transform.write(chunk, readable);
+            return !window.isFull();
+        }
+    }
+
+    private static final class Window extends OutputStream {
+        private final long offset;
+        private final int maxBytes;
+        private final ByteArrayOutputStream bytes;
+        private long position;
+        private boolean truncated;
+
+        Window(long offset, int maxBytes) {
+            this.offset = offset;
+            this.maxBytes = maxBytes;
+            this.bytes = new ByteArrayOutputStream(Math.min(maxBytes, 8192));
+        }
+
+        /** Copies the part of the buffer inside the window; false once the window is full. */
+        boolean accept(DataBuffer buffer) {
+            int readable = buffer.readableByteCount();
+            long start = position;
+            position += readable;
+            int skip = (int) Math.max(0, Math.min(readable, offset - start));
+            int room = maxBytes - bytes.size();
+            int take = Math.min(readable - skip, room);
+            if (take > 0) {
+                byte[] chunk = new byte[take];
+                buffer.readPosition(buffer.readPosition() + skip);
+                buffer.read(chunk);
+                bytes.write(chunk, 0, take);
+            }
+            if (readable - skip > room) {
+                truncated = true;
+                return false;
+            }
+            return true;
+        }
+
+        /** Copies the part of the shaped bytes inside the window; ignored once the window is full. */
+        @Override
+        public void write(byte[] data, int off, int len) {
+            if (truncated) {
+                return;
+            }
+            long start = position;
+            position += len;
+            int skip = (int) Math.max(0, Math.min(len, offset - start));
+            int room = maxBytes - bytes.size();
+            int take = Math.min(len - skip, room);
+            if (take > 0) {
+                bytes.write(data, off + skip, take);
+            }
+            if (len - skip > room) {
+                truncated = true;
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            write(new byte[] {(byte) b}, 0, 1);
+        }
+
+        boolean isFull() {
+            return truncated;
+        }
+
+        String render(long contentLength, boolean pagination, String notes) {
+            byte[] data = bytes.toByteArray();
+            int length = truncated ? completeUtf8Length(data) : data.length;
+            String text = new String(data, 0, length, StandardCharsets.UTF_8);
+            if (notes != null) {
+                text = text + "\n\n" + notes;
+            }
+            if (!truncated) {
+                return text;
+            }
+            long end = offset + length;
+            String total = contentLength >= 0 ? " of " + contentLength : "";
+            return text + "\n\n[Response truncated: bytes " + offset + "-" + end + total + "."
+                    + (pagination ? " Call again with \"" + OFFSET_PARAM + "\": " + end + " for the next part.]" : "]");
+        }
+
+        /** Length of the prefix that does not end inside a multi-byte UTF-8 sequence. */
+        private static int completeUtf8Length(byte[] data) {
+            int i = data.length - 1;
+            // Walk back over at most three continuation bytes to the lead byte of the last character
+            while (i >= 0 && i > data.length - 4 && (data[i] & 0xC0) == 0x80) {
+                i--;
+            }
+            if (i < 0) {
+                return data.length;
+            }
+            int lead = data[i] & 0xFF;
+            int expected = lead < 0x80 ? 1 : lead >= 0xF0 ? 4 : lead >= 0xE0 ? 3 : lead >= 0xC0 ? 2 : 1;
+            return i + expected <= data.length ? data.length : i;
+        }
+    }
+}
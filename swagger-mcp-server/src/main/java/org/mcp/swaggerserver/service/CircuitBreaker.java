@@ -0,0 +1,178 @@
+package org.mcp.swaggerserver.service;
+
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.mcp.swaggerserver.config.ResilienceConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Circuit breaker of one upstream host, over a count-based window of its most recent calls.
+ * Once at least {@code minimum-calls} calls are recorded and the share of failures (5xx, I/O
+ * errors, timeouts) reaches {@code failure-rate-threshold}, the breaker opens and calls fail fast
+ * with {@link CircuitOpenException} for {@code open-duration}. It then lets
+ * {@code half-open-calls} trial calls through: if they all succeed it closes again, otherwise it
+ * reopens. 4xx responses and calls rejected before reaching the host are not counted.
+ */
+public final class CircuitBreaker {
+
+    private static final Logger log = LoggerFactory.getLogger(CircuitBreaker.class);
+
+    /** Ordered by severity; the ordinal is the value of the state gauge. */
+    public enum State { CLOSED, HALF_OPEN, OPEN }
+
+    private final String host;
+    private final ResilienceConfig.CircuitBreaker config;
+    private final LongSupplier millisClock;
+
+    // Guarded by this
+    private State state = State.CLOSED;
+    // Outcomes of calls started in the current state; results of calls started earlier are ignored
+    private long generation;
+    private final boolean[] window;
+    private int windowNext;
+    private int windowCalls;
+    private int windowFailures;
+    private long openedAtMillis;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    public CircuitBreaker(String host, ResilienceConfig.CircuitBreaker config) {
+        this(host, config, System::currentTimeMillis);
+    }
+
+    CircuitBreaker(String host, ResilienceConfig.CircuitBreaker config, LongSupplier millisClock) {
+        this.host = host;
+        this.config = config;
+        this.millisClock = millisClock;
+        this.window = new boolean[Math.max(1, config.getWindowSize())];
+    }
+
+    public String host() { return host; }
+    public synchronized State state() { return state; }
+
+    /** Failure percentage over the current window, or -1 while it has fewer than minimum-calls calls. */
+    public synchronized float failureRate() {
+        return windowCalls < config.getMinimumCalls() ? -1 : windowFailures * 100f / windowCalls;
+    }
+
+    /** When the breaker last opened, or null if it never did. */
+    public synchronized Instant openedAt() {
+        return openedAtMillis > 0 ? Instant.ofEpochMilli(openedAtMillis) : null;
+    }
+
+    /** Runs {@code call} unless the breaker is open, and records its outcome. */
+    public <T> Mono<T> run(Mono<T> call) {
+        return Mono.defer(() -> {
+            long admitted = tryAcquire();
+            if (admitted < 0) {
+                return Mono.error(new CircuitOpenException(host, "Circuit breaker for " + host
+                        + " is open after repeated upstream failures; failing fast until it recovers"));
+            }
+            AtomicBoolean recorded = new AtomicBoolean();
+            return call
+                    .doOnSuccess(value -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(admitted, Outcome.SUCCESS);
+                        }
+                    })
+                    .doOnError(error -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(admitted, isFailure(error) ? Outcome.FAILURE : Outcome.IGNORED);
+                        }
+                    })
+                    .doOnCancel(() -> {
+                        if (recorded.compareAndSet(false, true)) {
+                            record(admitted, Outcome.IGNORED);
+                        }
+                    });
+        });
+    }
+
+    private enum Outcome { SUCCESS, FAILURE, IGNORED }
+
+    /** Returns the generation the call is admitted in, or -1 if it must fail fast. */
+    private synchronized long tryAcquire() {
+        if (state == State.OPEN) {
+            if (millisClock.getAsLong() - openedAtMillis < config.getOpenDuration().toMillis()) {
+                return -1;
+            }
+            transition(State.HALF_OPEN);
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialsStarted >= config.getHalfOpenCalls()) {
+                return -1;
+            }
+            trialsStarted++;
+        }
+        return generation;
+    }
+
+    private synchronized void record(long admitted, Outcome outcome) {
+        if (admitted != generation) {
+            return;
+        }
+        if (state == State.HALF_OPEN) {
+            switch (outcome) {
+                case SUCCESS -> {
+                    if (++trialsSucceeded >= config.getHalfOpenCalls()) {
+                        transition(State.CLOSED);
+                    }
+                }
+                case FAILURE -> transition(State.OPEN);
+                case IGNORED -> trialsStarted--;
+            }
+            return;
+        }
+        if (outcome == Outcome.IGNORED) {
+            return;
+        }
+        boolean failed = outcome == Outcome.FAILURE;
+        if (windowCalls == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowNext] = failed;
+        windowNext = (windowNext + 1) % window.length;
+        if (failed) {
+            windowFailures++;
+        }
+        if (windowCalls >= config.getMinimumCalls()
+                && windowFailures * 100 >= config.getFailureRateThreshold() * windowCalls) {
+            transition(State.OPEN);
+        }
+    }
+
+    private void transition(State next) {
+        if (next == State.OPEN) {
+            openedAtMillis = millisClock.getAsLong();
+            log.warn("Circuit breaker for {} opened ({} of the last {} calls failed)", host, windowFailures, windowCalls);
+        } else {
+            log.info("Circuit breaker for {} is now {}", host, next);
+        }
+        state = next;
+        generation++;
+        windowNext = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+    }
+
+    /** Whether an error says something about the host's health, as opposed to the request. */
+    static boolean isFailure(Throwable error) {
+        if (error instanceof UpstreamResponseException upstream) {
+            return upstream.getStatusCode().is5xxServerError();
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+}
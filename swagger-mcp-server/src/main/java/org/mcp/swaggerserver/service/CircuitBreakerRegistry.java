@@ -0,0 +1,62 @@
+package org.mcp.swaggerserver.service;
+
+import java.net.URI;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mcp.swaggerserver.config.ResilienceConfig;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * One {@link CircuitBreaker} per upstream host (host:port), shared by every source and tool that
+ * calls it. Each breaker's state is published as {@code swagger.upstream.circuit.state{host}}
+ * (0 closed, 1 half-open, 2 open) and listed on the {@code circuitbreakers} actuator endpoint.
+ */
+@Component
+public class CircuitBreakerRegistry {
+
+    private final ResilienceConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CircuitBreaker> breakersByHost = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> breakersByBaseUrl = new ConcurrentHashMap<>();
+
+    public CircuitBreakerRegistry(ResilienceConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /** The breaker of the host a base URL points to, or null if circuit breaking is disabled or there is no base URL. */
+    public CircuitBreaker forBaseUrl(String baseUrl) {
+        if (!config.getCircuitBreaker().isEnabled() || baseUrl == null) {
+            return null;
+        }
+        return breakersByBaseUrl.computeIfAbsent(baseUrl, url -> breakersByHost.computeIfAbsent(hostOf(url), host -> {
+            CircuitBreaker breaker = new CircuitBreaker(host, config.getCircuitBreaker());
+            Gauge.builder("swagger.upstream.circuit.state", breaker, b -> b.state().ordinal())
+                    .description("Circuit breaker state of the upstream host: 0 closed, 1 half-open, 2 open")
+                    .tag("host", host)
+                    .register(meterRegistry);
+            return breaker;
+        }));
+    }
+
+    public Collection<CircuitBreaker> all() {
+        return breakersByHost.values();
+    }
+
+    private static String hostOf(String baseUrl) {
+        try {
+            URI uri = URI.create(baseUrl);
+            if (uri.getHost() != null) {
+                return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+            }
+        } catch (IllegalArgumentException e) {
+            // fall through
+        }
+        return "unknown";
+    }
+}
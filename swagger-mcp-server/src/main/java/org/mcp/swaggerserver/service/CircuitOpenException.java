@@ -0,0 +1,19 @@
+package org.mcp.swaggerserver.service;
+
+/**
+ * A tool call was failed fast without being sent because the circuit breaker of its upstream
+ * host is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+
+    private final String host;
+
+    public CircuitOpenException(String host, String message) {
+        super(message);
+        this.host = host;
+    }
+
+    public String getHost() {
+        return host;
+    }
+}
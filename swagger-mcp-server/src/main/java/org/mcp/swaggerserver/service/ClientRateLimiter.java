@@ -0,0 +1,152 @@
+package org.mcp.swaggerserver.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mcp.swaggerserver.config.RateLimitConfig;
+import org.mcp.swaggerserver.model.ClientIdentity;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Token-bucket rate limits on tool calls, per client (see {@link ClientIdentity}) and per tool,
+ * checked before a call is coalesced, cached or queued. A call over either limit fails with
+ * {@link RateLimitExceededException} carrying the time until the next call will be allowed.
+ *
+ * Every call is counted per client as {@code swagger.client.requests{client, result}} with
+ * result allowed, throttled (client limit) or tool_throttled, whether limits are enabled or not.
+ * At most swagger.rate-limit.max-clients clients are tracked; beyond that the least recently seen
+ * one is forgotten, and starts over with a full bucket if it comes back.
+ */
+@Service
+public class ClientRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientRateLimiter.class);
+    private static final String OTHER_CLIENTS = "other";
+
+    private final RateLimitConfig config;
+    private final MeterRegistry meterRegistry;
+    // Access order, guarded by itself
+    private final LinkedHashMap<String, ClientUsage> clients;
+    private final Map<String, TokenBucket> tools = new ConcurrentHashMap<>();
+    private final Set<String> meteredClients = ConcurrentHashMap.newKeySet();
+
+    /** A client's bucket (null without a limit) and usage counters. */
+    public record ClientUsage(String clientId, TokenBucket bucket, Counter allowed, Counter throttled,
+                              Counter toolThrottled) {}
+
+    public ClientRateLimiter(RateLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        int maxClients = Math.max(1, config.getMaxClients());
+        this.clients = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, ClientUsage> eldest) {
+                return size() > maxClients;
+            }
+        };
+        config.getTools().forEach((toolId, limit) -> {
+            TokenBucket bucket = bucket(limit, 0, 0);
+            if (bucket != null) {
+                tools.put(toolId, bucket);
+            }
+        });
+    }
+
+    /** Runs {@code call} if the calling client and the tool are within their limits. */
+    public <T> Mono<T> limit(DynamicToolDefinition tool, Mono<T> call) {
+        return Mono.deferContextual(context -> {
+            ClientIdentity client = ClientIdentity.from(context);
+            ClientUsage usage = usage(client.id());
+            if (!config.isEnabled()) {
+                usage.allowed().increment();
+                return call;
+            }
+            long waitNanos = usage.bucket() != null ? usage.bucket().tryTake() : 0;
+            if (waitNanos > 0) {
+                usage.throttled().increment();
+                return Mono.error(throttled(client.id(), waitNanos, "client '" + client.id() + "'"));
+            }
+            TokenBucket toolBucket = tools.get(tool.getId());
+            waitNanos = toolBucket != null ? toolBucket.tryTake() : 0;
+            if (waitNanos > 0) {
+                if (usage.bucket() != null) {
+                    usage.bucket().giveBack();
+                }
+                usage.toolThrottled().increment();
+                return Mono.error(throttled(client.id(), waitNanos, "tool '" + tool.getId() + "'"));
+            }
+            usage.allowed().increment();
+            return call;
+        });
+    }
+
+    /** Usage of the clients tracked at the moment, by client id. */
+    public List<ClientUsage> clients() {
+        List<ClientUsage> tracked;
+        synchronized (clients) {
+            tracked = new ArrayList<>(clients.values());
+        }
+        return tracked.stream().sorted(Comparator.comparing(ClientUsage::clientId)).toList();
+    }
+
+    /** Buckets of the rate-limited tools, by tool id. */
+    public Map<String, TokenBucket> tools() {
+        return Map.copyOf(tools);
+    }
+
+    private static RateLimitExceededException throttled(String clientId, long waitNanos, String subject) {
+        Duration retryAfter = Duration.ofNanos(waitNanos);
+        log.debug("Throttled call of client '{}': rate limit of {} exceeded", clientId, subject);
+        return new RateLimitExceededException(clientId, retryAfter, "Rate limit of " + subject
+                + " exceeded; retry after " + Math.max(1, retryAfter.toMillis()) + " ms");
+    }
+
+    private ClientUsage usage(String clientId) {
+        synchronized (clients) {
+            return clients.computeIfAbsent(clientId, this::newUsage);
+        }
+    }
+
+    private ClientUsage newUsage(String clientId) {
+        RateLimitConfig.ClientLimit limit = config.getClients().get(clientId);
+        TokenBucket bucket = bucket(limit, config.getRequestsPerSecond(), config.getBurst());
+        // Bounded number of distinct tags, the rest are counted together
+        String tag = meteredClients.contains(clientId)
+                || (meteredClients.size() < config.getMetricsClients() && meteredClients.add(clientId))
+                ? clientId : OTHER_CLIENTS;
+        return new ClientUsage(clientId, bucket, counter(tag, "allowed"), counter(tag, "throttled"),
+                counter(tag, "tool_throttled"));
+    }
+
+    /** A bucket for the limit, falling back to the defaults; null when there is no limit. */
+    private static TokenBucket bucket(RateLimitConfig.Limit limit, double defaultRate, int defaultBurst) {
+        double rate = limit != null && limit.getRequestsPerSecond() != null ? limit.getRequestsPerSecond() : defaultRate;
+        if (rate <= 0) {
+            return null;
+        }
+        int burst = limit != null && limit.getBurst() != null ? limit.getBurst()
+                : defaultBurst > 0 ? defaultBurst : (int) Math.ceil(rate);
+        return new TokenBucket(rate, burst);
+    }
+
+    private Counter counter(String client, String result) {
+        return Counter.builder("swagger.client.requests")
+                .description("Tool calls per client: allowed, or rejected by the client's or the tool's rate limit")
+                .tag("client", client)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,70 @@
+package org.mcp.swaggerserver.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reusable components of a spec (schemas, parameters, request bodies) addressable by their local
+ * $ref, e.g. {@code #/components/schemas/Pet} or {@code #/definitions/Pet}.
+ *
+ * For JSON specs only the character range of each component is recorded while the spec is
+ * scanned; a component is parsed the first time a $ref to it is resolved and memoized from then
+ * on, so components no tool refers to are never materialized. Safe for concurrent use.
+ */
+public final class ComponentIndex {
+
+    private record Range(int start, int end) {}
+
+    private final String source;
+    private final JsonFactory jsonFactory;
+    private final ObjectMapper treeCodec;
+    private final Map<String, Range> ranges = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> resolved = new ConcurrentHashMap<>();
+
+    ComponentIndex(String source, JsonFactory jsonFactory, ObjectMapper treeCodec) {
+        this.source = source;
+        this.jsonFactory = jsonFactory;
+        this.treeCodec = treeCodec;
+    }
+
+    void registerRange(String ref, int start, int end) {
+        ranges.put(ref, new Range(start, end));
+    }
+
+    void registerNode(String ref, JsonNode node) {
+        resolved.put(ref, node);
+    }
+
+    /**
+     * Returns the component a local $ref points to, or null if the spec does not define it.
+     */
+    public JsonNode resolve(String ref) {
+        JsonNode node = resolved.get(ref);
+        if (node != null) {
+            return node;
+        }
+        Range range = ranges.get(ref);
+        if (range == null) {
+            return null;
+        }
+        return resolved.computeIfAbsent(ref, key -> {
+            try (JsonParser parser = jsonFactory.createParser(source.substring(range.start(), range.end()))) {
+                return treeCodec.readTree(parser);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read component " + key, e);
+            }
+        });
+    }
+
+    /** Number of components parsed so far, for diagnostics. */
+    public int materializedCount() {
+        return resolved.size();
+    }
+}
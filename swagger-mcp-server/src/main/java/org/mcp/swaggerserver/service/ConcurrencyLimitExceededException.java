@@ -0,0 +1,19 @@
+package org.mcp.swaggerserver.service;
+
+/**
+ * A tool call was rejected without being sent because its API source is at its concurrency
+ * limit and no slot became free in time.
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+
+    private final String source;
+
+    public ConcurrencyLimitExceededException(String source, String message) {
+        super(message);
+        this.source = source;
+    }
+
+    public String getSource() {
+        return source;
+    }
+}
@@ -1,112 +1,309 @@
 package org.mcp.swaggerserver.service;
 
+import java.time.Duration;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
+import org.mcp.swaggerserver.config.ApiSourcesConfig;
+import org.mcp.swaggerserver.config.ApiSourcesConfig.ApiSource;
+import org.mcp.swaggerserver.config.ConcurrencyLimitConfig;
+import org.mcp.swaggerserver.config.HttpClientConfig;
+import org.mcp.swaggerserver.config.HttpClientSettings;
+import org.mcp.swaggerserver.config.ResilienceConfig;
+import org.mcp.swaggerserver.config.ResponseLimitsConfig;
+import org.mcp.swaggerserver.config.ResponseShapingConfig;
 import org.mcp.swaggerserver.config.SwaggerRestHeadersConfig;
 import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolDefinitionsChangedEvent;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.context.ContextView;
+import reactor.util.retry.Retry;
 
 @Service
 public class EndpointInvokerService {
 
     private static final Logger log = LoggerFactory.getLogger(EndpointInvokerService.class);
 
-    private final WebClient webClient;
+    private final WebClient.Builder webClientBuilder;
     private final SwaggerRestHeadersConfig swaggerRestHeadersConfig;
-    private final String apiBaseUrlConfig;
-    private final String authHeaderName;
-    private final String authHeaderPrefix;
-    private final String authTokenValue;
+    private final ApiSourceRegistry apiSourceRegistry;
+    private final HttpClientConfig httpClientConfig;
+    private final ToolResponseCache responseCache;
+    private final ResponseLimitsConfig responseLimits;
+    private final ResponseShapingConfig responseShaping;
+    private final ToolMetrics toolMetrics;
+    private final ToolTracing tracing;
+    private final ConcurrencyLimitConfig concurrencyLimitConfig;
+    private final ResilienceConfig resilienceConfig;
+    private final CircuitBreakerRegistry circuitBreakers;
+    private final MeterRegistry meterRegistry;
+    private final ToolRegistry toolRegistry;
+    private final Map<String, SourceClient> sourceClients = new ConcurrentHashMap<>();
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+    // Per source name, per tool id; a plan is reused while its tool definition is the same instance
+    private final Map<String, Map<String, CompiledTool>> compiledTools = new ConcurrentHashMap<>();
+
+    /**
+     * Everything needed to call one API source: a WebClient on the source's own connection pool
+     * that sends the source's headers (auth, global and per-source, composed once) by default,
+     * the source's concurrency limiter (null when swagger.concurrency.enabled=false), its retry
+     * policy (null when retries are disabled) and its overall call timeout.
+     */
+    private record SourceClient(ApiSource source, WebClient webClient, ConnectionProvider connectionProvider,
+                                AdaptiveConcurrencyLimiter limiter, Retry retry, Duration timeout) {}
+
+    /** A tool's invocation plan together with the client of its source and its result shaping. */
+    private record CompiledTool(InvocationPlan plan, SourceClient client, ResponseShaper shaper) {}
 
     // Use constructor injection for dependencies - it's a best practice
     public EndpointInvokerService(
-            WebClient.Builder webClientBuilder, // Inject the builder to create a configured instance
+            WebClient.Builder webClientBuilder, // Inject the builder to create a configured instance per source
             SwaggerRestHeadersConfig swaggerRestHeadersConfig,
-            @Value("${api.base.url}") String apiBaseUrlConfig,
-            @Value("${auth.header.name:}") String authHeaderName,
-            @Value("${auth.header.prefix:}") String authHeaderPrefix,
-            @Value("${auth.token.value:}") String authTokenValue
+            ApiSourceRegistry apiSourceRegistry,
+            HttpClientConfig httpClientConfig,
+            ToolResponseCache responseCache,
+            ResponseLimitsConfig responseLimits,
+            ResponseShapingConfig responseShaping,
+            ToolMetrics toolMetrics,
+            ToolTracing tracing,
+            ConcurrencyLimitConfig concurrencyLimitConfig,
+            ResilienceConfig resilienceConfig,
+            CircuitBreakerRegistry circuitBreakers,
+            MeterRegistry meterRegistry,
+            ToolRegistry toolRegistry
     ) {
-        this.webClient = webClientBuilder.build();
+        this.webClientBuilder = webClientBuilder;
         this.swaggerRestHeadersConfig = swaggerRestHeadersConfig;
-        this.apiBaseUrlConfig = apiBaseUrlConfig;
-        this.authHeaderName = authHeaderName;
-        this.authHeaderPrefix = authHeaderPrefix;
-        this.authTokenValue = authTokenValue;
+        this.apiSourceRegistry = apiSourceRegistry;
+        this.httpClientConfig = httpClientConfig;
+        this.responseCache = responseCache;
+        this.responseLimits = responseLimits;
+        this.responseShaping = responseShaping;
+        this.toolMetrics = toolMetrics;
+        this.tracing = tracing;
+        this.concurrencyLimitConfig = concurrencyLimitConfig;
+        this.resilienceConfig = resilienceConfig;
+        this.circuitBreakers = circuitBreakers;
+        this.meterRegistry = meterRegistry;
+        this.toolRegistry = toolRegistry;
+    }
+
+    /** Compiles the plans of all registered tools up front, so first calls do not pay for it. */
+    @PostConstruct
+    public void precompile() {
+        for (DynamicToolDefinition tool : toolRegistry.tools()) {
+            compiled(tool);
+        }
+        log.info("Compiled invocation plans for {} tools", toolRegistry.size());
+    }
+
+    private SourceClient clientFor(String sourceName) {
+        ApiSource source = apiSourceRegistry.getSource(sourceName);
+        return sourceClients.computeIfAbsent(source.getName(), name -> {
+            // A dedicated pool per source keeps one slow backend from starving the connections of the others
+            HttpClientSettings settings = httpClientConfig.mergedWith(source.getHttp());
+            ConnectionProvider provider = createConnectionProvider("swagger-source-" + name, settings);
+            HttpHeaders defaultHeaders = HttpHeaders.readOnlyHttpHeaders(defaultHeaders(source));
+            WebClient client = webClientBuilder.clone()
+                    .clientConnector(new ReactorClientHttpConnector(ToolTracing.instrument(createHttpClient(provider, settings))))
+                    .defaultHeaders(headers -> headers.addAll(defaultHeaders))
+                    .filter(tracing.exchangePhases())
+                    .build();
+            AdaptiveConcurrencyLimiter limiter = concurrencyLimitConfig.isEnabled()
+                    ? new AdaptiveConcurrencyLimiter(name, concurrencyLimitConfig, settings.getMaxConnections(), meterRegistry, tracing)
+                    : null;
+            Retry retry = resilienceConfig.getRetry().isEnabled() ? retryPolicy(name) : null;
+            log.info("Created HTTP client for API source '{}': maxConnections={}, pendingAcquireMaxCount={}, protocols={}, "
+                            + "concurrencyLimit={}, responseTimeout={}, timeout={}",
+                    name, settings.getMaxConnections(), settings.getPendingAcquireMaxCount(), settings.getProtocols(),
+                    limiter != null ? limiter.limit() : "off", settings.getResponseTimeout(), settings.getTimeout());
+            return new SourceClient(source, client, provider, limiter, retry, settings.getTimeout());
+        });
+    }
+
+    /**
+     * Headers sent with every request to the source: its auth header if configured, the global
+     * custom headers, then the source's own headers on top.
+     */
+    private HttpHeaders defaultHeaders(ApiSource source) {
+        HttpHeaders headers = new HttpHeaders();
+        ApiSourcesConfig.Auth auth = source.getAuth();
+        if (auth != null && StringUtils.hasText(auth.getHeaderName()) && StringUtils.hasText(auth.getTokenValue())) {
+            headers.set(auth.getHeaderName(), StringUtils.hasText(auth.getHeaderPrefix())
+                    ? auth.getHeaderPrefix() + " " + auth.getTokenValue()
+                    : auth.getTokenValue());
+        }
+        if (swaggerRestHeadersConfig != null && swaggerRestHeadersConfig.getHeaders() != null) {
+            swaggerRestHeadersConfig.getHeaders().forEach(headers::set);
+        }
+        if (source.getHeaders() != null) {
+            source.getHeaders().forEach(headers::set);
+        }
+        return headers;
+    }
+
+    /**
+     * Returns the tool's compiled plan, compiling it on first use or when the definition was
+     * replaced by a reload.
+     */
+    private CompiledTool compiled(DynamicToolDefinition toolDefinition) {
+        String sourceName = toolDefinition.getSource() != null ? toolDefinition.getSource() : "";
+        Map<String, CompiledTool> plans = compiledTools.computeIfAbsent(sourceName, name -> new ConcurrentHashMap<>());
+        CompiledTool compiled = plans.get(toolDefinition.getId());
+        if (compiled != null && compiled.plan().tool() == toolDefinition) {
+            return compiled;
+        }
+        // Concurrent first calls compile once; the others wait for and share the plan
+        return plans.compute(toolDefinition.getId(), (id, current) ->
+                current != null && current.plan().tool() == toolDefinition ? current : compile(toolDefinition));
+    }
+
+    private CompiledTool compile(DynamicToolDefinition toolDefinition) {
+        SourceClient sourceClient = clientFor(toolDefinition.getSource());
+        return new CompiledTool(InvocationPlan.compile(toolDefinition, apiSourceRegistry.getBaseUrl(toolDefinition.getSource())),
+                sourceClient, ResponseShaper.forTool(toolDefinition.getId(), responseShaping));
+    }
+
+    /** Compiles the plans of a reloaded source up front and drops those of removed tools. */
+    @EventListener
+    public void onToolDefinitionsChanged(ToolDefinitionsChangedEvent event) {
+        Map<String, CompiledTool> plans = new ConcurrentHashMap<>();
+        for (DynamicToolDefinition tool : event.tools()) {
+            plans.put(tool.getId(), compile(tool));
+        }
+        compiledTools.put(event.source(), plans);
+    }
+
+    private static ConnectionProvider createConnectionProvider(String name, HttpClientSettings settings) {
+        ConnectionProvider.Builder builder = ConnectionProvider.builder(name)
+                .maxConnections(settings.getMaxConnections())
+                .pendingAcquireMaxCount(settings.getPendingAcquireMaxCount())
+                .pendingAcquireTimeout(settings.getPendingAcquireTimeout())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .maxLifeTime(settings.getMaxLifeTime())
+                // Exposed as reactor.netty.connection.provider.* meters, tagged name=<pool name>
+                .metrics(Boolean.TRUE.equals(settings.getMetrics()));
+        if (settings.getEvictInBackground() != null && !settings.getEvictInBackground().isZero()) {
+            builder.evictInBackground(settings.getEvictInBackground());
+        }
+        if ("lifo".equalsIgnoreCase(settings.getLeasingStrategy())) {
+            builder.lifo();
+        } else {
+            builder.fifo();
+        }
+        if (usesHttp2(settings)) {
+            // HTTP/2 multiplexes requests over few connections; size the pool in streams instead
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(settings.getMaxConnections())
+                    .maxConcurrentStreams(settings.getMaxConcurrentStreams())
+                    .build());
+        }
+        return builder.build();
+    }
+
+    private static HttpClient createHttpClient(ConnectionProvider provider, HttpClientSettings settings) {
+        HttpClient httpClient = HttpClient.create(provider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) settings.getConnectTimeout().toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, Boolean.TRUE.equals(settings.getKeepAlive()));
+        if (settings.getResponseTimeout() != null && !settings.getResponseTimeout().isZero()) {
+            httpClient = httpClient.responseTimeout(settings.getResponseTimeout());
+        }
+        if (settings.getProtocols() != null && !settings.getProtocols().isEmpty()) {
+            httpClient = httpClient.protocol(settings.getProtocols().toArray(new HttpProtocol[0]));
+        }
+        return httpClient;
+    }
+
+    private static boolean usesHttp2(HttpClientSettings settings) {
+        return settings.getProtocols() != null
+                && (settings.getProtocols().contains(HttpProtocol.H2) || settings.getProtocols().contains(HttpProtocol.H2C));
+    }
+
+    @PreDestroy
+    public void disposeConnectionPools() {
+        sourceClients.values().forEach(client -> client.connectionProvider().dispose());
     }
 
     public Mono<String> invokeEndpoint(DynamicToolDefinition toolDefinition, Map<String, Object> inputParams) {
-        log.info("Invoking endpoint for tool id={}, path='{}', method={}",
+        log.debug("Invoking endpoint for tool id={}, path='{}', method={}",
                 toolDefinition.getId(), toolDefinition.getPath(), toolDefinition.getMethod());
+        CompiledTool compiled = compiled(toolDefinition);
+        // Outcome, latency and sampled arguments of every call go to the access log; these are for debugging only
+        String baseUrl = compiled.plan().baseUrl();
+        // Traced as swagger.tool.call with a span per phase, see ToolTracing
+        return tracing.call(toolDefinition, baseUrl, toolMetrics.record(toolDefinition, baseUrl, inputParams,
+                        call -> Mono.deferContextual(context -> doInvokeEndpoint(compiled, inputParams, call, context))))
+                .doOnSuccess(response -> log.debug("{} to {} successful", toolDefinition.getMethod(), toolDefinition.getPath()))
+                .doOnError(error -> log.debug("Error invoking endpoint toolId={}, path={}, method={}: {}",
+                        toolDefinition.getId(), toolDefinition.getPath(), toolDefinition.getMethod(), error.toString(), error));
+    }
 
-        final String apiBaseUrl = inputParams.getOrDefault("_apiBaseUrl", apiBaseUrlConfig).toString();
-        final HttpMethod httpMethod = HttpMethod.valueOf(toolDefinition.getMethod().toUpperCase());
-
-        // Extract path variables for safe URI building
-        final Map<String, Object> pathParams = toolDefinition.getParameters().stream()
-                .filter(p -> "path".equals(p.getInType()) && inputParams.containsKey(p.getName()))
-                .collect(Collectors.toMap(DynamicToolDefinition.ToolParameter::getName, p -> inputParams.get(p.getName())));
-
-        // The WebClient request spec
-        WebClient.RequestBodySpec requestSpec = webClient
-                .method(httpMethod)
-                .uri(apiBaseUrl + toolDefinition.getPath(), uriBuilder -> {
-                    // WebClient handles query parameter building and encoding safely
-                    toolDefinition.getParameters().stream()
-                            .filter(p -> "query".equals(p.getInType()) && inputParams.containsKey(p.getName()))
-                            .forEach(p -> uriBuilder.queryParam(p.getName(), inputParams.get(p.getName())));
-                    return uriBuilder.build(pathParams); // Pass path variables here for safe substitution
-                })
-                .headers(httpHeaders -> {
-                    // Set auth header if configured
-                    if (StringUtils.hasText(authHeaderName) && StringUtils.hasText(authTokenValue)) {
-                        String headerValue = StringUtils.hasText(authHeaderPrefix)
-                                ? authHeaderPrefix + " " + authTokenValue
-                                : authTokenValue;
-                        httpHeaders.set(authHeaderName, headerValue);
-                    }
-                    // Add all custom headers from config
-                    if (swaggerRestHeadersConfig != null && swaggerRestHeadersConfig.getHeaders() != null) {
-                        swaggerRestHeadersConfig.getHeaders().forEach(httpHeaders::set);
-                    }
-                });
+    private Mono<String> doInvokeEndpoint(CompiledTool compiled, Map<String, Object> inputParams, ToolMetrics.Call call,
+                                          ContextView context) {
+        final DynamicToolDefinition toolDefinition = compiled.plan().tool();
+        final HttpMethod httpMethod = compiled.plan().method();
+        final WebClient.RequestBodySpec requestSpec = tracing.phase(ToolTracing.PREPARE, context,
+                () -> prepareRequest(compiled, inputParams));
+        final ResponseShaper shaper = responseShaping.isArguments()
+                ? compiled.shaper().withArguments(inputParams)
+                : compiled.shaper();
 
         switch (httpMethod.name()) {
             case "GET" -> {
-                return executeRequest(requestSpec, toolDefinition, inputParams)
-                        .bodyToMono(String.class)
-                        .doOnSuccess(response -> log.info("{} to {} successful", toolDefinition.getMethod(), toolDefinition.getPath()))
-                        .doOnError(error -> log.error("Error invoking endpoint toolId={}, path={}, method={}, params={}, error={}",
-                                toolDefinition.getId(), toolDefinition.getPath(), toolDefinition.getMethod(), inputParams, error.getMessage(), error));
+                if (responseCache.isCacheable(toolDefinition)) {
+                    return responseCache.getOrLoad(toolDefinition, inputParams, context, etag -> {
+                                if (etag != null) {
+                                    requestSpec.header(HttpHeaders.IF_NONE_MATCH, etag);
+                                }
+                                return guarded(compiled, inputParams, executeRequest(requestSpec, toolDefinition, inputParams)
+                                        .toEntityFlux(DataBuffer.class)
+                                        .doOnNext(entity -> call.status(entity.getStatusCode()))
+                                        .flatMap(entity -> readBounded(entity, inputParams, shaper, context)
+                                                .map(body -> new ResponseEntity<>(body, entity.getHeaders(), entity.getStatusCode()))));
+                            });
+                }
+                return guarded(compiled, inputParams, executeRequest(requestSpec, toolDefinition, inputParams)
+                        .toEntityFlux(DataBuffer.class)
+                        .doOnNext(entity -> call.status(entity.getStatusCode()))
+                        .flatMap(entity -> readBounded(entity, inputParams, shaper, context)));
             }
             case "DELETE" -> {
-                return executeRequest(requestSpec, toolDefinition, inputParams)
+                return guarded(compiled, inputParams, executeRequest(requestSpec, toolDefinition, inputParams)
                         .toBodilessEntity() // We don't care about the body
-                        .then(Mono.just("Deleted")) // Return a static string on success, preserving original logic
-                        .doOnSuccess(response -> log.info("{} to {} successful", toolDefinition.getMethod(), toolDefinition.getPath()))
-                        .doOnError(error -> log.error("Error invoking endpoint toolId={}, path={}, method={}, params={}, error={}",
-                                toolDefinition.getId(), toolDefinition.getPath(), toolDefinition.getMethod(), inputParams, error.getMessage(), error));
+                        .doOnNext(entity -> call.status(entity.getStatusCode())))
+                        .then(Mono.just("Deleted")); // Return a static string on success, preserving original logic
             }
             case "POST", "PUT" -> {
-                requestSpec.contentType(MediaType.APPLICATION_JSON);
-                if (inputParams.containsKey("body")) {
-                    requestSpec.bodyValue(inputParams.get("body"));
-                }
-                return executeRequest(requestSpec, toolDefinition, inputParams)
-                        .bodyToMono(String.class)
-                        .doOnSuccess(response -> log.info("{} to {} successful", toolDefinition.getMethod(), toolDefinition.getPath()))
-                        .doOnError(error -> log.error("Error invoking endpoint toolId={}, path={}, method={}, params={}, error={}",
-                                toolDefinition.getId(), toolDefinition.getPath(), toolDefinition.getMethod(), inputParams, error.getMessage(), error));
+                return guarded(compiled, inputParams, executeRequest(requestSpec, toolDefinition, inputParams)
+                        .toEntityFlux(DataBuffer.class)
+                        .doOnNext(entity -> call.status(entity.getStatusCode()))
+                        .flatMap(entity -> readBounded(entity, inputParams, shaper, context)));
             }
             default -> {
                 log.error("Unsupported HTTP method: {}", httpMethod);
@@ -115,14 +312,158 @@ public class EndpointInvokerService {
         }
     }
 
+    /**
+     * Invokes the endpoint without buffering the response: the upstream body is handed on as the
+     * {@link DataBuffer}s Netty received, so the caller can write them straight to its own
+     * response. Status and headers arrive as soon as the upstream sends them.
+     */
+    public Mono<ResponseEntity<Flux<DataBuffer>>> invokeEndpointStreaming(DynamicToolDefinition toolDefinition,
+                                                                          Map<String, Object> inputParams) {
+        log.debug("Streaming endpoint for tool id={}, path='{}', method={}",
+                toolDefinition.getId(), toolDefinition.getPath(), toolDefinition.getMethod());
+        CompiledTool compiled = compiled(toolDefinition);
+        // Timed, guarded and holding a concurrency slot up to the response headers; the body is relayed to the caller afterwards
+        String baseUrl = compiled.plan().baseUrl();
+        return tracing.call(toolDefinition, baseUrl, toolMetrics.record(toolDefinition, baseUrl, inputParams, call ->
+                        Mono.deferContextual(context -> {
+                            WebClient.RequestBodySpec requestSpec = tracing.phase(ToolTracing.PREPARE, context,
+                                    () -> prepareRequest(compiled, inputParams));
+                            return guarded(compiled, inputParams, executeRequest(requestSpec, toolDefinition, inputParams)
+                                    .toEntityFlux(DataBuffer.class)
+                                    .doOnNext(entity -> call.status(entity.getStatusCode())));
+                        })))
+                .doOnError(error -> log.debug("Error streaming endpoint toolId={}, path={}, method={}: {}",
+                        toolDefinition.getId(), toolDefinition.getPath(), toolDefinition.getMethod(), error.toString(), error));
+    }
+
+    private WebClient.RequestBodySpec prepareRequest(CompiledTool compiled, Map<String, Object> inputParams) {
+        final InvocationPlan plan = compiled.plan();
+        WebClient.RequestBodySpec requestSpec = compiled.client().webClient()
+                .method(plan.method())
+                .uri(plan.bindUri(inputParams));
+
+        if (plan.method() == HttpMethod.POST || plan.method() == HttpMethod.PUT) {
+            requestSpec.contentType(MediaType.APPLICATION_JSON);
+            if (inputParams.containsKey("body")) {
+                requestSpec.bodyValue(inputParams.get("body"));
+            }
+        }
+        return requestSpec;
+    }
+
+    /**
+     * Runs an upstream exchange with the call's resilience policy. Each attempt must pass the
+     * upstream host's circuit breaker and the source's concurrency limit; calls with an idempotent
+     * method are retried with jittered exponential backoff on I/O errors, response timeouts and the
+     * configured statuses; and the whole call is bounded by the tool's or the source's timeout.
+     */
+    private <T> Mono<T> guarded(CompiledTool compiled, Map<String, Object> inputParams, Mono<T> exchange) {
+        SourceClient client = compiled.client();
+        Mono<T> attempt = exchange.onErrorMap(
+                error -> error instanceof WebClientRequestException && error.getCause() instanceof ReadTimeoutException,
+                error -> {
+                    WebClientRequestException request = (WebClientRequestException) error;
+                    return new TimeoutException("No response within the response timeout from "
+                            + request.getMethod() + " " + request.getUri());
+                });
+        if (client.limiter() != null) {
+            attempt = client.limiter().run(attempt);
+        }
+        CircuitBreaker breaker = circuitBreakers.forBaseUrl(compiled.plan().baseUrl());
+        if (breaker != null) {
+            attempt = breaker.run(attempt);
+        }
+        if (client.retry() != null) {
+            budgets.get(client.source().getName()).deposit();
+            if (resilienceConfig.getRetry().getMethods().contains(compiled.plan().method().name())) {
+                attempt = attempt.retryWhen(client.retry());
+            }
+        }
+        String toolId = compiled.plan().tool().getId();
+        Duration timeout = resilienceConfig.getToolTimeouts().getOrDefault(toolId, client.timeout());
+        if (timeout == null || timeout.isZero()) {
+            return attempt;
+        }
+        return attempt.timeout(timeout, Mono.error(() -> new TimeoutException(
+                "Tool call " + toolId + " did not complete within " + timeout.toMillis() + " ms")));
+    }
+
+    /**
+     * Backoff retries for one source, each taken from the source's {@link RetryBudget}. Once the
+     * retries are used up the last failure is passed on as it is.
+     */
+    private Retry retryPolicy(String sourceName) {
+        ResilienceConfig.Retry config = resilienceConfig.getRetry();
+        RetryBudget budget = budgets.computeIfAbsent(sourceName, name -> new RetryBudget(config));
+        Counter retried = retryCounter(sourceName, "retried");
+        Counter budgetExhausted = retryCounter(sourceName, "budget_exhausted");
+        return Retry.backoff(config.getMaxRetries(), config.getInitialBackoff())
+                .maxBackoff(config.getMaxBackoff())
+                .jitter(config.getJitter())
+                .filter(error -> {
+                    if (!isRetryable(error)) {
+                        return false;
+                    }
+                    if (!budget.tryWithdraw()) {
+                        budgetExhausted.increment();
+                        return false;
+                    }
+                    return true;
+                })
+                .doBeforeRetry(signal -> {
+                    retried.increment();
+                    log.debug("Retrying call to API source '{}' (retry {}) after: {}",
+                            sourceName, signal.totalRetries() + 1, signal.failure().getMessage());
+                })
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    private Counter retryCounter(String sourceName, String result) {
+        return Counter.builder("swagger.upstream.retries")
+                .description("Retries of upstream calls, and retries skipped because the retry budget was used up")
+                .tag("source", sourceName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private boolean isRetryable(Throwable error) {
+        if (error instanceof UpstreamResponseException upstream) {
+            return resilienceConfig.getRetry().getStatuses().contains(upstream.getStatusCode().value());
+        }
+        // Connection failures and response timeouts of a single attempt
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+    /**
+     * Aggregates at most swagger.response.max-bytes of the body, from the requested page offset on,
+     * instead of buffering the whole response into one String. JSON bodies are shaped on the way in.
+     * A larger body is truncated for MCP calls and fails REST calls (see BoundedBodyReader).
+     */
+    private Mono<String> readBounded(ResponseEntity<Flux<DataBuffer>> entity, Map<String, Object> inputParams,
+                                     ResponseShaper shaper, ContextView context) {
+        long offset = responseLimits.isPagination() ? BoundedBodyReader.offsetOf(inputParams.get(BoundedBodyReader.OFFSET_PARAM)) : 0;
+        Flux<DataBuffer> body = entity.getBody() != null ? entity.getBody() : Flux.empty();
+        boolean shaped = shaper.isActive() && isJson(entity.getHeaders().getContentType());
+        return tracing.phase(ToolTracing.BODY, BoundedBodyReader.read(body, shaped ? shaper : null, offset,
+                responseLimits.getMaxBytes(), entity.getHeaders().getContentLength(), responseLimits.isPagination(),
+                BoundedBodyReader.rejectsTruncated(context)));
+    }
+
+    private static boolean isJson(MediaType contentType) {
+        return contentType != null && (MediaType.APPLICATION_JSON.isCompatibleWith(contentType)
+                || contentType.getSubtype().endsWith("+json"));
+    }
+
     private WebClient.ResponseSpec executeRequest(WebClient.RequestHeadersSpec<?> requestSpec, DynamicToolDefinition toolDefinition, Map<String, Object> inputParams) {
         return requestSpec.retrieve()
                 .onStatus(
                         status -> status.is4xxClientError() || status.is5xxServerError(),
                         clientResponse -> clientResponse.bodyToMono(String.class)
+                                .defaultIfEmpty("") // an empty Mono here would let the error status pass as success
                                 .flatMap(errorBody -> {
-                                    log.error("Error response from endpoint: status={}, body={}", clientResponse.statusCode(), errorBody);
-                                    return Mono.error(new RuntimeException("API call failed with status " + clientResponse.statusCode() + " and body: " + errorBody));
+                                    log.debug("Error response from endpoint: status={}, body={}", clientResponse.statusCode(), errorBody);
+                                    return Mono.error(new UpstreamResponseException(clientResponse.statusCode(), errorBody,
+                                            clientResponse.headers().contentType().orElse(null)));
                                 })
                 );
     }
@@ -0,0 +1,98 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Weighted fair queue: items are grouped by client and taken in the order of their virtual
+ * finish times (start-time fair queuing). While several clients have items waiting, each gets a
+ * share of the dequeues proportional to its weight, no matter how many items it queued, so a
+ * client flooding the queue delays mostly itself. Not thread-safe.
+ */
+final class FairQueue<T> {
+
+    private final Map<String, Flow> flows = new HashMap<>();
+    private final PriorityQueue<Entry<T>> entries = new PriorityQueue<>(
+            Comparator.<Entry<T>>comparingDouble(entry -> entry.finish).thenComparingLong(entry -> entry.sequence));
+    private double virtualTime;
+    private long sequence;
+
+    void add(String client, int weight, T item) {
+        Flow flow = flows.computeIfAbsent(client, key -> new Flow());
+        double start = Math.max(virtualTime, flow.lastFinish);
+        flow.lastFinish = start + 1.0 / Math.max(1, weight);
+        flow.size++;
+        entries.add(new Entry<>(item, flow, start, flow.lastFinish, sequence++));
+    }
+
+    T poll() {
+        Entry<T> entry = entries.poll();
+        if (entry == null) {
+            return null;
+        }
+        virtualTime = entry.start;
+        detach(entry);
+        return entry.item;
+    }
+
+    boolean remove(T item) {
+        for (Entry<T> entry : entries) {
+            if (entry.item == item) {
+                entries.remove(entry);
+                detach(entry);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Makes room for an item of {@code client} in a full queue: removes and returns the newest item
+     * of the client with the most items queued, if that client would still have more than
+     * {@code client} afterwards. Null if the queue is already shared fairly.
+     */
+    T evictFor(String client) {
+        Flow own = flows.get(client);
+        int ownSize = own != null ? own.size : 0;
+        Flow longest = null;
+        for (Flow flow : flows.values()) {
+            if (longest == null || flow.size > longest.size) {
+                longest = flow;
+            }
+        }
+        if (longest == null || longest.size <= ownSize + 1) {
+            return null;
+        }
+        Entry<T> newest = null;
+        for (Entry<T> entry : entries) {
+            if (entry.flow == longest && (newest == null || entry.sequence > newest.sequence)) {
+                newest = entry;
+            }
+        }
+        entries.remove(newest);
+        detach(newest);
+        return newest.item;
+    }
+
+    private void detach(Entry<T> entry) {
+        entry.flow.size--;
+        if (entries.isEmpty()) {
+            // Idle again: earlier service has no bearing on the next busy period
+            flows.clear();
+            virtualTime = 0;
+        }
+    }
+
+    private static final class Flow {
+        private double lastFinish;
+        private int size;
+    }
+
+    private record Entry<T>(T item, Flow flow, double start, double finish, long sequence) {}
+}
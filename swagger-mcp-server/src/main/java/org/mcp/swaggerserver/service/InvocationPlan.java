@@ -0,0 +1,118 @@
+package org.mcp.swaggerserver.service;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.util.UriUtils;
+
+/**
+ * Everything about calling a tool's endpoint that does not depend on the call's arguments,
+ * worked out once per tool definition: the HTTP method, the path template split into encoded
+ * literal segments and variable names, the names of the query parameters and the source's base
+ * URL as resolved by {@link ApiSourceRegistry}. Binding a call only appends encoded argument
+ * values, without parsing a URI template per request.
+ *
+ * Path variables are encoded strictly and query values as query parameters, the same as the
+ * WebClient's default URI builder did.
+ */
+public final class InvocationPlan {
+
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{([^/{}]+)\\}");
+
+    private final DynamicToolDefinition tool;
+    private final HttpMethod method;
+    private final String baseUrl;
+    // literals.length == pathVariables.length + 1; literal i precedes variable i
+    private final String[] literals;
+    private final String[] pathVariables;
+    private final String[] queryParameters;
+    private final int pathLength;
+
+    private InvocationPlan(DynamicToolDefinition tool, HttpMethod method, String baseUrl, String[] literals,
+                           String[] pathVariables, String[] queryParameters) {
+        this.tool = tool;
+        this.method = method;
+        this.baseUrl = baseUrl;
+        this.literals = literals;
+        this.pathVariables = pathVariables;
+        this.queryParameters = queryParameters;
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        this.pathLength = length;
+    }
+
+    public static InvocationPlan compile(DynamicToolDefinition tool, String baseUrl) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        String path = tool.getPath() != null ? tool.getPath() : "";
+        Matcher matcher = PATH_VARIABLE.matcher(path);
+        int end = 0;
+        while (matcher.find()) {
+            literals.add(UriUtils.encodePath(path.substring(end, matcher.start()), StandardCharsets.UTF_8));
+            variables.add(matcher.group(1));
+            end = matcher.end();
+        }
+        literals.add(UriUtils.encodePath(path.substring(end), StandardCharsets.UTF_8));
+
+        List<String> query = new ArrayList<>();
+        if (tool.getParameters() != null) {
+            for (DynamicToolDefinition.ToolParameter parameter : tool.getParameters()) {
+                if ("query".equals(parameter.getInType())) {
+                    query.add(parameter.getName());
+                }
+            }
+        }
+        return new InvocationPlan(tool, HttpMethod.valueOf(tool.getMethod().toUpperCase()), baseUrl,
+                literals.toArray(new String[0]), variables.toArray(new String[0]), query.toArray(new String[0]));
+    }
+
+    /** The definition this plan was compiled from; a replaced definition needs a new plan. */
+    public DynamicToolDefinition tool() { return tool; }
+    public HttpMethod method() { return method; }
+    /** The base URL of the tool's source; null if it has none. */
+    public String baseUrl() { return baseUrl; }
+
+    /**
+     * Builds the request URI from the call's arguments.
+     *
+     * @throws IllegalArgumentException if a path variable has no value
+     * @throws IllegalStateException if the tool's source has no base URL
+     */
+    public URI bindUri(Map<String, Object> inputParams) {
+        if (baseUrl == null) {
+            throw new IllegalStateException("API source '" + tool.getSource() + "' of tool " + tool.getId()
+                    + " has no base URL; set its base-url");
+        }
+        StringBuilder uri = new StringBuilder(baseUrl.length() + pathLength + 16 * (pathVariables.length + queryParameters.length));
+        uri.append(baseUrl).append(literals[0]);
+        for (int i = 0; i < pathVariables.length; i++) {
+            Object value = inputParams.get(pathVariables[i]);
+            if (value == null) {
+                throw new IllegalArgumentException("Missing value for path parameter '" + pathVariables[i] + "' of tool " + tool.getId());
+            }
+            uri.append(UriUtils.encode(value.toString(), StandardCharsets.UTF_8)).append(literals[i + 1]);
+        }
+        char separator = '?';
+        for (String name : queryParameters) {
+            if (!inputParams.containsKey(name)) {
+                continue;
+            }
+            Object value = inputParams.get(name);
+            uri.append(separator).append(UriUtils.encodeQueryParam(name, StandardCharsets.UTF_8));
+            if (value != null) {
+                uri.append('=').append(UriUtils.encodeQueryParam(value.toString(), StandardCharsets.UTF_8));
+            }
+            separator = '&';
+        }
+        return URI.create(uri.toString());
+    }
+}
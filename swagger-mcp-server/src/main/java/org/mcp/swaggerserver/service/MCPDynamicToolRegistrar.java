@@ -1,124 +1,415 @@
 package org.mcp.swaggerserver.service;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.mcp.swaggerserver.config.BatchConfig;
+import org.mcp.swaggerserver.config.ResponseLimitsConfig;
+import org.mcp.swaggerserver.config.ResponseShapingConfig;
+import org.mcp.swaggerserver.config.ToolSearchConfig;
+import org.mcp.swaggerserver.model.BatchRequest;
+import org.mcp.swaggerserver.model.BatchResult;
 import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolDefinitionsChangedEvent;
+import org.mcp.swaggerserver.model.ToolSetDiff;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.ai.tool.ToolCallback;
-import org.springframework.ai.tool.ToolCallbackProvider;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.modelcontextprotocol.server.McpAsyncServer;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
 @Service
 public class MCPDynamicToolRegistrar {
 
-    
-    @Value("${swagger.api.url}")
-    private String swaggerApiUrl;
-
     private static final Logger log = LoggerFactory.getLogger(MCPDynamicToolRegistrar.class);
+    private static final ObjectMapper JSON = new ObjectMapper();
+    static final String BATCH_TOOL = "batch_invoke";
+    static final String SEARCH_TOOL = "search_tools";
+    static final String DESCRIBE_TOOL = "describe_tool";
+    static final String INVOKE_TOOL = "invoke_tool";
 
-    private final SwaggerApiDiscoveryService discoveryService;
-    private final org.mcp.swaggerserver.service.EndpointInvokerService endpointInvokerService;
+    private final ToolRegistry toolRegistry;
+    private final RequestCoalescer requestCoalescer;
+    private final ResponseLimitsConfig responseLimits;
+    private final ResponseShapingConfig responseShaping;
+    private final BatchInvoker batchInvoker;
+    private final BatchConfig batchConfig;
+    private final ToolIndex toolIndex;
+    private final ToolSearchConfig searchConfig;
+    // Resolved lazily: the server itself is built from the tool specifications defined here
+    private final ObjectProvider<McpAsyncServer> mcpServer;
 
-    public MCPDynamicToolRegistrar(SwaggerApiDiscoveryService discoveryService,
-                     org.mcp.swaggerserver.service.EndpointInvokerService endpointInvokerService) {
-        this.discoveryService = discoveryService;
-        this.endpointInvokerService = endpointInvokerService;
+    public MCPDynamicToolRegistrar(ToolRegistry toolRegistry,
+                     RequestCoalescer requestCoalescer,
+                     ResponseLimitsConfig responseLimits,
+                     ResponseShapingConfig responseShaping,
+                     BatchInvoker batchInvoker,
+                     BatchConfig batchConfig,
+                     ToolIndex toolIndex,
+                     ToolSearchConfig searchConfig,
+                     ObjectProvider<McpAsyncServer> mcpServer) {
+        this.toolRegistry = toolRegistry;
+        this.requestCoalescer = requestCoalescer;
+        this.responseLimits = responseLimits;
+        this.responseShaping = responseShaping;
+        this.batchInvoker = batchInvoker;
+        this.batchConfig = batchConfig;
+        this.toolIndex = toolIndex;
+        this.searchConfig = searchConfig;
+        this.mcpServer = mcpServer;
     }
 
     /**
-     * On app startup, load and expose all Swagger endpoints as Spring AI ToolCallbacks.
+     * On app startup, expose every tool of the {@link ToolRegistry} as an MCP async tool specification.
+     * Each tool handler returns the upstream {@code Mono} directly, so no thread is parked
+     * while the upstream call is in flight. With lazy exposure only the search tools are listed
+     * and the operations are called through invoke_tool.
      */
     @Bean
-    public ToolCallbackProvider swaggerTools() {
-        log.info("Loading Swagger tools from API at {}", swaggerApiUrl);
-        List<DynamicToolDefinition> endpointTools = discoveryService.loadToolsFromSwagger(swaggerApiUrl);
-
-        List<ToolCallback> tools = endpointTools.stream()
-            .map(toolDef -> 
-                org.springframework.ai.tool.function.FunctionToolCallback.builder(
-                        toolDef.getId(),
-                        (java.util.Map<String, Object> argumentMap) -> {
-                            try {
-                                log.info("Invoking tool {} with arguments {}", toolDef.getId(), argumentMap);
-                                return endpointInvokerService.invokeEndpoint(toolDef, argumentMap).block();
-                            } catch (Exception e) {
-                                log.error("Error invoking tool {}: {}", toolDef.getId(), e.getMessage(), e);
-                                throw new RuntimeException("Tool invocation failed for '" + toolDef.getId() + "'. Reason: " + e.getMessage() + ". Please check your input and try again.", e);
-                            }
-                        })
-                    .description(
-                        toolDef.getSummary() != null
-                            ? toolDef.getSummary()
-                            : toolDef.getMethod() + " " + toolDef.getPath())
-                    .inputType(java.util.Map.class)
-                    .inputSchema(buildInputJsonSchema(toolDef))
-                    .build()
-            )
-            .collect(java.util.stream.Collectors.toList());
-
-        return ToolCallbackProvider.from(tools);
+    public List<McpServerFeatures.AsyncToolSpecification> swaggerTools() {
+        List<McpServerFeatures.AsyncToolSpecification> specifications = new ArrayList<>();
+        if (lazyExposure()) {
+            log.info("Exposing {} Swagger tools over MCP through {}, {} and {}",
+                    toolRegistry.size(), SEARCH_TOOL, DESCRIBE_TOOL, INVOKE_TOOL);
+            specifications.add(invokeToolSpecification());
+        } else {
+            List<DynamicToolDefinition> endpointTools = toolRegistry.tools();
+            log.info("Exposing {} Swagger tools over MCP", endpointTools.size());
+            endpointTools.stream().map(this::toToolSpecification).forEach(specifications::add);
+        }
+        if (searchConfig.exposesSearchTools()) {
+            specifications.add(searchToolSpecification());
+            specifications.add(describeToolSpecification());
+        }
+        if (batchConfig.isMcpTool()) {
+            specifications.add(batchToolSpecification());
+        }
+        return specifications;
     }
 
     /**
-     * Builds a JSON schema string for the input parameters of a tool,
-     * based on its DynamicToolDefinition.
+     * Applies a reloaded spec to the running MCP server tool by tool: removed tools are dropped,
+     * changed tools are replaced and added tools registered. The server sends a tools/list_changed
+     * notification for each change, so connected clients stay in sync without reconnecting.
+     * With lazy exposure the listed tools do not change; searches see the reloaded tools.
      */
-    private String buildInputJsonSchema(DynamicToolDefinition tool) {
-        StringBuilder sb = new StringBuilder();
-        sb.append("{\n");
-        sb.append("  \"type\": \"object\",\n");
-        sb.append("  \"properties\": {\n");
-        boolean hasParams = tool.getParameters() != null && !tool.getParameters().isEmpty();
-        int entryCount = 0;
-
-        // Existing parameter entries (query/path)
-        if (hasParams) {
-            for (int idx = 0; idx < tool.getParameters().size(); idx++) {
-                DynamicToolDefinition.ToolParameter param = tool.getParameters().get(idx);
-                sb.append("    \"").append(param.getName()).append("\": {\n");
-                sb.append("      \"type\": \"").append(jsonTypeFor(param.getType())).append("\"");
-                if (param.getDescription() != null && !param.getDescription().isEmpty()) {
-                    sb.append(",\n      \"description\": \"").append(param.getDescription().replace("\"", "\\\"")).append("\"");
+    @EventListener
+    public void onToolDefinitionsChanged(ToolDefinitionsChangedEvent event) {
+        McpAsyncServer server = mcpServer.getIfAvailable();
+        if (server == null || lazyExposure()) {
+            return;
+        }
+        ToolSetDiff diff = event.diff();
+        Flux.concat(
+                Flux.fromIterable(diff.removed()).map(tool -> server.removeTool(tool.getId())),
+                Flux.fromIterable(diff.changed()).map(tool -> server.removeTool(tool.getId())
+                        .then(server.addTool(toToolSpecification(tool)))),
+                Flux.fromIterable(diff.added()).map(tool -> server.addTool(toToolSpecification(tool))))
+            .concatMap(change -> change.onErrorResume(e -> {
+                log.warn("Could not apply MCP tool change: {}", e.getMessage());
+                return Mono.empty();
+            }))
+            .then()
+            .subscribe(null,
+                e -> log.error("Applying MCP tool changes for source '{}' failed: {}", event.source(), e.getMessage(), e),
+                () -> log.info("Applied MCP tool changes {} for source '{}'", diff, event.source()));
+    }
+
+    /**
+     * Wraps a tool definition as a non-blocking MCP tool. Failures are reported back to the
+     * client as an error result rather than propagated, matching the message the previous
+     * blocking callback produced.
+     */
+    private McpServerFeatures.AsyncToolSpecification toToolSpecification(DynamicToolDefinition toolDef) {
+        McpSchema.Tool tool = new McpSchema.Tool(
+                toolDef.getId(),
+                toolDef.getSummary() != null
+                    ? toolDef.getSummary()
+                    : toolDef.getMethod() + " " + toolDef.getPath(),
+                buildInputJsonSchema(toolDef));
+
+        return new McpServerFeatures.AsyncToolSpecification(tool, (exchange, argumentMap) -> invokeTool(toolDef, argumentMap));
+    }
+
+    private Mono<McpSchema.CallToolResult> invokeTool(DynamicToolDefinition toolDef, Map<String, Object> argumentMap) {
+        log.debug("Invoking tool {}", toolDef.getId());
+        Map<String, Object> arguments = argumentMap != null ? argumentMap : Map.of();
+        return Mono.defer(() -> requestCoalescer.invoke(toolDef, arguments))
+            .defaultIfEmpty("")
+            .map(result -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(result)), false))
+            .onErrorResume(e -> {
+                if (AccessLog.isExpectedFailure(e)) {
+                    log.debug("Error invoking tool {}: {}", toolDef.getId(), e.getMessage());
+                } else {
+                    log.error("Error invoking tool {}: {}", toolDef.getId(), e.getMessage(), e);
+                }
+                if (e instanceof RateLimitExceededException) {
+                    return Mono.just(errorResult("Tool call '" + toolDef.getId() + "' was throttled. " + e.getMessage() + "."));
                 }
-                sb.append("\n    }");
-                entryCount++;
-                if (idx < tool.getParameters().size() - 1) sb.append(",");
-                sb.append("\n");
+                String message = "Tool invocation failed for '" + toolDef.getId() + "'. Reason: " + e.getMessage()
+                        + ". Please check your input and try again.";
+                return Mono.just(new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(message)), true));
+            });
+    }
+
+    /**
+     * The search_tools tool: ranks the tools against a keyword query and returns the best matches
+     * as a JSON array of id, method, path, summary and score, without their schemas.
+     */
+    private McpServerFeatures.AsyncToolSpecification searchToolSpecification() {
+        ObjectNode schema = JSON.createObjectNode().put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("query").put("type", "string")
+                .put("description", "Keywords describing the operation, e.g. 'find pets by status' or 'create invoice'");
+        properties.putObject("limit").put("type", "integer").put("minimum", 1).put("maximum", searchConfig.getMaxResults())
+                .put("description", "Number of results (default " + searchConfig.getDefaultResults() + ")");
+        schema.putArray("required").add("query");
+        schema.put("additionalProperties", false);
+        McpSchema.Tool tool = new McpSchema.Tool(SEARCH_TOOL,
+                "Search the API operations of this server by keywords. Returns the best matching tool ids with "
+                    + "method, path and summary; call " + DESCRIBE_TOOL + " for a tool's input schema"
+                    + (lazyExposure() ? " and " + INVOKE_TOOL + " to call it." : "."),
+                writeSchema(schema, SEARCH_TOOL));
+
+        return new McpServerFeatures.AsyncToolSpecification(tool, (exchange, argumentMap) -> {
+            Object query = argumentMap != null ? argumentMap.get("query") : null;
+            if (query == null || query.toString().isBlank()) {
+                return Mono.just(errorResult("A search needs a query"));
             }
-        }
+            int limit = searchLimit(argumentMap.get("limit"));
+            return Mono.fromCallable(() -> JSON.writeValueAsString(toolIndex.search(query.toString(), limit)))
+                .map(hits -> new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(hits)), false));
+        });
+    }
+
+    /**
+     * The describe_tool tool: a tool's id, method, path, summary and full input schema, for
+     * clients that found it through search_tools.
+     */
+    private McpServerFeatures.AsyncToolSpecification describeToolSpecification() {
+        ObjectNode schema = JSON.createObjectNode().put("type", "object");
+        schema.putObject("properties").putObject("toolId").put("type", "string").put("description", "Id of the tool");
+        schema.putArray("required").add("toolId");
+        schema.put("additionalProperties", false);
+        McpSchema.Tool tool = new McpSchema.Tool(DESCRIBE_TOOL,
+                "Describe one tool: its method, path, summary and the JSON schema of its arguments.",
+                writeSchema(schema, DESCRIBE_TOOL));
+
+        return new McpServerFeatures.AsyncToolSpecification(tool, (exchange, argumentMap) -> {
+            Object toolId = argumentMap != null ? argumentMap.get("toolId") : null;
+            DynamicToolDefinition toolDef = toolId != null ? toolRegistry.get(toolId.toString()) : null;
+            if (toolDef == null) {
+                return Mono.just(errorResult("No tool with id: " + toolId));
+            }
+            return Mono.fromCallable(() -> {
+                ObjectNode description = JSON.createObjectNode()
+                        .put("id", toolDef.getId())
+                        .put("method", String.valueOf(toolDef.getMethod()).toUpperCase())
+                        .put("path", toolDef.getPath());
+                if (toolDef.getSummary() != null) {
+                    description.put("summary", toolDef.getSummary());
+                }
+                description.set("inputSchema", inputSchema(toolDef));
+                return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(JSON.writeValueAsString(description))), false);
+            });
+        });
+    }
+
+    /** The invoke_tool tool of lazy exposure: calls any tool by id, as its own MCP tool would. */
+    private McpServerFeatures.AsyncToolSpecification invokeToolSpecification() {
+        ObjectNode schema = JSON.createObjectNode().put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        properties.putObject("toolId").put("type", "string").put("description", "Id of the tool to call, from " + SEARCH_TOOL);
+        properties.putObject("params").put("type", "object")
+                .put("description", "Arguments of the tool, as described by " + DESCRIBE_TOOL);
+        schema.putArray("required").add("toolId");
+        schema.put("additionalProperties", false);
+        McpSchema.Tool tool = new McpSchema.Tool(INVOKE_TOOL,
+                "Call one of the tools found with " + SEARCH_TOOL + " with its arguments.",
+                writeSchema(schema, INVOKE_TOOL));
 
-        // Detect and inject schema for requestBody endpoints
-        if (tool.hasRequestBody()) {
-            if (entryCount > 0) sb.append(",\n");
-            sb.append("    \"body\": {\n");
-            sb.append("      \"type\": \"object\",\n");
-            sb.append("      \"description\": \"JSON payload body (see API spec for fields)\"\n");
-            sb.append("    }\n");
+        return new McpServerFeatures.AsyncToolSpecification(tool, (exchange, argumentMap) -> {
+            Object toolId = argumentMap != null ? argumentMap.get("toolId") : null;
+            DynamicToolDefinition toolDef = toolId != null ? toolRegistry.get(toolId.toString()) : null;
+            if (toolDef == null) {
+                return Mono.just(errorResult("No tool with id: " + toolId + ". Use " + SEARCH_TOOL + " to find tools."));
+            }
+            Object params = argumentMap.get("params");
+            if (params != null && !(params instanceof Map)) {
+                return Mono.just(errorResult("params must be an object"));
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> arguments = (Map<String, Object>) params;
+            return invokeTool(toolDef, arguments);
+        });
+    }
+
+    private boolean lazyExposure() {
+        return searchConfig.getExposure() == ToolSearchConfig.Exposure.LAZY;
+    }
+
+    private int searchLimit(Object requested) {
+        if (requested instanceof Number number && number.intValue() > 0) {
+            return Math.min(number.intValue(), searchConfig.getMaxResults());
         }
+        return Math.min(searchConfig.getDefaultResults(), searchConfig.getMaxResults());
+    }
 
-        sb.append("  },\n");
+    /**
+     * The batch_invoke tool: runs several of the other tools concurrently and returns one JSON
+     * array with a result per call, in request order. The result is only flagged as an error when
+     * every call failed, so clients can use the calls that succeeded.
+     */
+    private McpServerFeatures.AsyncToolSpecification batchToolSpecification() {
+        McpSchema.Tool tool = new McpSchema.Tool(
+                BATCH_TOOL,
+                "Invoke several tools concurrently (at most " + batchConfig.getMaxCalls() + " calls). "
+                    + "Returns a JSON array with one result per call: index, toolId, ok, result or error.",
+                buildBatchInputJsonSchema());
+
+        return new McpServerFeatures.AsyncToolSpecification(tool, (exchange, argumentMap) -> {
+            BatchRequest request;
+            try {
+                request = JSON.convertValue(argumentMap != null ? argumentMap : Map.of(), BatchRequest.class);
+            } catch (IllegalArgumentException e) {
+                return Mono.just(errorResult("Invalid batch: " + e.getMessage()));
+            }
+            return batchInvoker.invoke(request)
+                .collectSortedList(Comparator.comparingInt(BatchResult::index))
+                .map(results -> {
+                    try {
+                        boolean allFailed = results.stream().noneMatch(BatchResult::ok);
+                        return new McpSchema.CallToolResult(
+                                List.of(new McpSchema.TextContent(JSON.writeValueAsString(results))), allFailed);
+                    } catch (JsonProcessingException e) {
+                        throw new RuntimeException("Could not write batch results", e);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error("Error invoking batch: {}", e.getMessage(), e);
+                    return Mono.just(errorResult("Batch invocation failed. Reason: " + e.getMessage()));
+                });
+        });
+    }
 
-        // Mark required parameters (including body if needed)
-        List<String> required = new java.util.ArrayList<>();
-        if (hasParams) {
+    private static McpSchema.CallToolResult errorResult(String message) {
+        return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(message)), true);
+    }
+
+    private String buildBatchInputJsonSchema() {
+        ObjectNode schema = JSON.createObjectNode().put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        ObjectNode calls = properties.putObject("calls")
+                .put("type", "array")
+                .put("minItems", 1)
+                .put("maxItems", batchConfig.getMaxCalls())
+                .put("description", "The tool calls to make");
+        ObjectNode call = calls.putObject("items").put("type", "object");
+        ObjectNode callProperties = call.putObject("properties");
+        callProperties.putObject("toolId").put("type", "string").put("description", "Id of the tool to call");
+        callProperties.putObject("params").put("type", "object").put("description", "Arguments of the tool");
+        call.putArray("required").add("toolId");
+        properties.putObject("parallelism")
+                .put("type", "integer")
+                .put("minimum", 1)
+                .put("maximum", batchConfig.getParallelism())
+                .put("description", "Maximum number of calls in flight at a time");
+        properties.putObject("timeoutMs")
+                .put("type", "integer")
+                .put("minimum", 1)
+                .put("description", "Timeout of each call in milliseconds");
+        schema.putArray("required").add("calls");
+        schema.put("additionalProperties", false);
+        return writeSchema(schema, BATCH_TOOL);
+    }
+
+    /**
+     * Builds the JSON schema of a tool's input: one property per parameter, using the schema
+     * rendered at discovery (nested objects, arrays, enums, formats, required fields) where there
+     * is one and the parameter's simple type otherwise.
+     */
+    public String buildInputJsonSchema(DynamicToolDefinition tool) {
+        return writeSchema(inputSchema(tool), tool.getId());
+    }
+
+    private ObjectNode inputSchema(DynamicToolDefinition tool) {
+        ObjectNode schema = JSON.createObjectNode().put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        Set<String> required = new LinkedHashSet<>();
+        if (tool.getParameters() != null) {
             for (DynamicToolDefinition.ToolParameter param : tool.getParameters()) {
-                if (param.isRequired()) required.add('"' + param.getName() + '"');
+                properties.set(param.getName(), propertySchema(param));
+                if (param.isRequired()) {
+                    required.add(param.getName());
+                }
             }
         }
-        if (tool.hasRequestBody()) {
-            required.add("\"body\"");
+        // Continuation argument for results cut at swagger.response.max-bytes
+        if (responseLimits.isPagination()) {
+            properties.putObject(BoundedBodyReader.OFFSET_PARAM)
+                    .put("type", "integer")
+                    .put("description", "Byte offset to continue a truncated response from");
+        }
+        // Shaping of JSON results, see ResponseShaper
+        if (responseShaping.isArguments()) {
+            properties.putObject(ResponseShaper.FIELDS_PARAM)
+                    .put("type", "array")
+                    .put("description", "Only return these fields of a JSON result, e.g. [\"id\", \"items[*].name\"]")
+                    .putObject("items").put("type", "string");
+            properties.putObject(ResponseShaper.MAX_ITEMS_PARAM)
+                    .put("type", "integer")
+                    .put("minimum", 0)
+                    .put("description", "Return at most this many items of each array in a JSON result");
+            properties.putObject(ResponseShaper.CURSOR_PARAM)
+                    .put("type", "string")
+                    .put("description", "Continue a cut array from the cursor given in a previous result");
         }
         if (!required.isEmpty()) {
-            sb.append("  \"required\": [").append(String.join(", ", required)).append("],\n");
+            ArrayNode names = schema.putArray("required");
+            required.forEach(names::add);
         }
+        schema.put("additionalProperties", false);
+        return schema;
+    }
+
+    private static String writeSchema(JsonNode schema, String toolId) {
+        try {
+            return JSON.writeValueAsString(schema);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not write input schema of tool " + toolId, e);
+        }
+    }
 
-        sb.append("  \"additionalProperties\": false\n");
-        sb.append("}\n");
-        return sb.toString();
+    private ObjectNode propertySchema(DynamicToolDefinition.ToolParameter param) {
+        // Shallow copy: rendered schemas are shared between tools and must not be modified
+        ObjectNode property = JSON.createObjectNode();
+        if (param.getSchema() instanceof ObjectNode rendered) {
+            property.setAll(rendered);
+        }
+        if (!property.has("type") && !property.has("allOf") && !property.has("anyOf") && !property.has("oneOf")) {
+            property.put("type", jsonTypeFor(param.getType()));
+        }
+        if (param.getDescription() != null && !param.getDescription().isEmpty()) {
+            property.put("description", param.getDescription());
+        }
+        return property;
     }
 
     /**
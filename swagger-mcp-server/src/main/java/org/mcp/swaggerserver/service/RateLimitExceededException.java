@@ -0,0 +1,27 @@
+package org.mcp.swaggerserver.service;
+
+import java.time.Duration;
+
+/**
+ * A tool call was rejected without being sent because its client or its tool used up its rate
+ * limit. {@link #getRetryAfter()} is when the next call will be allowed.
+ */
+public class RateLimitExceededException extends RuntimeException {
+
+    private final String clientId;
+    private final Duration retryAfter;
+
+    public RateLimitExceededException(String clientId, Duration retryAfter, String message) {
+        super(message);
+        this.clientId = clientId;
+        this.retryAfter = retryAfter;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,81 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.mcp.swaggerserver.config.CoalescingConfig;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+
+/**
+ * Single-flight layer in front of {@link EndpointInvokerService}, shared by the REST controller
+ * and the MCP tool handlers. Calls pass the {@link ClientRateLimiter} first, so joined calls count
+ * against their client's limit as well.
+ *
+ * Concurrent calls of the same tool with the same arguments (see {@link RequestKey}) share one
+ * upstream request while it is in flight, for the HTTP methods listed in
+ * {@code swagger.coalescing.methods}. Per-tool outcomes are counted as
+ * {@code swagger.coalescing.requests{tool, result=leader|joined}}.
+ */
+@Service
+public class RequestCoalescer {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    private final EndpointInvokerService endpointInvokerService;
+    private final ClientRateLimiter rateLimiter;
+    private final CoalescingConfig config;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<String, String> inFlight = new SingleFlight<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(EndpointInvokerService endpointInvokerService, ClientRateLimiter rateLimiter,
+                            CoalescingConfig config, MeterRegistry meterRegistry) {
+        this.endpointInvokerService = endpointInvokerService;
+        this.rateLimiter = rateLimiter;
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("swagger.coalescing.in.flight", inFlight, SingleFlight::inFlightCount).register(meterRegistry);
+    }
+
+    public Mono<String> invoke(DynamicToolDefinition tool, Map<String, Object> inputParams) {
+        return rateLimiter.limit(tool, Mono.defer(() -> coalesced(tool, inputParams)));
+    }
+
+    private Mono<String> coalesced(DynamicToolDefinition tool, Map<String, Object> inputParams) {
+        if (!isCoalescable(tool)) {
+            return endpointInvokerService.invokeEndpoint(tool, inputParams);
+        }
+        return Mono.deferContextual(context -> {
+            String key = RequestKey.of(tool, inputParams, context);
+            return inFlight.execute(key,
+                    () -> {
+                        counter(tool, "leader").increment();
+                        return endpointInvokerService.invokeEndpoint(tool, inputParams);
+                    },
+                    () -> {
+                        counter(tool, "joined").increment();
+                        log.debug("Joined in-flight call {}", key);
+                    });
+        });
+    }
+
+    private boolean isCoalescable(DynamicToolDefinition tool) {
+        return config.isEnabled() && tool.getMethod() != null
+                && config.getMethods().stream().anyMatch(method -> method.equalsIgnoreCase(tool.getMethod()));
+    }
+
+    private Counter counter(DynamicToolDefinition tool, String result) {
+        return counters.computeIfAbsent(tool.getId() + '|' + result, k -> Counter.builder("swagger.coalescing.requests")
+                .tag("tool", tool.getId())
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
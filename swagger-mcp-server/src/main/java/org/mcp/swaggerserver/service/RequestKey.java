@@ -0,0 +1,57 @@
+package org.mcp.swaggerserver.service;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+
+import reactor.util.context.ContextView;
+
+/**
+ * Normalized identity of a tool call: the tool id plus the path/query arguments (and request
+ * body, if any) that actually reach the upstream, plus the result paging and shaping arguments,
+ * in name order. Arguments the invoker ignores do not split the key; REST calls, which must not
+ * be truncated, do (see {@link BoundedBodyReader#REJECT_TRUNCATED}).
+ */
+public final class RequestKey {
+
+    private static final String[] CONTROL_PARAMS = {BoundedBodyReader.OFFSET_PARAM, ResponseShaper.FIELDS_PARAM,
+            ResponseShaper.MAX_ITEMS_PARAM, ResponseShaper.CURSOR_PARAM};
+
+    private RequestKey() {}
+
+    /** The key of a call running with {@code context}. */
+    public static String of(DynamicToolDefinition tool, Map<String, Object> inputParams, ContextView context) {
+        String key = of(tool, inputParams);
+        return BoundedBodyReader.rejectsTruncated(context) ? key + "#untruncated" : key;
+    }
+
+    public static String of(DynamicToolDefinition tool, Map<String, Object> inputParams) {
+        TreeMap<String, String> significant = new TreeMap<>();
+        if (tool.getParameters() != null) {
+            for (DynamicToolDefinition.ToolParameter param : tool.getParameters()) {
+                String in = param.getInType();
+                if (("path".equals(in) || "query".equals(in)) && inputParams.containsKey(param.getName())) {
+                    significant.put(param.getName(), String.valueOf(inputParams.get(param.getName())));
+                }
+            }
+        }
+        if (tool.hasRequestBody() && inputParams.get("body") != null) {
+            significant.put("body", String.valueOf(inputParams.get("body")));
+        }
+        // Result paging and shaping arguments change the result, not the upstream request
+        for (String control : CONTROL_PARAMS) {
+            Object value = inputParams.get(control);
+            if (value != null) {
+                significant.put(control, value.toString());
+            }
+        }
+        // Encoded like a query string so values containing separators cannot collide
+        StringBuilder key = new StringBuilder(tool.getId()).append('?');
+        significant.forEach((name, value) -> key.append(name).append('=')
+                .append(URLEncoder.encode(value, StandardCharsets.UTF_8)).append('&'));
+        return key.toString();
+    }
+}
@@ -0,0 +1,424 @@
+package org.mcp.swaggerserver.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.mcp.swaggerserver.config.ResponseShapingConfig;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+/**
+ * How a tool's JSON results are shaped: the fields to keep, the cap on the items of each array
+ * and the array position a continued call resumes at. Built once per tool from its configuration
+ * and narrowed per call by the "_fields", "_maxItems" and "_cursor" arguments.
+ *
+ * Shaping runs on the upstream bytes as they arrive (see {@link BoundedBodyReader}): each buffer
+ * is fed to a non-blocking Jackson parser and the kept tokens are written straight out, so no
+ * document tree is built and memory does not grow with the upstream body. Results that only need
+ * compacting skip the parser and just drop the whitespace outside strings.
+ */
+public final class ResponseShaper {
+
+    /** Tool argument listing the field paths to keep, e.g. ["id", "owner.name", "$.items[*].id"]. */
+    public static final String FIELDS_PARAM = "_fields";
+    /** Tool argument capping the items of every array in the result. */
+    public static final String MAX_ITEMS_PARAM = "_maxItems";
+    /** Tool argument continuing a cut array, as given in the result's note, e.g. "$.items:20". */
+    public static final String CURSOR_PARAM = "_cursor";
+
+    private static final JsonFactory JSON = new JsonFactory();
+
+    private final FieldNode fields;
+    private final int maxItems;
+    private final Cursor cursor;
+    private final boolean compact;
+
+    private ResponseShaper(FieldNode fields, int maxItems, Cursor cursor, boolean compact) {
+        this.fields = fields;
+        this.maxItems = maxItems;
+        this.cursor = cursor;
+        this.compact = compact;
+    }
+
+    public static ResponseShaper forTool(String toolId, ResponseShapingConfig config) {
+        ResponseShapingConfig.ToolShaping tool = config.getTools().get(toolId);
+        int maxItems = tool != null && tool.getMaxItems() != null ? tool.getMaxItems() : config.getMaxItems();
+        return new ResponseShaper(FieldNode.of(tool != null ? tool.getFields() : null), Math.max(0, maxItems), null,
+                config.isCompact());
+    }
+
+    /** This shaping with the call's shaping arguments applied; the same instance when there are none. */
+    public ResponseShaper withArguments(Map<String, Object> arguments) {
+        Object fieldsArgument = arguments.get(FIELDS_PARAM);
+        Object maxItemsArgument = arguments.get(MAX_ITEMS_PARAM);
+        Object cursorArgument = arguments.get(CURSOR_PARAM);
+        if (fieldsArgument == null && maxItemsArgument == null && cursorArgument == null) {
+            return this;
+        }
+        return new ResponseShaper(
+                fieldsArgument != null ? FieldNode.of(fieldList(fieldsArgument)) : fields,
+                maxItemsArgument != null ? nonNegative(maxItemsArgument) : maxItems,
+                cursorArgument != null ? Cursor.parse(cursorArgument.toString()) : null,
+                compact);
+    }
+
+    /** Whether results are rewritten at all; if not, the upstream bytes are returned as they are. */
+    public boolean isActive() {
+        return compact || restructures();
+    }
+
+    private boolean restructures() {
+        return fields != null || maxItems > 0 || cursor != null;
+    }
+
+    /** Starts shaping one JSON body; the shaped result is written to {@code out}. */
+    Transform open(OutputStream out) {
+        return restructures() ? new JsonShaper(this, out) : new WhitespaceStripper(out);
+    }
+
+    /** One body being shaped, fed buffer by buffer. */
+    interface Transform {
+        /** Shapes the next {@code length} bytes; may overwrite them. */
+        void write(byte[] bytes, int length) throws IOException;
+
+        void finish() throws IOException;
+
+        /** A note on the arrays that were cut, to append to the result, or null. */
+        String notes();
+    }
+
+    private static List<String> fieldList(Object value) {
+        if (value instanceof List<?> list) {
+            return list.stream().map(String::valueOf).toList();
+        }
+        if (value instanceof String text) {
+            return Arrays.asList(text.split(","));
+        }
+        throw new IllegalArgumentException(FIELDS_PARAM + " must be a list of field paths, got: " + value);
+    }
+
+    private static int nonNegative(Object value) {
+        try {
+            return Math.max(0, value instanceof Number n ? n.intValue() : Integer.parseInt(value.toString().trim()));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(MAX_ITEMS_PARAM + " must be a non-negative integer, got: " + value);
+        }
+    }
+
+    /**
+     * The kept fields as a tree of names. Arrays are transparent: a path names the fields of the
+     * array's items. A node that ends a path keeps everything below it.
+     */
+    private static final class FieldNode {
+        private static final FieldNode ALL = new FieldNode(true);
+
+        private final Map<String, FieldNode> children = new HashMap<>();
+        private FieldNode wildcard;
+        private boolean all;
+
+        private FieldNode(boolean all) {
+            this.all = all;
+        }
+
+        /** Null if no paths are given, i.e. every field is kept. */
+        static FieldNode of(List<String> paths) {
+            if (paths == null) {
+                return null;
+            }
+            FieldNode root = new FieldNode(false);
+            boolean any = false;
+            for (String path : paths) {
+                String names = normalize(path);
+                if (names == null) {
+                    continue;
+                }
+                if (names.isEmpty()) {
+                    return null; // "$" keeps the whole document
+                }
+                FieldNode node = root;
+                for (String name : names.split("\\.", -1)) {
+                    if (name.isEmpty()) {
+                        throw new IllegalArgumentException("Invalid field path in " + FIELDS_PARAM + ": " + path);
+                    }
+                    node = node.descend(name);
+                }
+                node.all = true;
+                any = true;
+            }
+            return any ? root : null;
+        }
+
+        /** Dotted field names of a path without "$" and array selectors; null for a blank path. */
+        private static String normalize(String path) {
+            String names = path.trim();
+            if (names.isEmpty()) {
+                return null;
+            }
+            if (names.startsWith("$")) {
+                names = names.substring(1);
+            }
+            names = names.replace("[*]", "").replace("[]", "");
+            if (names.startsWith(".")) {
+                names = names.substring(1);
+            }
+            if (names.indexOf('[') >= 0 || names.indexOf(']') >= 0) {
+                throw new IllegalArgumentException("Unsupported field path in " + FIELDS_PARAM
+                        + " (only names, '.', '*' and '[*]'): " + path);
+            }
+            return names;
+        }
+
+        private FieldNode descend(String name) {
+            if ("*".equals(name)) {
+                return wildcard != null ? wildcard : (wildcard = new FieldNode(false));
+            }
+            return children.computeIfAbsent(name, key -> new FieldNode(false));
+        }
+
+        /** The node for a member of an object at this node; null if the member is left out. */
+        FieldNode child(String name) {
+            if (all) {
+                return ALL;
+            }
+            FieldNode child = children.get(name);
+            return child != null ? child : wildcard;
+        }
+    }
+
+    /** Where a continued array resumes: its path from the root and the index of its first item. */
+    private record Cursor(String path, int index) {
+
+        static Cursor parse(String value) {
+            int colon = value.lastIndexOf(':');
+            if (colon > 0 && value.startsWith("$")) {
+                try {
+                    int index = Integer.parseInt(value.substring(colon + 1).trim());
+                    if (index >= 0) {
+                        return new Cursor(value.substring(0, colon), index);
+                    }
+                } catch (NumberFormatException e) {
+                    // reported below
+                }
+            }
+            throw new IllegalArgumentException(CURSOR_PARAM + " must be a cursor from a previous result, e.g. \"$.items:20\", got: "
+                    + value);
+        }
+    }
+
+    /** Removes the whitespace outside of strings; never fails on malformed JSON. */
+    private static final class WhitespaceStripper implements Transform {
+        private final OutputStream out;
+        private boolean inString;
+        private boolean escaped;
+
+        WhitespaceStripper(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(byte[] bytes, int length) throws IOException {
+            int kept = 0;
+            for (int i = 0; i < length; i++) {
+                byte b = bytes[i];
+                if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (b == '\\') {
+                        escaped = true;
+                    } else if (b == '"') {
+                        inString = false;
+                    }
+                } else if (b == '"') {
+                    inString = true;
+                } else if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                    continue;
+                }
+                bytes[kept++] = b;
+            }
+            out.write(bytes, 0, kept);
+        }
+
+        @Override
+        public void finish() {}
+
+        @Override
+        public String notes() {
+            return null;
+        }
+    }
+
+    /** An object or array being copied, with the fields kept below it. */
+    private static final class Frame {
+        final boolean array;
+        final FieldNode node;
+        // From the root through object members only; null inside an array item, where no cursor applies
+        final String path;
+        final int start;
+        final int end;
+        int count;
+
+        Frame(boolean array, FieldNode node, String path, int start, int end) {
+            this.array = array;
+            this.node = node;
+            this.path = path;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /** Copies the kept tokens of the body, leaving out unselected fields and the items past each array's cap. */
+    private static final class JsonShaper implements Transform {
+        private final ResponseShaper shape;
+        private final JsonParser parser;
+        private final ByteArrayFeeder feeder;
+        private final JsonGenerator out;
+        private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+        private int skipDepth;
+        private String fieldName;
+        private FieldNode fieldNode;
+        private String continuation;
+        private int otherCuts;
+
+        JsonShaper(ResponseShaper shape, OutputStream target) {
+            this.shape = shape;
+            try {
+                this.parser = JSON.createNonBlockingByteArrayParser();
+                this.out = JSON.createGenerator(target);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        @Override
+        public void write(byte[] bytes, int length) throws IOException {
+            feeder.feedInput(bytes, 0, length);
+            drain();
+            out.flush();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            feeder.endOfInput();
+            drain();
+            out.close();
+            parser.close();
+        }
+
+        private void drain() throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                copy(token);
+            }
+        }
+
+        private void copy(JsonToken token) throws IOException {
+            if (skipDepth > 0) {
+                if (token.isStructStart()) {
+                    skipDepth++;
+                } else if (token.isStructEnd()) {
+                    skipDepth--;
+                }
+                return;
+            }
+            Frame frame = frames.peek();
+            if (token == JsonToken.FIELD_NAME) {
+                fieldName = parser.currentName();
+                fieldNode = frame.node.child(fieldName);
+                return;
+            }
+            if (token.isStructEnd()) {
+                frames.pop();
+                if (frame.array) {
+                    noteCut(frame);
+                    out.writeEndArray();
+                } else {
+                    out.writeEndObject();
+                }
+                return;
+            }
+            // A value: the root, an array item or an object member
+            FieldNode node;
+            String path;
+            if (frame == null) {
+                node = shape.fields != null ? shape.fields : FieldNode.ALL;
+                path = "$";
+            } else if (frame.array) {
+                int index = frame.count++;
+                node = index >= frame.start && index < frame.end ? frame.node : null;
+                path = null;
+            } else {
+                node = fieldNode;
+                path = frame.path != null ? frame.path + "." + fieldName : null;
+            }
+            // Scalars are only kept where a path ends, not on the way to deeper fields
+            if (node == null || (frame != null && !node.all && !token.isStructStart())) {
+                if (token.isStructStart()) {
+                    skipDepth = 1;
+                }
+                return;
+            }
+            if (frame != null && !frame.array) {
+                out.writeFieldName(fieldName);
+            }
+            if (token == JsonToken.START_OBJECT) {
+                out.writeStartObject();
+                frames.push(new Frame(false, node, path, 0, Integer.MAX_VALUE));
+            } else if (token == JsonToken.START_ARRAY) {
+                out.writeStartArray();
+                int start = shape.cursor != null && shape.cursor.path().equals(path) ? shape.cursor.index() : 0;
+                int end = shape.maxItems > 0 ? (int) Math.min(Integer.MAX_VALUE, (long) start + shape.maxItems) : Integer.MAX_VALUE;
+                frames.push(new Frame(true, node, path, start, end));
+            } else {
+                out.copyCurrentEventExact(parser);
+            }
+        }
+
+        /** Describes the first cut or continued array a cursor can address, and counts the others. */
+        private void noteCut(Frame frame) {
+            boolean cut = frame.count > frame.end;
+            if (!cut && frame.start == 0) {
+                return;
+            }
+            if (frame.path == null || continuation != null) {
+                otherCuts++;
+                return;
+            }
+            if (frame.start >= frame.count) {
+                continuation = "Array " + frame.path + " has " + frame.count + " items, none from " + frame.start + " on.";
+                return;
+            }
+            int shownEnd = Math.min(frame.count, frame.end);
+            continuation = "Array " + frame.path + ": items " + frame.start + "-" + shownEnd + " of " + frame.count + " shown."
+                    + (cut ? " Call again with \"" + CURSOR_PARAM + "\": \"" + frame.path + ":" + frame.end
+                            + "\" for the next items." : "");
+        }
+
+        @Override
+        public String notes() {
+            if (continuation == null && otherCuts == 0) {
+                return null;
+            }
+            StringBuilder notes = new StringBuilder("[");
+            if (continuation != null) {
+                notes.append(continuation);
+            }
+            if (otherCuts > 0) {
+                notes.append(continuation != null ? " " : "").append(otherCuts)
+                        .append(otherCuts == 1 ? " other array was" : " other arrays were")
+                        .append(" cut to ").append(shape.maxItems).append(" items.");
+            }
+            return notes.append(']').toString();
+        }
+    }
+}
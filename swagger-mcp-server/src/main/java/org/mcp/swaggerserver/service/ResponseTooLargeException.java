@@ -0,0 +1,20 @@
+package org.mcp.swaggerserver.service;
+
+/**
+ * The upstream body of a REST tool call did not fit into swagger.response.max-bytes. Unlike MCP
+ * results, REST results are not truncated; the whole body is available from
+ * /tools/{id}/invoke/stream.
+ */
+public class ResponseTooLargeException extends RuntimeException {
+
+    private final int maxBytes;
+
+    public ResponseTooLargeException(int maxBytes) {
+        super("The response is larger than swagger.response.max-bytes (" + maxBytes + " bytes)");
+        this.maxBytes = maxBytes;
+    }
+
+    public int getMaxBytes() {
+        return maxBytes;
+    }
+}
@@ -0,0 +1,48 @@
+package org.mcp.swaggerserver.service;
+
+import org.mcp.swaggerserver.config.ResilienceConfig;
+
+/**
+ * Caps the retries sent to one API source relative to its traffic: every call deposits
+ * {@code budget-ratio} retries, every retry withdraws one, and {@code budget-min-per-second}
+ * retries accrue over time so a quiet source can still retry. The balance is capped at ten
+ * seconds' worth of the minimum (at least ten retries), so a failing upstream gets a bounded
+ * burst of retries instead of a multiple of its load.
+ */
+final class RetryBudget {
+
+    private final double ratio;
+    private final double minPerMilli;
+    private final double cap;
+
+    // Guarded by this
+    private double balance;
+    private long refilledAtMillis = System.currentTimeMillis();
+
+    RetryBudget(ResilienceConfig.Retry config) {
+        this.ratio = config.getBudgetRatio();
+        this.minPerMilli = config.getBudgetMinPerSecond() / 1000;
+        this.cap = Math.max(10, config.getBudgetMinPerSecond() * 10);
+        this.balance = cap;
+    }
+
+    synchronized void deposit() {
+        refill();
+        balance = Math.min(cap, balance + ratio);
+    }
+
+    synchronized boolean tryWithdraw() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance--;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.currentTimeMillis();
+        balance = Math.min(cap, balance + (now - refilledAtMillis) * minPerMilli);
+        refilledAtMillis = now;
+    }
+}
@@ -0,0 +1,283 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Turns Swagger 2.0 / OpenAPI 3.x schema objects into self-contained JSON Schema for tool input
+ * schemas: local $refs are inlined, and only the keywords a client can act on (types, formats,
+ * enums, bounds, required properties, composition) are kept.
+ *
+ * Each referenced component is rendered once per spec and the same (read-only) node is shared by
+ * every tool that uses it, so large specs do not hold a copy of a schema per operation. Recursive
+ * references are cut with a plain object schema at the point they repeat, and a schema that would
+ * inline more than {@value #MAX_EXPANSIONS} components is replaced by a plain object schema as a
+ * whole. Safe for concurrent use.
+ */
+public final class SchemaRenderer {
+
+    private static final JsonNodeFactory NODES = JsonNodeFactory.instance;
+    static final int MAX_EXPANSIONS = 1000;
+
+    /** Keywords copied as-is from the source schema. */
+    private static final Set<String> PLAIN_KEYWORDS = Set.of(
+            "type", "format", "title", "description", "enum", "const", "default", "pattern",
+            "minimum", "maximum", "exclusiveMinimum", "exclusiveMaximum", "multipleOf",
+            "minLength", "maxLength", "minItems", "maxItems", "uniqueItems", "minProperties", "maxProperties");
+    private static final Set<String> COMPOSITION_KEYWORDS = Set.of("allOf", "anyOf", "oneOf");
+
+    private final Function<String, JsonNode> resolver;
+    private final Map<String, Rendered> rendered = new ConcurrentHashMap<>();
+
+    /** A rendered component and the number of component expansions it contains, itself included. */
+    private record Rendered(JsonNode schema, int expansions) {}
+
+    /**
+     * @param resolver looks up the raw component a local $ref points to; returns null if unknown
+     */
+    public SchemaRenderer(Function<String, JsonNode> resolver) {
+        this.resolver = resolver;
+    }
+
+    /** Renders a schema object; null if there is none. The result must not be modified. */
+    public JsonNode render(JsonNode schema) {
+        if (schema == null || schema.isMissingNode() || schema.isNull()) {
+            return null;
+        }
+        return renderBounded(schema);
+    }
+
+    /**
+     * Renders the schema keywords of a Swagger 2.0 non-body parameter, which declares type, format,
+     * enum and items on the parameter itself.
+     */
+    public JsonNode renderParameter(JsonNode parameter) {
+        ObjectNode schema = NODES.objectNode();
+        parameter.fields().forEachRemaining(field -> {
+            if (!"description".equals(field.getKey()) && !"required".equals(field.getKey())) {
+                schema.set(field.getKey(), field.getValue());
+            }
+        });
+        if ("file".equals(schema.path("type").asText())) {
+            schema.put("type", "string").put("format", "binary");
+        }
+        return renderBounded(schema);
+    }
+
+    /**
+     * Renders the schema of an OpenAPI 3 request body (already resolved if it was a $ref), taking
+     * the JSON media type if there is one and the first declared one otherwise.
+     */
+    public JsonNode renderRequestBody(JsonNode requestBody) {
+        JsonNode chosen = null;
+        boolean chosenJson = false;
+        Iterator<Map.Entry<String, JsonNode>> mediaTypes = requestBody.path("content").fields();
+        while (mediaTypes.hasNext()) {
+            Map.Entry<String, JsonNode> mediaType = mediaTypes.next();
+            if ("application/json".equals(mediaType.getKey())) {
+                chosen = mediaType.getValue();
+                break;
+            }
+            boolean json = mediaType.getKey().contains("json");
+            if (chosen == null || (json && !chosenJson)) {
+                chosen = mediaType.getValue();
+                chosenJson = json;
+            }
+        }
+        return chosen != null ? render(chosen.get("schema")) : null;
+    }
+
+    /** Renders Swagger 2.0 formData parameters as the properties of one object schema. */
+    public JsonNode renderFormParameters(List<JsonNode> parameters) {
+        ObjectNode schema = NODES.objectNode().put("type", "object");
+        ObjectNode properties = schema.putObject("properties");
+        ArrayNode required = NODES.arrayNode();
+        for (JsonNode parameter : parameters) {
+            String name = parameter.path("name").asText();
+            JsonNode property = renderParameter(parameter);
+            if (parameter.hasNonNull("description") && property instanceof ObjectNode object && !object.has("description")) {
+                property = object.deepCopy().put("description", parameter.get("description").asText());
+            }
+            properties.set(name, property);
+            if (parameter.path("required").asBoolean(false)) {
+                required.add(name);
+            }
+        }
+        if (!required.isEmpty()) {
+            schema.set("required", required);
+        }
+        return schema;
+    }
+
+    /**
+     * Makes identical schema subtrees of the given tools share one instance again, as they did
+     * when rendered; used after tools are deserialized from a snapshot, which copies them per tool.
+     */
+    public static void shareIdenticalSchemas(List<DynamicToolDefinition> tools) {
+        Map<JsonNode, JsonNode> canonical = new HashMap<>();
+        for (DynamicToolDefinition tool : tools) {
+            if (tool.getParameters() == null) {
+                continue;
+            }
+            for (DynamicToolDefinition.ToolParameter parameter : tool.getParameters()) {
+                if (parameter.getSchema() != null) {
+                    parameter.setSchema(canonical(parameter.getSchema(), canonical));
+                }
+            }
+        }
+    }
+
+    private static JsonNode canonical(JsonNode node, Map<JsonNode, JsonNode> canonical) {
+        if (node instanceof ObjectNode object) {
+            object.properties().forEach(field -> field.setValue(canonical(field.getValue(), canonical)));
+        } else if (node instanceof ArrayNode array) {
+            for (int i = 0; i < array.size(); i++) {
+                array.set(i, canonical(array.get(i), canonical));
+            }
+        } else {
+            return node;
+        }
+        JsonNode existing = canonical.putIfAbsent(node, node);
+        return existing != null ? existing : node;
+    }
+
+    private JsonNode renderBounded(JsonNode schema) {
+        try {
+            return render(schema, new RenderContext());
+        } catch (TooLargeException e) {
+            return NODES.objectNode().put("type", "object")
+                    .put("description", "Schema too large to inline, see the API documentation");
+        }
+    }
+
+    private JsonNode render(JsonNode schema, RenderContext context) {
+        if (!schema.isObject()) {
+            return schema; // boolean schemas
+        }
+        JsonNode ref = schema.get("$ref");
+        if (ref != null) {
+            return component(ref.asText(), context);
+        }
+
+        ObjectNode out = NODES.objectNode();
+        Iterator<Map.Entry<String, JsonNode>> fields = schema.fields();
+        while (fields.hasNext()) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String keyword = field.getKey();
+            JsonNode value = field.getValue();
+            if (PLAIN_KEYWORDS.contains(keyword)) {
+                out.set(keyword, value);
+            } else if (COMPOSITION_KEYWORDS.contains(keyword) && value.isArray()) {
+                ArrayNode variants = out.putArray(keyword);
+                value.forEach(variant -> variants.add(render(variant, context)));
+            } else if ("items".equals(keyword) || ("additionalProperties".equals(keyword) && value.isObject())) {
+                out.set(keyword, render(value, context));
+            } else if ("additionalProperties".equals(keyword) && value.isBoolean()) {
+                out.set(keyword, value);
+            }
+        }
+
+        JsonNode properties = schema.get("properties");
+        if (properties != null && properties.isObject()) {
+            ObjectNode renderedProperties = out.putObject("properties");
+            properties.fields().forEachRemaining(property -> {
+                // Server-generated properties are not part of an input
+                if (!property.getValue().path("readOnly").asBoolean(false)) {
+                    renderedProperties.set(property.getKey(), render(property.getValue(), context));
+                }
+            });
+            JsonNode required = schema.get("required");
+            if (required != null && required.isArray()) {
+                ArrayNode names = NODES.arrayNode();
+                required.forEach(name -> {
+                    if (renderedProperties.has(name.asText())) {
+                        names.add(name);
+                    }
+                });
+                if (!names.isEmpty()) {
+                    out.set("required", names);
+                }
+            }
+        } else if (schema.path("required").isArray()) {
+            out.set("required", schema.get("required"));
+        }
+
+        // OpenAPI 3.0 marks nullable values with a flag, JSON Schema with a "null" type
+        if (schema.path("nullable").asBoolean(false) && out.path("type").isTextual()) {
+            String type = out.get("type").asText();
+            out.putArray("type").add(type).add("null");
+        }
+        return out;
+    }
+
+    private JsonNode component(String ref, RenderContext context) {
+        Rendered cached = rendered.get(ref);
+        if (cached != null) {
+            context.count(cached.expansions());
+            return cached.schema();
+        }
+        if (context.path.contains(ref)) {
+            context.cut = true;
+            return NODES.objectNode().put("type", "object").put("description", "Recursive reference to " + ref);
+        }
+        JsonNode component = resolver.apply(ref);
+        if (component == null) {
+            return NODES.objectNode().put("type", "object").put("description", "Unresolved reference " + ref);
+        }
+
+        boolean outerCut = context.cut;
+        int outerExpansions = context.expansions;
+        int ownDepth = context.path.size();
+        context.cut = false;
+        context.count(1);
+        context.path.add(ref);
+        JsonNode result;
+        try {
+            result = render(component, context);
+        } finally {
+            context.path.remove(ownDepth);
+        }
+        // A rendering with a recursion cut depends on where the cycle was entered, so only
+        // acyclic renderings are shared; recursive ones are bounded by MAX_EXPANSIONS instead
+        if (!context.cut) {
+            Rendered existing = rendered.putIfAbsent(ref, new Rendered(result, context.expansions - outerExpansions));
+            result = existing != null ? existing.schema() : result;
+        }
+        context.cut |= outerCut;
+        return result;
+    }
+
+    private static final class RenderContext {
+        /** Components being rendered, outermost first. */
+        private final List<String> path = new ArrayList<>();
+        /** Whether a recursive reference was cut since the innermost component started. */
+        private boolean cut;
+        private int expansions;
+
+        void count(int components) {
+            expansions += components;
+            if (expansions > MAX_EXPANSIONS) {
+                throw new TooLargeException();
+            }
+        }
+    }
+
+    private static final class TooLargeException extends RuntimeException {
+        TooLargeException() {
+            super(null, null, false, false);
+        }
+    }
+}
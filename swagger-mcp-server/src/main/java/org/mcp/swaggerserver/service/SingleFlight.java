@@ -0,0 +1,50 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Shares one in-flight {@code Mono} among concurrent callers asking for the same key.
+ *
+ * The first caller for a key subscribes to the supplied call; callers arriving while it is still
+ * running receive the same result (value or error) instead of starting their own. The key is
+ * released as soon as the call terminates, so nothing is cached beyond the flight itself.
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, Mono<V>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Runs {@code call} unless an identical call is already in flight, in which case its result
+     * is shared and {@code onJoined} is invoked.
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> call, Runnable onJoined) {
+        return Mono.defer(() -> {
+            Mono<V> shared = inFlight.get(key);
+            if (shared != null) {
+                onJoined.run();
+                return shared;
+            }
+            AtomicReference<Mono<V>> self = new AtomicReference<>();
+            // cache() keeps the upstream call running for the other callers if one of them cancels
+            Mono<V> flight = Mono.defer(call)
+                    .doFinally(signal -> inFlight.remove(key, self.get()))
+                    .cache();
+            self.set(flight);
+            Mono<V> existing = inFlight.putIfAbsent(key, flight);
+            if (existing != null) {
+                onJoined.run();
+                return existing;
+            }
+            return flight;
+        });
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
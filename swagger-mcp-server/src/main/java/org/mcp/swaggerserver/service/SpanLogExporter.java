@@ -0,0 +1,72 @@
+package org.mcp.swaggerserver.service;
+
+import java.time.Instant;
+import java.util.Collection;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import io.opentelemetry.api.trace.SpanId;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+/**
+ * Writes every sampled span as one logfmt record to the {@code org.mcp.swaggerserver.trace}
+ * logger (../log/trace.log), for looking at traces without a collector, e.g.
+ * <pre>
+ * trace=4bf92f3577b34da6a3ce929d0e0e4736 span=00f067aa0ba902b7 parent=53995c3f42cd8ad8 name=wait start=2026-01-05T10:15:02.117Z durationMs=38.2 status=UNSET phase=wait source=petstore tool=getPetById
+ * </pre>
+ * Registered next to the OTLP exporter, if any, with swagger.tracing.log-spans=true.
+ */
+@Component
+@ConditionalOnProperty(prefix = "swagger.tracing", name = "log-spans", havingValue = "true")
+public class SpanLogExporter implements SpanExporter {
+
+    public static final String LOGGER = "org.mcp.swaggerserver.trace";
+    private static final Logger log = LoggerFactory.getLogger(LOGGER);
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        if (log.isInfoEnabled()) {
+            for (SpanData span : spans) {
+                log.info(format(span));
+            }
+        }
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static String format(SpanData span) {
+        StringBuilder line = new StringBuilder(256);
+        line.append("trace=").append(span.getTraceId());
+        line.append(" span=").append(span.getSpanId());
+        line.append(" parent=").append(SpanId.isValid(span.getParentSpanId()) ? span.getParentSpanId() : "-");
+        line.append(" name=");
+        AccessLog.appendValue(line, span.getName());
+        line.append(" start=").append(Instant.ofEpochSecond(0, span.getStartEpochNanos()));
+        line.append(" durationMs=").append((span.getEndEpochNanos() - span.getStartEpochNanos()) / 1000 / 1000.0);
+        line.append(" status=").append(span.getStatus().getStatusCode());
+        if (span.getStatus().getStatusCode() == StatusCode.ERROR && !span.getStatus().getDescription().isEmpty()) {
+            line.append(" error=");
+            AccessLog.appendValue(line, span.getStatus().getDescription());
+        }
+        span.getAttributes().forEach((key, value) -> {
+            line.append(' ').append(key.getKey()).append('=');
+            AccessLog.appendValue(line, String.valueOf(value));
+        });
+        return line.toString();
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+}
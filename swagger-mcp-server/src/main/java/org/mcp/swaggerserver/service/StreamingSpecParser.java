@@ -0,0 +1,421 @@
+package org.mcp.swaggerserver.service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.regex.Pattern;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+
+/**
+ * Single-pass tool discovery over the raw spec text (JSON or YAML), for Swagger 2.0 and
+ * OpenAPI 3.0/3.1 alike.
+ *
+ * The spec is read with a streaming token parser: the version is picked up from the top-level
+ * "swagger"/"openapi" field in the same pass, operations are turned into tools one path item at a
+ * time, and everything tools do not need (responses, examples) is skipped without being
+ * materialized. Only parameter and request body objects are read as small trees, so memory stays
+ * proportional to the number of operations rather than to the size of the document. Their schemas
+ * are rendered to JSON Schema by a {@link SchemaRenderer} shared by all tools of the spec.
+ *
+ * Components are only located during the pass and parsed when a $ref first needs them (see
+ * {@link ComponentIndex}). With more than one worker in the pool, the pass over a JSON spec only
+ * skims the paths, handing batches of path items to the pool so operations are read while the
+ * rest of the document is still being scanned; tools are then built in parallel once the pass is
+ * done, since components may follow the paths. YAML, and any spec on a single-worker pool, is
+ * read in one sequential pass. Tool order always follows the document.
+ *
+ * Anything this parser does not handle (external refs, path item $refs, YAML aliases) raises a
+ * {@link SpecParseException}; the caller then falls back to the full OpenAPI parser.
+ */
+public final class StreamingSpecParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final YAMLFactory YAML_FACTORY = new YAMLFactory();
+    private static final ObjectMapper TREE_CODEC = new ObjectMapper();
+
+    private static final Set<String> HTTP_METHODS = Set.of("get", "put", "post", "delete", "options", "head", "patch", "trace");
+    private static final Pattern PATH_VARIABLE = Pattern.compile("\\{(\\w+)\\}");
+    private static final Pattern NON_WORD = Pattern.compile("[^\\w]");
+    /** Path items handed to the pool per task; large enough to amortize the task overhead. */
+    private static final int PATH_ITEM_BATCH = 32;
+
+    private StreamingSpecParser() {}
+
+    /** The spec version ("2.0", "3.0.3", "3.1.0", ...) and the tools of every operation. */
+    public record Result(String version, List<DynamicToolDefinition> tools) {}
+
+    /** A construct the streaming parser does not support; the full parser should be used instead. */
+    public static class SpecParseException extends RuntimeException {
+        public SpecParseException(String message) {
+            super(message);
+        }
+    }
+
+    private record PendingOperation(String path, String method, String operationId, String summary,
+                                    String description, List<JsonNode> pathParameters,
+                                    List<JsonNode> parameters, JsonNode requestBody) {}
+
+    /**
+     * Reads only as far as the top-level "swagger" or "openapi" field, skipping other members
+     * without building them. Returns null if the document declares neither.
+     */
+    public static String detectVersion(String content) throws IOException {
+        try (JsonParser parser = open(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                if ("openapi".equals(field) || "swagger".equals(field)) {
+                    return parser.getValueAsString();
+                }
+                parser.skipChildren();
+            }
+            return null;
+        }
+    }
+
+    public static Result parse(String content) throws IOException {
+        return parse(content, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses the spec, reading path items and building tools on the given pool. The result does
+     * not depend on the pool's parallelism.
+     */
+    public static Result parse(String content, ForkJoinPool pool) throws IOException {
+        boolean json = looksLikeJson(content);
+        boolean parallel = pool.getParallelism() > 1;
+        ComponentIndex components = new ComponentIndex(content, JSON_FACTORY, TREE_CODEC);
+        List<ForkJoinTask<List<PendingOperation>>> batches = new ArrayList<>();
+        List<PendingOperation> operations = new ArrayList<>();
+        String version = null;
+
+        try (JsonParser parser = open(content)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new SpecParseException("Spec is not a JSON/YAML object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (field) {
+                    case "openapi", "swagger" -> version = parser.getValueAsString();
+                    case "paths" -> {
+                        if (value != JsonToken.START_OBJECT) {
+                            parser.skipChildren();
+                        } else if (json && parallel) {
+                            scanPaths(parser, content, pool, batches);
+                        } else {
+                            readPaths(parser, operations);
+                        }
+                    }
+                    // Swagger 2.0 shared parameters and schemas
+                    case "parameters" -> indexNamedObjects(parser, "#/parameters/", components, json);
+                    case "definitions" -> indexNamedObjects(parser, "#/definitions/", components, json);
+                    case "components" -> indexComponents(parser, components, json);
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+        if (version == null) {
+            throw new SpecParseException("Spec declares neither 'swagger' nor 'openapi'");
+        }
+
+        for (ForkJoinTask<List<PendingOperation>> batch : batches) {
+            operations.addAll(batch.join());
+        }
+        SchemaRenderer schemas = new SchemaRenderer(components::resolve);
+        List<DynamicToolDefinition> tools = parallel
+                // A parallel stream run from inside the pool uses that pool rather than the common one
+                ? pool.submit(() -> operations.parallelStream().map(operation -> toTool(operation, components, schemas)).toList()).join()
+                : operations.stream().map(operation -> toTool(operation, components, schemas)).toList();
+        return new Result(version, tools);
+    }
+
+    private static JsonParser open(String content) throws IOException {
+        JsonParser parser = looksLikeJson(content) ? JSON_FACTORY.createParser(content) : YAML_FACTORY.createParser(content);
+        parser.setCodec(TREE_CODEC);
+        return parser;
+    }
+
+    private static boolean looksLikeJson(String content) {
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (!Character.isWhitespace(c) && c != '\uFEFF') {
+                return c == '{';
+            }
+        }
+        return false;
+    }
+
+    private record PathItemRange(String path, int start, int end) {}
+
+    /**
+     * Skims the paths object, recording the character range of each path item, and submits every
+     * {@link #PATH_ITEM_BATCH} of them to the pool to be read while scanning continues.
+     */
+    private static void scanPaths(JsonParser parser, String source, ForkJoinPool pool,
+                                  List<ForkJoinTask<List<PendingOperation>>> batches) throws IOException {
+        List<PathItemRange> batch = new ArrayList<>(PATH_ITEM_BATCH);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            int start = (int) parser.currentTokenLocation().getCharOffset();
+            parser.skipChildren();
+            batch.add(new PathItemRange(path, start, (int) parser.currentLocation().getCharOffset()));
+            if (batch.size() == PATH_ITEM_BATCH) {
+                batches.add(submitBatch(pool, source, batch));
+                batch = new ArrayList<>(PATH_ITEM_BATCH);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(submitBatch(pool, source, batch));
+        }
+    }
+
+    private static ForkJoinTask<List<PendingOperation>> submitBatch(ForkJoinPool pool, String source, List<PathItemRange> batch) {
+        return pool.submit(() -> {
+            List<PendingOperation> operations = new ArrayList<>(batch.size() * 2);
+            for (PathItemRange range : batch) {
+                try (JsonParser parser = JSON_FACTORY.createParser(source.substring(range.start(), range.end()))) {
+                    parser.setCodec(TREE_CODEC);
+                    parser.nextToken();
+                    readPathItem(parser, range.path(), operations);
+                }
+            }
+            return operations;
+        });
+    }
+
+    private static void readPaths(JsonParser parser, List<PendingOperation> operations) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String path = parser.currentName();
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            readPathItem(parser, path, operations);
+        }
+    }
+
+    private static void readPathItem(JsonParser parser, String path, List<PendingOperation> operations) throws IOException {
+        // Path-level parameters may be declared after the operations, so operations share this list
+        List<JsonNode> pathParameters = new ArrayList<>();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("$ref".equals(field)) {
+                throw new SpecParseException("Path item $ref at '" + path + "' is not supported by the streaming parser");
+            } else if ("parameters".equals(field) && value == JsonToken.START_ARRAY) {
+                readArray(parser, pathParameters);
+            } else if (HTTP_METHODS.contains(field) && value == JsonToken.START_OBJECT) {
+                operations.add(readOperation(parser, path, field, pathParameters));
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static PendingOperation readOperation(JsonParser parser, String path, String method,
+                                                  List<JsonNode> pathParameters) throws IOException {
+        String operationId = null;
+        String summary = null;
+        String description = null;
+        List<JsonNode> parameters = new ArrayList<>();
+        JsonNode requestBody = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "operationId" -> operationId = parser.getValueAsString();
+                case "summary" -> summary = parser.getValueAsString();
+                case "description" -> description = parser.getValueAsString();
+                case "parameters" -> {
+                    if (value == JsonToken.START_ARRAY) {
+                        readArray(parser, parameters);
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                case "requestBody" -> requestBody = value == JsonToken.VALUE_NULL ? null : parser.readValueAsTree();
+                default -> parser.skipChildren();
+            }
+        }
+        return new PendingOperation(path, method, operationId, summary, description, pathParameters, parameters, requestBody);
+    }
+
+    private static void indexComponents(JsonParser parser, ComponentIndex components, boolean json) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            switch (field) {
+                case "parameters", "schemas", "requestBodies" ->
+                        indexNamedObjects(parser, "#/components/" + field + "/", components, json);
+                default -> parser.skipChildren();
+            }
+        }
+    }
+
+    /**
+     * JSON components are only located here and parsed on first use; YAML has no usable character
+     * offsets, so its components are read right away.
+     */
+    private static void indexNamedObjects(JsonParser parser, String refPrefix, ComponentIndex components,
+                                          boolean json) throws IOException {
+        if (parser.currentToken() != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String ref = refPrefix + parser.currentName();
+            parser.nextToken();
+            if (json) {
+                int start = (int) parser.currentTokenLocation().getCharOffset();
+                parser.skipChildren();
+                components.registerRange(ref, start, (int) parser.currentLocation().getCharOffset());
+            } else {
+                components.registerNode(ref, parser.readValueAsTree());
+            }
+        }
+    }
+
+    private static void readArray(JsonParser parser, List<JsonNode> target) throws IOException {
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            target.add(parser.readValueAsTree());
+        }
+    }
+
+    private static DynamicToolDefinition toTool(PendingOperation operation, ComponentIndex components, SchemaRenderer schemas) {
+        String toolId = operation.operationId() != null
+                ? operation.operationId()
+                : operation.method() + normalizePath(operation.path());
+
+        // Operation-level parameters override path-level ones with the same name and location
+        Map<String, JsonNode> merged = new LinkedHashMap<>();
+        for (JsonNode parameter : operation.pathParameters()) {
+            JsonNode resolved = resolveParameter(parameter, components);
+            merged.put(resolved.path("in").asText() + ":" + resolved.path("name").asText(), resolved);
+        }
+        for (JsonNode parameter : operation.parameters()) {
+            JsonNode resolved = resolveParameter(parameter, components);
+            merged.put(resolved.path("in").asText() + ":" + resolved.path("name").asText(), resolved);
+        }
+
+        List<DynamicToolDefinition.ToolParameter> parameters = new ArrayList<>(merged.size() + 1);
+        JsonNode bodyParameter = null;
+        List<JsonNode> formParameters = new ArrayList<>();
+        for (JsonNode parameter : merged.values()) {
+            String in = parameter.path("in").asText(null);
+            if ("body".equals(in)) {
+                bodyParameter = parameter;
+                continue;
+            }
+            if ("formData".equals(in)) {
+                formParameters.add(parameter);
+                continue;
+            }
+            parameters.add(new DynamicToolDefinition.ToolParameter(
+                    parameter.path("name").asText(null),
+                    in,
+                    parameter.path("required").asBoolean(false),
+                    typeOf(parameter, components),
+                    parameter.path("description").asText(null),
+                    parameter.has("schema") ? schemas.render(parameter.get("schema")) : schemas.renderParameter(parameter)));
+        }
+
+        // Swagger 2.0 payload parameters become the single "body" argument, like an OpenAPI 3 requestBody
+        if (operation.requestBody() != null) {
+            JsonNode requestBody = resolveRequestBody(operation.requestBody(), components);
+            parameters.add(bodyParameter(requestBody.path("description").asText(null), schemas.renderRequestBody(requestBody)));
+        } else if (bodyParameter != null) {
+            parameters.add(bodyParameter(bodyParameter.path("description").asText(null), schemas.render(bodyParameter.get("schema"))));
+        } else if (!formParameters.isEmpty()) {
+            parameters.add(bodyParameter(null, schemas.renderFormParameters(formParameters)));
+        }
+
+        String summary = operation.summary() != null ? operation.summary()
+                : operation.description() != null ? operation.description() : toolId;
+        return new DynamicToolDefinition(toolId, summary, operation.path(), operation.method().toUpperCase(), parameters);
+    }
+
+    static DynamicToolDefinition.ToolParameter bodyParameter(String description, JsonNode schema) {
+        String type = schema != null && schema.path("type").isTextual() ? schema.get("type").asText() : "object";
+        return new DynamicToolDefinition.ToolParameter("body", "body", true, type,
+                description != null ? description : "Request body", schema);
+    }
+
+    /** Tool id suffix for operations without an operationId: {@code /pets/{id}} becomes {@code _pets_by_id}. */
+    static String normalizePath(String path) {
+        return NON_WORD.matcher(PATH_VARIABLE.matcher(path).replaceAll("by_$1")).replaceAll("_");
+    }
+
+    private static JsonNode resolveParameter(JsonNode parameter, ComponentIndex components) {
+        JsonNode ref = parameter.get("$ref");
+        if (ref == null) {
+            return parameter;
+        }
+        JsonNode resolved = components.resolve(ref.asText());
+        if (resolved == null) {
+            throw new SpecParseException("Unresolvable parameter reference '" + ref.asText() + "'");
+        }
+        return resolved;
+    }
+
+    private static JsonNode resolveRequestBody(JsonNode requestBody, ComponentIndex components) {
+        JsonNode ref = requestBody.get("$ref");
+        if (ref == null) {
+            return requestBody;
+        }
+        JsonNode resolved = components.resolve(ref.asText());
+        if (resolved == null) {
+            throw new SpecParseException("Unresolvable request body reference '" + ref.asText() + "'");
+        }
+        return resolved;
+    }
+
+    /**
+     * Swagger 2.0 declares the type on the parameter, OpenAPI 3 on its schema (3.1 may use a type
+     * array); a schema $ref is followed to the referenced schema's type.
+     */
+    private static String typeOf(JsonNode parameter, ComponentIndex components) {
+        JsonNode schema = parameter.path("schema");
+        JsonNode type = parameter.has("type") ? parameter.get("type") : schema.get("type");
+        if (type == null && schema.has("$ref")) {
+            JsonNode referenced = components.resolve(schema.get("$ref").asText());
+            type = referenced != null ? referenced.get("type") : null;
+        }
+        if (type == null) {
+            return "string";
+        }
+        if (type.isArray()) {
+            for (JsonNode candidate : type) {
+                if (!"null".equals(candidate.asText())) {
+                    return candidate.asText();
+                }
+            }
+            return "string";
+        }
+        return type.asText();
+    }
+}
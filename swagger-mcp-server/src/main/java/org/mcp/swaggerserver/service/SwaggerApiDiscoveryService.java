@@ -11,11 +11,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+
 @Service
 public class SwaggerApiDiscoveryService {
 
     private static final Logger log = LoggerFactory.getLogger(SwaggerApiDiscoveryService.class);
 
+    private static final int FETCH_CONNECT_TIMEOUT_MS = 10_000;
+    private static final int FETCH_READ_TIMEOUT_MS = 60_000;
+
+    /**
+     * Raw spec content as downloaded, with the ETag the server returned (if any).
+     */
+    public record SpecDocument(String content, String etag, boolean notModified) {}
+
     /**
      * Loads and parses the Swagger/OpenAPI spec from the given URL,
      * returning tool definitions for each endpoint.
@@ -31,22 +41,77 @@ public class SwaggerApiDiscoveryService {
         }
         log.debug("SwaggerApiDiscoveryService.loadToolsFromSwagger called with URL: {}", swaggerUrl);
         log.info("Loading Swagger/OpenAPI spec from URL: {}", swaggerUrl);
+        SpecDocument spec;
         try {
-            // Step 1: Download spec as string for version detection
-            String specString;
-            try (InputStream in = new URL(swaggerUrl).openStream()) {
-                specString = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            spec = fetchSpec(swaggerUrl, null);
+        } catch (Exception ex) {
+            log.error("Error loading Swagger/OpenAPI from '{}': {}", swaggerUrl, ex.getMessage(), ex);
+            throw new RuntimeException("Error loading Swagger/OpenAPI from " + swaggerUrl, ex);
+        }
+        return parseTools(swaggerUrl, spec.content());
+    }
+
+    /**
+     * Downloads the spec at the given URL. For http(s) URLs a conditional GET is sent when an
+     * ETag from a previous download is supplied; a 304 answer yields a document with
+     * {@code notModified == true} and no content.
+     *
+     * @param swaggerUrl URL to Swagger/OpenAPI (v2 or v3) spec
+     * @param ifNoneMatch ETag of a previously fetched copy, or null for an unconditional fetch
+     */
+    public SpecDocument fetchSpec(String swaggerUrl, String ifNoneMatch) throws java.io.IOException {
+        URL url = new URL(swaggerUrl);
+        java.net.URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(FETCH_CONNECT_TIMEOUT_MS);
+        connection.setReadTimeout(FETCH_READ_TIMEOUT_MS);
+        if (connection instanceof java.net.HttpURLConnection http) {
+            if (ifNoneMatch != null && !ifNoneMatch.isBlank()) {
+                http.setRequestProperty("If-None-Match", ifNoneMatch);
+            }
+            int status = http.getResponseCode();
+            if (status == java.net.HttpURLConnection.HTTP_NOT_MODIFIED) {
+                log.debug("Swagger/OpenAPI spec at '{}' not modified (ETag {})", swaggerUrl, ifNoneMatch);
+                http.disconnect();
+                return new SpecDocument(null, ifNoneMatch, true);
+            }
+            if (status >= 400) {
+                http.disconnect();
+                throw new java.io.IOException("Fetching " + swaggerUrl + " failed with HTTP status " + status);
             }
+        }
+        try (InputStream in = connection.getInputStream()) {
+            String content = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            return new SpecDocument(content, connection.getHeaderField("ETag"), false);
+        }
+    }
 
-            // Step 2: Detect OpenAPI version (fast/naive match for top-level "openapi": "3.1.0")
+    /**
+     * Parses an already downloaded spec into tool definitions, in a single streaming pass over the
+     * content (see {@link StreamingSpecParser}). Specs using constructs the streaming parser does
+     * not support are handed to the full swagger-parser / openapi4j parsers instead.
+     *
+     * @param swaggerUrl URL the spec was downloaded from (used for relative references and logging)
+     * @param specString Raw spec content
+     */
+    public List<DynamicToolDefinition> parseTools(String swaggerUrl, String specString) {
+        try {
+            StreamingSpecParser.Result result = StreamingSpecParser.parse(specString);
+            log.info("Total {} tools loaded from {} spec '{}'", result.tools().size(),
+                    result.version().startsWith("2") ? "Swagger " + result.version() : "OpenAPI " + result.version(), swaggerUrl);
+            return result.tools();
+        } catch (Exception e) {
+            log.warn("Streaming parse of '{}' not possible ({}); falling back to the full OpenAPI parser", swaggerUrl, e.getMessage());
+            return parseToolsWithLibrary(swaggerUrl, specString);
+        }
+    }
+
+    List<DynamicToolDefinition> parseToolsWithLibrary(String swaggerUrl, String specString) {
+        try {
+            // Detect OpenAPI version with a token scan of the top-level fields
             String version = null;
             try {
-                com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                com.fasterxml.jackson.databind.JsonNode root = objectMapper.readTree(specString);
-                if (root.has("openapi")) {
-                    version = root.get("openapi").asText();
-                    log.info("Detected OpenAPI version '{}'", version);
-                }
+                version = StreamingSpecParser.detectVersion(specString);
+                log.info("Detected OpenAPI version '{}'", version);
             } catch (Exception e) {
                 log.warn("Could not parse OpenAPI version for version detection", e);
             }
@@ -57,42 +122,48 @@ public class SwaggerApiDiscoveryService {
                 return loadToolsFromOpenApi31(specString);
             } else {
                 // Fallback to swagger-parser for 2.x, 3.0.x
-                io.swagger.v3.parser.OpenAPIV3Parser v3Parser = new io.swagger.v3.parser.OpenAPIV3Parser();
-                io.swagger.v3.oas.models.OpenAPI openApi = v3Parser.read(swaggerUrl);
+                // Parse the content already downloaded; only re-read from the URL if that fails
+                io.swagger.v3.parser.core.models.ParseOptions options = new io.swagger.v3.parser.core.models.ParseOptions();
+                options.setResolve(true);
+                io.swagger.v3.oas.models.OpenAPI openApi = new io.swagger.parser.OpenAPIParser()
+                        .readContents(specString, null, options).getOpenAPI();
+                if (openApi == null) {
+                    openApi = new io.swagger.v3.parser.OpenAPIV3Parser().read(swaggerUrl);
+                }
                 log.debug("openApi after Swagger parse: {}", openApi == null ? "NULL" : "NOT NULL");
                 if (openApi == null) {
                     log.error("Failed to parse Swagger/OpenAPI spec from '{}': parser returned null", swaggerUrl);
                     throw new RuntimeException("Failed to parse Swagger/OpenAPI spec from: " + swaggerUrl);
                 }
                 List<DynamicToolDefinition> tools = new java.util.ArrayList<>();
+                JsonNode document = io.swagger.v3.core.util.Json.mapper().valueToTree(openApi);
+                SchemaRenderer schemas = schemaRenderer(document);
                 if (openApi.getPaths() != null) {
                     log.debug("openApi.getPaths() size: {}", openApi.getPaths().size());
                     openApi.getPaths().forEach((path, pathItem) -> {
-                        log.debug("Found Swagger path: {}", path);
                         pathItem.readOperationsMap().forEach((httpMethod, operation) -> {
-                            log.debug("Found operation: method={} path={} operationId={}", httpMethod, path, operation.getOperationId());
                             String operationId = operation.getOperationId();
                             // Generate generic, robust toolId for all OpenAPI paths:
-                            String normalizedPath = path.replaceAll("\\{(\\w+)\\}", "by_$1").replaceAll("[^\\w]", "_");
-                            String toolId = operationId != null ? operationId : httpMethod.name().toLowerCase() + normalizedPath;
+                            String toolId = operationId != null ? operationId : httpMethod.name().toLowerCase() + StreamingSpecParser.normalizePath(path);
 
                             java.util.List<DynamicToolDefinition.ToolParameter> parameters = new java.util.ArrayList<>();
                             if (operation.getParameters() != null) {
                                 for (io.swagger.v3.oas.models.parameters.Parameter swaggerParam : operation.getParameters()) {
+                                    JsonNode schema = schemas.render(io.swagger.v3.core.util.Json.mapper().valueToTree(swaggerParam.getSchema()));
                                     parameters.add(new DynamicToolDefinition.ToolParameter(
                                             swaggerParam.getName(),
                                             swaggerParam.getIn(),
                                             Boolean.TRUE.equals(swaggerParam.getRequired()),
-                                            swaggerParam.getSchema() != null ? swaggerParam.getSchema().getType() : "string",
-                                            swaggerParam.getDescription()
+                                            typeOf(swaggerParam.getSchema() != null ? swaggerParam.getSchema().getType() : null, schema),
+                                            swaggerParam.getDescription(),
+                                            schema
                                     ));
                                 }
                             }
                             // If there is a request body, add a tool parameter for it (as "body")
                             if (operation.getRequestBody() != null) {
-                                parameters.add(new DynamicToolDefinition.ToolParameter(
-                                        "body", "body", true, "object", "Request body"
-                                ));
+                                parameters.add(bodyParameter(document, schemas,
+                                        io.swagger.v3.core.util.Json.mapper().valueToTree(operation.getRequestBody())));
                             }
                             DynamicToolDefinition tool = new DynamicToolDefinition(
                                     toolId,
@@ -102,8 +173,7 @@ public class SwaggerApiDiscoveryService {
                                     parameters
                             );
                             tools.add(tool);
-                            log.debug("Tool created: id={} method={} path={}", tool.getId(), tool.getMethod(), tool.getPath());
-                            log.info("Discovered tool from Swagger: id={}, method={}, path={}", tool.getId(), tool.getMethod(), tool.getPath());
+                            log.debug("Discovered tool from Swagger: id={}, method={}, path={}", tool.getId(), tool.getMethod(), tool.getPath());
                         });
                     });
                 } else {
@@ -137,6 +207,9 @@ public class SwaggerApiDiscoveryService {
             // Delete temp file after parsing
             tempFile.delete();
 
+            JsonNode document = openApi.toNode();
+            SchemaRenderer schemas = schemaRenderer(document);
+
             for (String path : openApi.getPaths().keySet()) {
                 org.openapi4j.parser.model.v3.Path pathItem = openApi.getPath(path);
 
@@ -146,29 +219,41 @@ public class SwaggerApiDiscoveryService {
                     org.openapi4j.parser.model.v3.Operation operation = entry.getValue();
 
                     String operationId = operation.getOperationId();
-                    String normalizedPath = path.replaceAll("\\{(\\w+)\\}", "by_$1").replaceAll("[^\\w]", "_");
-                    String toolId = operationId != null ? operationId : httpMethod.toLowerCase() + normalizedPath;
+                    String toolId = operationId != null ? operationId : httpMethod.toLowerCase() + StreamingSpecParser.normalizePath(path);
 
                     java.util.List<DynamicToolDefinition.ToolParameter> parameters = new java.util.ArrayList<>();
 
-                    // OpenAPI 3.1: Path, Query, Header, Cookie parameters
-                    if (operation.getParameters() != null) {
-                        for (org.openapi4j.parser.model.v3.Parameter param : operation.getParameters()) {
-                            parameters.add(new DynamicToolDefinition.ToolParameter(
-                                    param.getName(),
-                                    param.getIn(),
-                                    param.isRequired(),
-                                    param.getSchema() != null ? param.getSchema().getType() : "string",
-                                    param.getDescription()
-                            ));
+                    // OpenAPI 3.1: Path, Query, Header, Cookie parameters; operation-level ones override
+                    // path-level ones with the same name and location, as in the streaming parser
+                    java.util.Map<String, org.openapi4j.parser.model.v3.Parameter> merged = new java.util.LinkedHashMap<>();
+                    for (java.util.List<org.openapi4j.parser.model.v3.Parameter> declared : java.util.Arrays.asList(
+                            pathItem.getParameters(), operation.getParameters())) {
+                        if (declared != null) {
+                            for (org.openapi4j.parser.model.v3.Parameter param : declared) {
+                                // openapi4j leaves parameter $refs unresolved
+                                if (param.isRef()) {
+                                    param = param.getReference(openApi.getContext())
+                                            .getMappedContent(org.openapi4j.parser.model.v3.Parameter.class);
+                                }
+                                merged.put(param.getIn() + ":" + param.getName(), param);
+                            }
                         }
                     }
+                    for (org.openapi4j.parser.model.v3.Parameter param : merged.values()) {
+                        JsonNode schema = param.getSchema() != null ? schemas.render(param.getSchema().toNode()) : null;
+                        parameters.add(new DynamicToolDefinition.ToolParameter(
+                                param.getName(),
+                                param.getIn(),
+                                param.isRequired(),
+                                typeOf(param.getSchema() != null ? param.getSchema().getType() : null, schema),
+                                param.getDescription(),
+                                schema
+                        ));
+                    }
 
                     // 3.1: Request body (may be complex)
                     if (operation.getRequestBody() != null) {
-                        parameters.add(new DynamicToolDefinition.ToolParameter(
-                                "body", "body", true, "object", "Request body"
-                        ));
+                        parameters.add(bodyParameter(document, schemas, operation.getRequestBody().toNode()));
                     }
 
                     DynamicToolDefinition tool = new DynamicToolDefinition(
@@ -189,4 +274,32 @@ public class SwaggerApiDiscoveryService {
         }
         return tools;
     }
+
+    /**
+     * The declared type of a parameter schema, else the type of the rendered schema (which has its
+     * $ref followed), else string; the same as the streaming parser reports.
+     */
+    private static String typeOf(String declared, JsonNode renderedSchema) {
+        if (declared != null) {
+            return declared;
+        }
+        return renderedSchema != null && renderedSchema.path("type").isTextual() ? renderedSchema.get("type").asText() : "string";
+    }
+
+    /**
+     * Renders schemas of a parsed document, resolving local $refs against its JSON form.
+     */
+    private static SchemaRenderer schemaRenderer(JsonNode document) {
+        return new SchemaRenderer(ref -> {
+            JsonNode node = ref.startsWith("#/") ? document.at(ref.substring(1)) : null;
+            return node == null || node.isMissingNode() ? null : node;
+        });
+    }
+
+    private static DynamicToolDefinition.ToolParameter bodyParameter(JsonNode document, SchemaRenderer schemas, JsonNode requestBody) {
+        if (requestBody.has("$ref") && requestBody.get("$ref").asText().startsWith("#/")) {
+            requestBody = document.at(requestBody.get("$ref").asText().substring(1));
+        }
+        return StreamingSpecParser.bodyParameter(requestBody.path("description").asText(null), schemas.renderRequestBody(requestBody));
+    }
 }
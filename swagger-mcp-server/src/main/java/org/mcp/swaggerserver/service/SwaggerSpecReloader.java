@@ -0,0 +1,42 @@
+package org.mcp.swaggerserver.service;
+
+import org.mcp.swaggerserver.config.ApiSourcesConfig.ApiSource;
+import org.mcp.swaggerserver.model.ToolSetDiff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Periodically revalidates every configured API source's spec so newly deployed endpoints
+ * become tools without a restart. Each poll is a conditional GET; tool changes are pushed to
+ * consumers through {@link org.mcp.swaggerserver.model.ToolDefinitionsChangedEvent}.
+ *
+ * Disable with {@code swagger.reload.enabled=false}; tune with {@code swagger.reload.interval}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "swagger.reload", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SwaggerSpecReloader {
+
+    private static final Logger log = LoggerFactory.getLogger(SwaggerSpecReloader.class);
+
+    private final ToolDefinitionCache toolDefinitionCache;
+    private final ApiSourceRegistry apiSourceRegistry;
+
+    public SwaggerSpecReloader(ToolDefinitionCache toolDefinitionCache, ApiSourceRegistry apiSourceRegistry) {
+        this.toolDefinitionCache = toolDefinitionCache;
+        this.apiSourceRegistry = apiSourceRegistry;
+    }
+
+    @Scheduled(initialDelayString = "${swagger.reload.interval:PT5M}", fixedDelayString = "${swagger.reload.interval:PT5M}")
+    public void reload() {
+        for (ApiSource source : apiSourceRegistry.getSources()) {
+            log.debug("Polling Swagger/OpenAPI spec of source '{}' at {} for changes", source.getName(), source.getSpecUrl());
+            ToolSetDiff diff = toolDefinitionCache.refresh(source);
+            if (!diff.isEmpty()) {
+                log.info("Hot reload of source '{}' applied tool changes {}", source.getName(), diff);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket: holds up to {@code burst} tokens, refilled continuously at
+ * {@code requestsPerSecond}; each call takes one.
+ */
+public final class TokenBucket {
+
+    private final double tokensPerNano;
+    private final double capacity;
+    private final LongSupplier nanoClock;
+
+    // Guarded by this
+    private double tokens;
+    private long refilledAt;
+
+    public TokenBucket(double requestsPerSecond, int burst) {
+        this(requestsPerSecond, burst, System::nanoTime);
+    }
+
+    TokenBucket(double requestsPerSecond, int burst, LongSupplier nanoClock) {
+        this.tokensPerNano = requestsPerSecond / 1e9;
+        this.capacity = Math.max(1, burst);
+        this.nanoClock = nanoClock;
+        this.tokens = capacity;
+        this.refilledAt = nanoClock.getAsLong();
+    }
+
+    /** Takes a token; returns 0 if there was one, otherwise the nanoseconds until there will be. */
+    public synchronized long tryTake() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return 0;
+        }
+        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+    }
+
+    /** Gives back a token taken for a call that was not made after all. */
+    public synchronized void giveBack() {
+        tokens = Math.min(capacity, tokens + 1);
+    }
+
+    public synchronized double available() {
+        refill();
+        return tokens;
+    }
+
+    private void refill() {
+        long now = nanoClock.getAsLong();
+        tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+        refilledAt = now;
+    }
+}
@@ -0,0 +1,378 @@
+package org.mcp.swaggerserver.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.mcp.swaggerserver.config.ApiSourcesConfig.ApiSource;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolDefinitionSnapshot;
+import org.mcp.swaggerserver.model.ToolDefinitionsChangedEvent;
+import org.mcp.swaggerserver.model.ToolSetDiff;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Process-wide source of parsed tool definitions for every configured API source.
+ *
+ * Each source's spec is parsed at most once per process and the result is shared by every
+ * consumer; sources are discovered in parallel at startup. Parsed tools are also persisted as a
+ * gzipped JSON snapshot (keyed by spec URL) in a local cache directory; on the next boot the
+ * snapshot is served immediately and the spec is revalidated in the background with a
+ * conditional GET (ETag) and a content hash. {@link #refresh(ApiSource)} performs the same
+ * revalidation on demand and publishes a {@link ToolDefinitionsChangedEvent} when tools change.
+ */
+@Service
+public class ToolDefinitionCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ToolDefinitionCache.class);
+
+    private static final ObjectMapper SNAPSHOT_MAPPER = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final int MAX_PARALLEL_DISCOVERY = 8;
+
+    private final SwaggerApiDiscoveryService discoveryService;
+    private final ApiSourceRegistry apiSourceRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean diskCacheEnabled;
+    private final Path cacheDir;
+
+    private final Map<String, SpecState> specStates = new ConcurrentHashMap<>();
+    // First loads in progress, by source name; concurrent callers wait for the same load
+    private final Map<String, CompletableFuture<SpecState>> loads = new ConcurrentHashMap<>();
+    private final Set<String> pendingRevalidation = ConcurrentHashMap.newKeySet();
+    private final ExecutorService revalidationExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "swagger-spec-revalidator");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Revision of a source's spec currently served: the ETag and content hash it was parsed
+     * from, and the tools bound to the source (namespaced ids, source name set).
+     */
+    private record SpecState(String etag, String contentHash, List<DynamicToolDefinition> tools) {}
+
+    public ToolDefinitionCache(
+            SwaggerApiDiscoveryService discoveryService,
+            ApiSourceRegistry apiSourceRegistry,
+            ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry,
+            @Value("${swagger.cache.enabled:true}") boolean diskCacheEnabled,
+            @Value("${swagger.cache.dir:${java.io.tmpdir}/swagger-mcp-server/tool-cache}") String cacheDir
+    ) {
+        this.discoveryService = discoveryService;
+        this.apiSourceRegistry = apiSourceRegistry;
+        this.eventPublisher = eventPublisher;
+        this.diskCacheEnabled = diskCacheEnabled;
+        this.cacheDir = Paths.get(cacheDir);
+        for (ApiSource source : apiSourceRegistry.getSources()) {
+            Gauge.builder("swagger.tool.registry.size", specStates, states -> {
+                        SpecState state = states.get(source.getName());
+                        return state != null ? state.tools().size() : 0;
+                    })
+                    .description("Tools currently exposed from the API source")
+                    .tag("source", source.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Returns the tools of every configured source, discovering not yet loaded sources in
+     * parallel. A source that fails to load is logged and skipped (the reloader retries it);
+     * startup only fails when no source could be loaded at all.
+     */
+    public List<DynamicToolDefinition> getAllTools() {
+        List<ApiSource> sources = apiSourceRegistry.getSources();
+        if (sources.size() == 1) {
+            return getTools(sources.get(0));
+        }
+        ExecutorService discoveryExecutor = Executors.newFixedThreadPool(Math.min(sources.size(), MAX_PARALLEL_DISCOVERY));
+        try {
+            Map<String, CompletableFuture<List<DynamicToolDefinition>>> futures = new LinkedHashMap<>();
+            for (ApiSource source : sources) {
+                futures.put(source.getName(), CompletableFuture.supplyAsync(() -> getTools(source), discoveryExecutor));
+            }
+            List<DynamicToolDefinition> all = new ArrayList<>();
+            List<String> failed = new ArrayList<>();
+            futures.forEach((name, future) -> {
+                try {
+                    all.addAll(future.join());
+                } catch (CompletionException ex) {
+                    failed.add(name);
+                    log.error("API source '{}' could not be loaded, its tools are unavailable until the next reload: {}",
+                            name, ex.getCause() != null ? ex.getCause().getMessage() : ex.getMessage());
+                }
+            });
+            if (failed.size() == sources.size()) {
+                throw new IllegalStateException("None of the configured API sources could be loaded: " + failed);
+            }
+            return all;
+        } finally {
+            discoveryExecutor.shutdown();
+        }
+    }
+
+    /**
+     * Returns the tool definitions for the given source, parsing its spec only on the first call.
+     */
+    public List<DynamicToolDefinition> getTools(ApiSource source) {
+        SpecState state = specStates.get(source.getName());
+        if (state == null) {
+            state = awaitLoad(source);
+        }
+        // Revalidate snapshot-served specs only once their state is visible to refresh()
+        if (pendingRevalidation.remove(source.getName())) {
+            revalidationExecutor.execute(() -> refresh(source));
+        }
+        return state.tools();
+    }
+
+    /**
+     * Loads the source unless another thread already is, in which case its result is shared. The
+     * load runs outside any map operation, so loads of different sources never wait on each
+     * other. A failed load is forgotten, so the next call (or the reloader) tries again.
+     */
+    private SpecState awaitLoad(ApiSource source) {
+        CompletableFuture<SpecState> load = new CompletableFuture<>();
+        CompletableFuture<SpecState> running = loads.putIfAbsent(source.getName(), load);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException ex) {
+                throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+            }
+        }
+        try {
+            // Loaded by a load that finished between the caller's lookup and ours
+            SpecState state = specStates.get(source.getName());
+            if (state == null) {
+                state = loadTools(source);
+                specStates.put(source.getName(), state);
+            }
+            load.complete(state);
+            return state;
+        } catch (RuntimeException ex) {
+            load.completeExceptionally(ex);
+            throw ex;
+        } finally {
+            loads.remove(source.getName(), load);
+        }
+    }
+
+    private SpecState loadTools(ApiSource source) {
+        String specUrl = source.getSpecUrl();
+        // Honour the discovery kill switch before touching the disk cache as well
+        if (Boolean.getBoolean("SKIP_SWAGGER_DISCOVERY")) {
+            return new SpecState(null, null, bindToSource(source, discoveryService.loadToolsFromSwagger(specUrl)));
+        }
+        if (diskCacheEnabled) {
+            ToolDefinitionSnapshot snapshot = readSnapshot(specUrl);
+            if (snapshot != null) {
+                log.info("Loaded {} tools for source '{}' from cache snapshot (etag={}, hash={}); revalidating in background",
+                        snapshot.tools().size(), source.getName(), snapshot.etag(), snapshot.contentHash());
+                pendingRevalidation.add(source.getName());
+                return new SpecState(snapshot.etag(), snapshot.contentHash(), bindToSource(source, snapshot.tools()));
+            }
+        }
+        return fetchAndStore(source);
+    }
+
+    private SpecState fetchAndStore(ApiSource source) {
+        String specUrl = source.getSpecUrl();
+        log.info("Loading Swagger/OpenAPI spec for source '{}' from URL: {}", source.getName(), specUrl);
+        SwaggerApiDiscoveryService.SpecDocument spec;
+        try {
+            spec = discoveryService.fetchSpec(specUrl, null);
+        } catch (IOException ex) {
+            log.error("Error loading Swagger/OpenAPI from '{}': {}", specUrl, ex.getMessage(), ex);
+            throw new RuntimeException("Error loading Swagger/OpenAPI from " + specUrl, ex);
+        }
+        List<DynamicToolDefinition> tools = discoveryService.parseTools(specUrl, spec.content());
+        String hash = contentHash(spec.content());
+        writeSnapshot(specUrl, spec.etag(), hash, tools);
+        return new SpecState(spec.etag(), hash, bindToSource(source, tools));
+    }
+
+    /**
+     * Checks whether a source's spec has changed, using a conditional GET and a content hash so
+     * an unchanged spec is never re-parsed. When the parsed tool set differs, the snapshot is
+     * rewritten and a {@link ToolDefinitionsChangedEvent} carrying the diff is published. A
+     * source that failed to load earlier is loaded now and all its tools reported as added.
+     *
+     * @return the diff that was applied, or an empty diff when nothing changed
+     */
+    public synchronized ToolSetDiff refresh(ApiSource source) {
+        if (Boolean.getBoolean("SKIP_SWAGGER_DISCOVERY")) {
+            return ToolSetDiff.NONE;
+        }
+        String specUrl = source.getSpecUrl();
+        SpecState current = specStates.get(source.getName());
+        if (current == null) {
+            return loadMissingSource(source);
+        }
+        SwaggerApiDiscoveryService.SpecDocument spec;
+        try {
+            spec = discoveryService.fetchSpec(specUrl, current.etag());
+        } catch (Exception ex) {
+            log.warn("Revalidation of '{}' failed, keeping current tools: {}", specUrl, ex.getMessage());
+            return ToolSetDiff.NONE;
+        }
+        if (spec.notModified()) {
+            log.debug("Tools for '{}' are up to date (304 Not Modified)", specUrl);
+            return ToolSetDiff.NONE;
+        }
+        String hash = contentHash(spec.content());
+        if (hash.equals(current.contentHash())) {
+            log.debug("Tools for '{}' are up to date (content hash unchanged)", specUrl);
+            if (spec.etag() != null && !spec.etag().equals(current.etag())) {
+                specStates.put(source.getName(), new SpecState(spec.etag(), hash, current.tools()));
+            }
+            return ToolSetDiff.NONE;
+        }
+
+        List<DynamicToolDefinition> parsed;
+        try {
+            parsed = discoveryService.parseTools(specUrl, spec.content());
+        } catch (Exception ex) {
+            log.warn("Changed spec at '{}' could not be parsed, keeping current tools: {}", specUrl, ex.getMessage());
+            return ToolSetDiff.NONE;
+        }
+        writeSnapshot(specUrl, spec.etag(), hash, parsed);
+        List<DynamicToolDefinition> tools = bindToSource(source, parsed);
+        ToolSetDiff diff = ToolSetDiff.between(current.tools(), tools);
+        specStates.put(source.getName(), new SpecState(spec.etag(), hash, tools));
+        if (diff.isEmpty()) {
+            log.info("Spec at '{}' changed but its tool set did not", specUrl);
+        } else {
+            log.info("Spec at '{}' changed, tool set diff {}", specUrl, diff);
+            eventPublisher.publishEvent(new ToolDefinitionsChangedEvent(source.getName(), tools, diff));
+        }
+        return diff;
+    }
+
+    private ToolSetDiff loadMissingSource(ApiSource source) {
+        List<DynamicToolDefinition> tools;
+        try {
+            tools = getTools(source);
+        } catch (Exception ex) {
+            log.warn("API source '{}' is still unavailable: {}", source.getName(), ex.getMessage());
+            return ToolSetDiff.NONE;
+        }
+        ToolSetDiff diff = ToolSetDiff.between(List.of(), tools);
+        if (!diff.isEmpty()) {
+            log.info("API source '{}' is now available, tool set diff {}", source.getName(), diff);
+            eventPublisher.publishEvent(new ToolDefinitionsChangedEvent(source.getName(), tools, diff));
+        }
+        return diff;
+    }
+
+    /**
+     * Copies spec-level tool definitions into the source's namespace: ids get the source's
+     * tool prefix and each tool records which source it is invoked against.
+     */
+    private static List<DynamicToolDefinition> bindToSource(ApiSource source, List<DynamicToolDefinition> tools) {
+        List<DynamicToolDefinition> bound = new ArrayList<>(tools.size());
+        for (DynamicToolDefinition tool : tools) {
+            DynamicToolDefinition copy = new DynamicToolDefinition(
+                    ApiSourceRegistry.namespacedToolId(source, tool.getId()),
+                    tool.getSummary(), tool.getPath(), tool.getMethod(), tool.getParameters());
+            copy.setSource(source.getName());
+            bound.add(copy);
+        }
+        return List.copyOf(bound);
+    }
+
+    private ToolDefinitionSnapshot readSnapshot(String specUrl) {
+        Path file = snapshotFile(specUrl);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            ToolDefinitionSnapshot snapshot = SNAPSHOT_MAPPER.readValue(in, ToolDefinitionSnapshot.class);
+            if (snapshot.formatVersion() != ToolDefinitionSnapshot.CURRENT_FORMAT_VERSION
+                    || !specUrl.equals(snapshot.specUrl()) || snapshot.tools() == null) {
+                log.info("Ignoring incompatible tool cache snapshot {}", file);
+                return null;
+            }
+            SchemaRenderer.shareIdenticalSchemas(snapshot.tools());
+            return snapshot;
+        } catch (Exception ex) {
+            log.warn("Could not read tool cache snapshot {}, falling back to a fresh download: {}", file, ex.getMessage());
+            return null;
+        }
+    }
+
+    private void writeSnapshot(String specUrl, String etag, String contentHash, List<DynamicToolDefinition> tools) {
+        if (!diskCacheEnabled) {
+            return;
+        }
+        ToolDefinitionSnapshot snapshot = new ToolDefinitionSnapshot(ToolDefinitionSnapshot.CURRENT_FORMAT_VERSION,
+                specUrl, etag, contentHash, System.currentTimeMillis(), tools);
+        Path file = snapshotFile(specUrl);
+        try {
+            Files.createDirectories(cacheDir);
+            // Write to a temp file first so a crash never leaves a truncated snapshot behind
+            Path tmp = Files.createTempFile(cacheDir, file.getFileName().toString(), ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                SNAPSHOT_MAPPER.writeValue(out, snapshot);
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Wrote tool cache snapshot for '{}' to {}", specUrl, file);
+        } catch (IOException ex) {
+            log.warn("Could not write tool cache snapshot for '{}': {}", specUrl, ex.getMessage());
+        }
+    }
+
+    private Path snapshotFile(String specUrl) {
+        return cacheDir.resolve(sha256(specUrl.getBytes(StandardCharsets.UTF_8)) + ".json.gz");
+    }
+
+    static String contentHash(String content) {
+        return sha256(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        revalidationExecutor.shutdownNow();
+    }
+}
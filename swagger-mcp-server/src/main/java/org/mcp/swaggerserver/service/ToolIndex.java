@@ -0,0 +1,327 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolDefinitionsChangedEvent;
+import org.mcp.swaggerserver.model.ToolSearchHit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * In-memory full-text index over the tools, for clients that search for the operation they need
+ * instead of receiving every tool schema.
+ *
+ * Tool ids, summaries, paths, methods and parameter names are split into lower-case terms
+ * (camelCase, snake_case and path segments are broken up, plurals folded) and ranked with BM25,
+ * an id match counting more than a summary match and so on. Query terms that occur in no tool are
+ * matched against similar terms by character trigrams, so misspellings still find tools.
+ *
+ * The index is kept in one segment per API source, held in an immutable map that is swapped on
+ * change. A reload rebuilds only its source's segment and reuses the analyzed terms of the tools
+ * the diff reports unchanged; searches combine the segments' statistics.
+ */
+@Service
+public class ToolIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ToolIndex.class);
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final float ID_WEIGHT = 3f;
+    private static final float SUMMARY_WEIGHT = 2f;
+    private static final float PATH_WEIGHT = 1.5f;
+    private static final float PARAMETER_WEIGHT = 1f;
+    private static final float METHOD_WEIGHT = 1f;
+    /** Minimum trigram (Dice) similarity for a query term to match a different index term. */
+    private static final double MIN_SIMILARITY = 0.5;
+    private static final int MAX_EXPANSIONS = 3;
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "is", "it", "of", "on", "or",
+            "that", "the", "this", "to", "with");
+
+    private final ToolRegistry toolRegistry;
+    private volatile Map<String, Segment> segments = Map.of();
+
+    /** A tool's weighted term frequencies and total weight (its BM25 length). Compared by identity. */
+    private static final class Doc {
+        private final DynamicToolDefinition tool;
+        private final Map<String, Float> terms;
+        private final float length;
+
+        private Doc(DynamicToolDefinition tool, Map<String, Float> terms, float length) {
+            this.tool = tool;
+            this.terms = terms;
+            this.length = length;
+        }
+
+        DynamicToolDefinition tool() { return tool; }
+        Map<String, Float> terms() { return terms; }
+        float length() { return length; }
+    }
+
+    private record Posting(Doc doc, float frequency) {}
+
+    private record Match(String term, double weight) {}
+
+    private static final class Segment {
+        private final List<Doc> docs;
+        private final Map<String, List<Posting>> postings = new HashMap<>();
+        private final Map<String, List<String>> termsByTrigram = new HashMap<>();
+        private final double totalLength;
+
+        private Segment(List<Doc> docs) {
+            this.docs = docs;
+            double length = 0;
+            for (Doc doc : docs) {
+                length += doc.length();
+                doc.terms().forEach((term, frequency) ->
+                        postings.computeIfAbsent(term, t -> new ArrayList<>()).add(new Posting(doc, frequency)));
+            }
+            this.totalLength = length;
+            for (String term : postings.keySet()) {
+                for (String trigram : trigrams(term)) {
+                    termsByTrigram.computeIfAbsent(trigram, t -> new ArrayList<>()).add(term);
+                }
+            }
+        }
+    }
+
+    public ToolIndex(ToolRegistry toolRegistry) {
+        this.toolRegistry = toolRegistry;
+    }
+
+    @PostConstruct
+    public synchronized void build() {
+        Map<String, List<DynamicToolDefinition>> bySource = new LinkedHashMap<>();
+        for (DynamicToolDefinition tool : toolRegistry.tools()) {
+            bySource.computeIfAbsent(String.valueOf(tool.getSource()), source -> new ArrayList<>()).add(tool);
+        }
+        Map<String, Segment> built = new LinkedHashMap<>();
+        bySource.forEach((source, tools) -> built.put(source, new Segment(tools.stream().map(ToolIndex::analyze).toList())));
+        segments = Collections.unmodifiableMap(built);
+        log.info("Indexed {} tools for search", size());
+    }
+
+    /** Re-indexes the reloaded source, analyzing only its added and changed tools. */
+    @EventListener
+    public synchronized void onToolDefinitionsChanged(ToolDefinitionsChangedEvent event) {
+        Segment previous = segments.get(event.source());
+        Map<String, Doc> reusable = new HashMap<>();
+        if (previous != null) {
+            for (Doc doc : previous.docs) {
+                reusable.put(doc.tool().getId(), doc);
+            }
+        }
+        event.diff().changed().forEach(tool -> reusable.remove(tool.getId()));
+        List<Doc> docs = new ArrayList<>(event.tools().size());
+        int analyzed = 0;
+        for (DynamicToolDefinition tool : event.tools()) {
+            Doc doc = reusable.get(tool.getId());
+            if (doc != null) {
+                docs.add(new Doc(tool, doc.terms(), doc.length()));
+            } else {
+                docs.add(analyze(tool));
+                analyzed++;
+            }
+        }
+        Map<String, Segment> updated = new LinkedHashMap<>(segments);
+        updated.put(event.source(), new Segment(docs));
+        segments = Collections.unmodifiableMap(updated);
+        log.info("Re-indexed source '{}' for search: {} tools, {} analyzed", event.source(), docs.size(), analyzed);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments.values()) {
+            size += segment.docs.size();
+        }
+        return size;
+    }
+
+    /**
+     * The best matching tools, best first.
+     *
+     * @return at most {@code limit} hits; none for a query without searchable terms
+     */
+    public List<ToolSearchHit> search(String query, int limit) {
+        Map<String, Segment> current = segments;
+        List<String> queryTerms = terms(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        int documents = 0;
+        double totalLength = 0;
+        for (Segment segment : current.values()) {
+            documents += segment.docs.size();
+            totalLength += segment.totalLength;
+        }
+        if (documents == 0) {
+            return List.of();
+        }
+        double averageLength = totalLength / documents;
+
+        Map<Doc, Double> scores = new IdentityHashMap<>();
+        for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+            for (Match match : matches(current, queryTerm)) {
+                int frequency = 0;
+                for (Segment segment : current.values()) {
+                    List<Posting> postings = segment.postings.get(match.term());
+                    frequency += postings != null ? postings.size() : 0;
+                }
+                double idf = Math.log(1 + (documents - frequency + 0.5) / (frequency + 0.5));
+                for (Segment segment : current.values()) {
+                    for (Posting posting : segment.postings.getOrDefault(match.term(), List.of())) {
+                        double tf = posting.frequency();
+                        double norm = tf + K1 * (1 - B + B * posting.doc().length() / averageLength);
+                        scores.merge(posting.doc(), match.weight() * idf * tf * (K1 + 1) / norm, Double::sum);
+                    }
+                }
+            }
+        }
+
+        Comparator<Map.Entry<Doc, Double>> ranking = Map.Entry.<Doc, Double>comparingByValue()
+                .thenComparing(entry -> entry.getKey().tool().getId(), Comparator.reverseOrder());
+        PriorityQueue<Map.Entry<Doc, Double>> best = new PriorityQueue<>(ranking);
+        for (Map.Entry<Doc, Double> entry : scores.entrySet()) {
+            best.offer(entry);
+            if (best.size() > limit) {
+                best.poll();
+            }
+        }
+        List<ToolSearchHit> hits = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            Map.Entry<Doc, Double> entry = best.poll();
+            DynamicToolDefinition tool = entry.getKey().tool();
+            hits.add(new ToolSearchHit(tool.getId(), String.valueOf(tool.getMethod()).toUpperCase(), tool.getPath(),
+                    tool.getSummary(), Math.round(entry.getValue() * 1000) / 1000.0));
+        }
+        Collections.reverse(hits);
+        return hits;
+    }
+
+    /** The index terms a query term stands for: itself if indexed, otherwise similar terms. */
+    private static List<Match> matches(Map<String, Segment> current, String queryTerm) {
+        for (Segment segment : current.values()) {
+            if (segment.postings.containsKey(queryTerm)) {
+                return List.of(new Match(queryTerm, 1.0));
+            }
+        }
+        List<String> queryTrigrams = trigrams(queryTerm);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String trigram : new HashSet<>(queryTrigrams)) {
+            Set<String> containing = new HashSet<>();
+            for (Segment segment : current.values()) {
+                containing.addAll(segment.termsByTrigram.getOrDefault(trigram, List.of()));
+            }
+            containing.forEach(term -> shared.merge(term, 1, Integer::sum));
+        }
+        List<Match> similar = new ArrayList<>();
+        shared.forEach((term, common) -> {
+            double dice = 2.0 * common / (queryTrigrams.size() + trigrams(term).size());
+            if (dice >= MIN_SIMILARITY) {
+                similar.add(new Match(term, dice));
+            }
+        });
+        similar.sort(Comparator.comparingDouble(Match::weight).reversed().thenComparing(Match::term));
+        return similar.size() > MAX_EXPANSIONS ? similar.subList(0, MAX_EXPANSIONS) : similar;
+    }
+
+    private static Doc analyze(DynamicToolDefinition tool) {
+        Map<String, Float> terms = new HashMap<>();
+        add(terms, tool.getId(), ID_WEIGHT);
+        add(terms, tool.getSummary(), SUMMARY_WEIGHT);
+        add(terms, tool.getPath(), PATH_WEIGHT);
+        add(terms, tool.getMethod(), METHOD_WEIGHT);
+        if (tool.getParameters() != null) {
+            for (DynamicToolDefinition.ToolParameter parameter : tool.getParameters()) {
+                add(terms, parameter.getName(), PARAMETER_WEIGHT);
+            }
+        }
+        float length = 0;
+        for (float weight : terms.values()) {
+            length += weight;
+        }
+        return new Doc(tool, terms, length);
+    }
+
+    private static void add(Map<String, Float> terms, String text, float weight) {
+        for (String term : terms(text)) {
+            terms.merge(term, weight, Float::sum);
+        }
+    }
+
+    /**
+     * Splits text into lower-case terms at non-alphanumerics and at camelCase and letter/digit
+     * boundaries ("getPetById" -> get, pet, id), dropping stop words and folding plurals.
+     */
+    static List<String> terms(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null) {
+            return terms;
+        }
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                flush(term, terms);
+                continue;
+            }
+            if (term.length() > 0) {
+                char previous = text.charAt(i - 1);
+                boolean nextLower = i + 1 < text.length() && Character.isLowerCase(text.charAt(i + 1));
+                if ((Character.isUpperCase(c) && (Character.isLowerCase(previous) || (Character.isUpperCase(previous) && nextLower)))
+                        || Character.isDigit(c) != Character.isDigit(previous)) {
+                    flush(term, terms);
+                }
+            }
+            term.append(Character.toLowerCase(c));
+        }
+        flush(term, terms);
+        return terms;
+    }
+
+    private static void flush(StringBuilder term, List<String> terms) {
+        if (term.length() > 1) {
+            String word = term.toString();
+            if (!STOP_WORDS.contains(word)) {
+                terms.add(singular(word));
+            }
+        }
+        term.setLength(0);
+    }
+
+    private static String singular(String word) {
+        if (word.length() > 4 && word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static List<String> trigrams(String term) {
+        String padded = "^" + term + "$";
+        List<String> trigrams = new ArrayList<>(padded.length() - 2);
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            trigrams.add(padded.substring(i, i + 3));
+        }
+        return trigrams;
+    }
+}
@@ -0,0 +1,193 @@
+package org.mcp.swaggerserver.service;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Micrometer instrumentation of tool invocations.
+ *
+ * Every invocation is timed as {@code swagger.tool.requests} tagged with the tool id, HTTP method,
+ * upstream host and status class ({@code 2xx}, {@code 4xx}, {@code 5xx}, {@code IO_ERROR},
+ * {@code TIMEOUT}, {@code REJECTED}, {@code CIRCUIT_OPEN}, {@code TOO_LARGE}, {@code CANCELLED},
+ * {@code ERROR}); its histogram buckets are configured with the
+ * management.metrics.distribution.* properties. Failures are also counted as
+ * {@code swagger.tool.errors} with the exception type, and {@code swagger.tool.in.flight} tracks
+ * the invocations currently running. The meters of each tag combination, error counters
+ * included, are created once and looked up by key afterwards. Each finished invocation is also written to the
+ * {@link AccessLog}.
+ */
+@Component
+public class ToolMetrics {
+
+    public static final String REQUESTS = "swagger.tool.requests";
+    public static final String ERRORS = "swagger.tool.errors";
+
+    private final MeterRegistry meterRegistry;
+    private final AccessLog accessLog;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<String, String> hostsByBaseUrl = new ConcurrentHashMap<>();
+    private final Map<SeriesKey, Series> series = new ConcurrentHashMap<>();
+
+    private record SeriesKey(String toolId, String method, String host, String status) {}
+
+    /** The timer of one tool, method, host and status, and its error counters by exception type. */
+    private record Series(Tags tags, Timer timer, Map<Class<?>, Counter> errors) {}
+
+    public ToolMetrics(MeterRegistry meterRegistry, AccessLog accessLog) {
+        this.meterRegistry = meterRegistry;
+        this.accessLog = accessLog;
+        Gauge.builder("swagger.tool.in.flight", inFlight, AtomicInteger::get)
+                .description("Tool invocations currently waiting for their upstream")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Times the invocation built by {@code invocation} from subscription to termination. The
+     * invocation reports the upstream status through {@link Call#status}; a call that completes
+     * without one (e.g. a response cache hit) counts as 2xx. The arguments are only kept for
+     * access records that are sampled.
+     */
+    public <T> Mono<T> record(DynamicToolDefinition tool, String baseUrl, Map<String, Object> arguments,
+                              Function<Call, Mono<T>> invocation) {
+        return Mono.defer(() -> {
+            boolean sampled = accessLog.isEnabled() && accessLog.sample();
+            Call call = new Call(tool, hostOf(baseUrl), System.nanoTime(), sampled ? arguments : null);
+            inFlight.incrementAndGet();
+            // Deferred so that an invocation failing while it is built (e.g. a missing path
+            // argument) is still recorded and releases its in-flight count
+            return Mono.defer(() -> invocation.apply(call))
+                    .doOnNext(call::result)
+                    .doOnError(call::failed)
+                    .doFinally(signal -> {
+                        inFlight.decrementAndGet();
+                        call.finish(signal);
+                    });
+        });
+    }
+
+    private Series series(DynamicToolDefinition tool, String host, String status) {
+        return series.computeIfAbsent(new SeriesKey(tool.getId(), tool.getMethod(), host, status), key -> {
+            Tags tags = Tags.of("tool", key.toolId(), "method", String.valueOf(key.method()).toUpperCase(),
+                    "host", host, "status", status);
+            Timer timer = Timer.builder(REQUESTS)
+                    .description("Tool invocation latency, from call to aggregated upstream response")
+                    .tags(tags)
+                    .register(meterRegistry);
+            return new Series(tags, timer, new ConcurrentHashMap<>());
+        });
+    }
+
+    private Counter errors(Series meters, Class<?> exceptionType) {
+        return meters.errors().computeIfAbsent(exceptionType, type -> Counter.builder(ERRORS)
+                .description("Failed tool invocations")
+                .tags(meters.tags().and("exception", type.getSimpleName()))
+                .register(meterRegistry));
+    }
+
+    private String hostOf(String baseUrl) {
+        if (baseUrl == null) {
+            return "unknown";
+        }
+        return hostsByBaseUrl.computeIfAbsent(baseUrl, url -> {
+            try {
+                URI uri = URI.create(url);
+                if (uri.getHost() == null) {
+                    return "unknown";
+                }
+                return uri.getPort() > 0 ? uri.getHost() + ":" + uri.getPort() : uri.getHost();
+            } catch (IllegalArgumentException e) {
+                return "unknown";
+            }
+        });
+    }
+
+    public final class Call {
+        private final DynamicToolDefinition tool;
+        private final String host;
+        private final long startNanos;
+        private final Map<String, Object> sampledArguments;
+        private volatile HttpStatusCode status;
+        private volatile Throwable error;
+        private volatile int resultChars = -1;
+        private volatile Object sampledResult;
+
+        private Call(DynamicToolDefinition tool, String host, long startNanos, Map<String, Object> sampledArguments) {
+            this.tool = tool;
+            this.host = host;
+            this.startNanos = startNanos;
+            this.sampledArguments = sampledArguments;
+        }
+
+        public void status(HttpStatusCode status) {
+            this.status = status;
+        }
+
+        private void failed(Throwable error) {
+            this.error = error;
+        }
+
+        private void result(Object result) {
+            if (result instanceof CharSequence text) {
+                resultChars = text.length();
+                if (sampledArguments != null) {
+                    sampledResult = text;
+                }
+            }
+        }
+
+        private void finish(SignalType signal) {
+            long durationNanos = System.nanoTime() - startNanos;
+            String statusTag;
+            if (error instanceof UpstreamResponseException upstream) {
+                statusTag = statusClass(upstream.getStatusCode());
+            } else if (error instanceof WebClientRequestException) {
+                statusTag = "IO_ERROR";
+            } else if (error instanceof ConcurrencyLimitExceededException) {
+                statusTag = "REJECTED";
+            } else if (error instanceof CircuitOpenException) {
+                statusTag = "CIRCUIT_OPEN";
+            } else if (error instanceof TimeoutException) {
+                statusTag = "TIMEOUT";
+            } else if (error instanceof ResponseTooLargeException) {
+                statusTag = "TOO_LARGE";
+            } else if (error != null) {
+                statusTag = "ERROR";
+            } else if (signal == SignalType.CANCEL) {
+                statusTag = "CANCELLED";
+            } else {
+                statusTag = status != null ? statusClass(status) : "2xx";
+            }
+            Series meters = series(tool, host, statusTag);
+            meters.timer().record(durationNanos, TimeUnit.NANOSECONDS);
+            if (error != null) {
+                errors(meters, error.getClass()).increment();
+            }
+            if (accessLog.isEnabled()) {
+                accessLog.write(tool, host, statusTag, error instanceof UpstreamResponseException upstream ? upstream.getStatusCode() : status,
+                        durationNanos, resultChars, error, sampledArguments, sampledResult);
+            }
+        }
+
+        private static String statusClass(HttpStatusCode status) {
+            return (status.value() / 100) + "xx";
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolDefinitionsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * The tools currently exposed, shared by the REST endpoints, batch invocation and the MCP server.
+ *
+ * The tool set is held as an immutable snapshot that a reload replaces in one atomic swap, so
+ * lookups by id are O(1), take no lock and never see a half-applied reload. The JSON of the tool
+ * list is serialized once per snapshot, on first request, and served as is after that.
+ */
+@Service
+public class ToolRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ToolRegistry.class);
+
+    private final ToolDefinitionCache toolDefinitionCache;
+    private final ObjectMapper objectMapper;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>(new Snapshot(Map.of()));
+
+    private static final class Snapshot {
+        /** By tool id, in spec order. */
+        private final Map<String, DynamicToolDefinition> byId;
+        private final List<DynamicToolDefinition> tools;
+        private volatile byte[] listJson;
+
+        private Snapshot(Map<String, DynamicToolDefinition> byId) {
+            this.byId = byId;
+            this.tools = List.copyOf(byId.values());
+        }
+    }
+
+    public ToolRegistry(ToolDefinitionCache toolDefinitionCache, ObjectMapper objectMapper) {
+        this.toolDefinitionCache = toolDefinitionCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    public void loadTools() {
+        log.info("Loading tools from all configured API sources");
+        List<DynamicToolDefinition> tools = toolDefinitionCache.getAllTools();
+        for (DynamicToolDefinition tool : tools) {
+            log.info("Discovered tool: {} -> {}", tool.getId(), tool.getSummary());
+        }
+        replace(tools);
+    }
+
+    /**
+     * Applies a source's reloaded tool set when its Swagger spec changes at runtime. Tools of
+     * other sources are carried over unchanged.
+     */
+    @EventListener
+    public synchronized void onToolDefinitionsChanged(ToolDefinitionsChangedEvent event) {
+        log.info("Reloading tool registry after spec change {} in source '{}'", event.diff(), event.source());
+        List<DynamicToolDefinition> tools = new ArrayList<>();
+        for (DynamicToolDefinition tool : snapshot.get().tools) {
+            if (!event.source().equals(tool.getSource())) {
+                tools.add(tool);
+            }
+        }
+        tools.addAll(event.tools());
+        replace(tools);
+    }
+
+    private void replace(List<DynamicToolDefinition> tools) {
+        Map<String, DynamicToolDefinition> byId = new LinkedHashMap<>();
+        for (DynamicToolDefinition tool : tools) {
+            if (byId.put(tool.getId(), tool) != null) {
+                log.warn("Duplicate tool id '{}' across API sources; the later definition wins", tool.getId());
+            }
+        }
+        snapshot.set(new Snapshot(Collections.unmodifiableMap(byId)));
+        log.info("Tool registry now has {} tools.", byId.size());
+    }
+
+    /** The tool with the given id, or null if there is none. */
+    public DynamicToolDefinition get(String toolId) {
+        return snapshot.get().byId.get(toolId);
+    }
+
+    /** All tools, in spec order; the list is immutable. */
+    public List<DynamicToolDefinition> tools() {
+        return snapshot.get().tools;
+    }
+
+    public int size() {
+        return snapshot.get().tools.size();
+    }
+
+    /** The tool list as JSON, as returned by GET /tools. The array must not be modified. */
+    public byte[] listJson() {
+        Snapshot current = snapshot.get();
+        byte[] json = current.listJson;
+        if (json == null) {
+            try {
+                // Racing first requests may both serialize; they produce the same bytes
+                json = objectMapper.writeValueAsBytes(current.tools);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Could not serialize the tool list", e);
+            }
+            current.listJson = json;
+        }
+        return json;
+    }
+}
@@ -0,0 +1,214 @@
+package org.mcp.swaggerserver.service;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.mcp.swaggerserver.config.ResponseCacheConfig;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.mcp.swaggerserver.model.ToolDefinitionsChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+
+/**
+ * Size-bounded LRU cache for responses of idempotent GET tools.
+ *
+ * Entries are keyed by {@link RequestKey} and bounded both by count and by an estimate of their
+ * heap footprint. Freshness comes from the upstream Cache-Control header or the configured
+ * default TTL; a stale entry carrying an ETag is revalidated with If-None-Match instead of being
+ * refetched. Concurrent misses for the same key share one upstream request.
+ */
+@Service
+public class ToolResponseCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ToolResponseCache.class);
+
+    /** Rough per-entry bookkeeping overhead (map node, entry object, headers) in bytes. */
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+
+    private final ResponseCacheConfig config;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final SingleFlight<String, String> inFlight = new SingleFlight<>();
+    private long totalBytes;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter revalidated;
+    private final Counter coalesced;
+    private final Counter evictions;
+
+    private record Entry(String body, String etag, long expiresAtNanos, long sizeBytes) {
+        boolean isFresh(long now) {
+            return now - expiresAtNanos < 0;
+        }
+    }
+
+    public ToolResponseCache(ResponseCacheConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.hits = requests(meterRegistry, "hit");
+        this.misses = requests(meterRegistry, "miss");
+        this.revalidated = requests(meterRegistry, "revalidated");
+        this.coalesced = requests(meterRegistry, "coalesced");
+        this.evictions = Counter.builder("swagger.response.cache.evictions").register(meterRegistry);
+        Gauge.builder("swagger.response.cache.entries", this, cache -> cache.size()).register(meterRegistry);
+        Gauge.builder("swagger.response.cache.bytes", this, cache -> cache.bytes()).baseUnit("bytes").register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry registry, String result) {
+        return Counter.builder("swagger.response.cache.requests").tag("result", result).register(registry);
+    }
+
+    /**
+     * True when responses of this tool may be served from the cache.
+     */
+    public boolean isCacheable(DynamicToolDefinition tool) {
+        return config.isEnabled()
+                && "GET".equalsIgnoreCase(tool.getMethod())
+                && (config.getTools().isEmpty() || config.getTools().contains(tool.getId()));
+    }
+
+    /**
+     * Returns the cached body for the call if fresh, otherwise loads it through {@code loader}.
+     * The loader receives the ETag of a stale entry (or null) to send as If-None-Match; a 304
+     * answer refreshes the stale entry instead of replacing it.
+     */
+    public Mono<String> getOrLoad(DynamicToolDefinition tool, Map<String, Object> inputParams, ContextView context,
+                                  Function<String, Mono<ResponseEntity<String>>> loader) {
+        String key = RequestKey.of(tool, inputParams, context);
+        Entry cached = get(key);
+        if (cached != null && cached.isFresh(System.nanoTime())) {
+            hits.increment();
+            log.debug("Response cache hit for {}", key);
+            return Mono.just(cached.body());
+        }
+        return inFlight.execute(key,
+                () -> loader.apply(cached != null ? cached.etag() : null).map(response -> store(key, cached, response)),
+                coalesced::increment);
+    }
+
+    private String store(String key, Entry stale, ResponseEntity<String> response) {
+        HttpHeaders headers = response.getHeaders();
+        if (response.getStatusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED) && stale != null) {
+            revalidated.increment();
+            Duration ttl = ttl(headers);
+            put(key, new Entry(stale.body(), headerOr(headers.getETag(), stale.etag()),
+                    System.nanoTime() + ttl.toNanos(), stale.sizeBytes()));
+            return stale.body();
+        }
+        misses.increment();
+        String body = response.getBody() != null ? response.getBody() : "";
+        if (isStorable(headers)) {
+            long size = (long) (key.length() + body.length()) * 2 + ENTRY_OVERHEAD_BYTES;
+            put(key, new Entry(body, headers.getETag(), System.nanoTime() + ttl(headers).toNanos(), size));
+        }
+        return body;
+    }
+
+    private boolean isStorable(HttpHeaders headers) {
+        if (!config.isRespectCacheControl()) {
+            return true;
+        }
+        String cacheControl = headers.getCacheControl();
+        if (cacheControl == null) {
+            return true;
+        }
+        String directives = cacheControl.toLowerCase();
+        // This cache is shared by every client of the server, so per-user responses stay out
+        return !directives.contains("no-store") && !directives.contains("private");
+    }
+
+    /**
+     * Freshness lifetime: s-maxage, then max-age from Cache-Control, else the configured default.
+     * "no-cache" stores the entry as immediately stale so every use is revalidated.
+     */
+    private Duration ttl(HttpHeaders headers) {
+        if (!config.isRespectCacheControl() || headers.getCacheControl() == null) {
+            return config.getDefaultTtl();
+        }
+        String cacheControl = headers.getCacheControl().toLowerCase();
+        if (cacheControl.contains("no-cache")) {
+            return Duration.ZERO;
+        }
+        Long sMaxAge = directiveSeconds(cacheControl, "s-maxage");
+        if (sMaxAge != null) {
+            return Duration.ofSeconds(sMaxAge);
+        }
+        Long maxAge = directiveSeconds(cacheControl, "max-age");
+        return maxAge != null ? Duration.ofSeconds(maxAge) : config.getDefaultTtl();
+    }
+
+    private static Long directiveSeconds(String cacheControl, String directive) {
+        for (String part : cacheControl.split(",")) {
+            String trimmed = part.trim();
+            if (trimmed.startsWith(directive + "=")) {
+                try {
+                    return Long.parseLong(trimmed.substring(directive.length() + 1).replace("\"", ""));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String headerOr(String value, String fallback) {
+        return value != null ? value : fallback;
+    }
+
+    private synchronized Entry get(String key) {
+        return entries.get(key);
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        if (entry.sizeBytes() > config.getMaxBytes()) {
+            return;
+        }
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            totalBytes -= previous.sizeBytes();
+        }
+        totalBytes += entry.sizeBytes();
+        // Evict least recently used entries until both bounds hold again
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while ((entries.size() > config.getMaxEntries() || totalBytes > config.getMaxBytes()) && eldest.hasNext()) {
+            Map.Entry<String, Entry> victim = eldest.next();
+            if (victim.getKey().equals(key)) {
+                continue;
+            }
+            totalBytes -= victim.getValue().sizeBytes();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Drops every cached response when tool definitions change, since a changed tool may now
+     * map the same arguments to a different upstream request.
+     */
+    @EventListener(ToolDefinitionsChangedEvent.class)
+    public synchronized void clear() {
+        entries.clear();
+        totalBytes = 0;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long bytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,193 @@
+package org.mcp.swaggerserver.service;
+
+import java.util.function.Supplier;
+
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.contextpropagation.ObservationThreadLocalAccessor;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.util.context.ContextView;
+
+/**
+ * Micrometer Observations of tool invocations, exported as OpenTelemetry traces (see
+ * management.otlp.tracing.* and swagger.tracing.log-spans) and timed as meters.
+ *
+ * Each invocation is a {@code swagger.tool.call} observation, a child of the REST or MCP request
+ * that made it, with one {@code swagger.tool.phase} child per phase:
+ * <pre>
+ * prepare  binding the arguments into the URI, headers and body
+ * queue    waiting for a concurrency slot of the source (only when the call had to wait)
+ * connect  from the start of an upstream attempt to writing the request: acquiring a pooled
+ *          connection, or resolving, connecting and handshaking a new one
+ * send     writing the request
+ * wait     from the request being sent to the response headers (time to first byte)
+ * body     reading, shaping and bounding the response body
+ * </pre>
+ * connect, send and wait are children of the attempt's {@code http.client.requests} observation,
+ * which also passes the trace on to the upstream in a W3C traceparent header. The phase timers
+ * are tagged with the phase and the source; the tool id is a span attribute only.
+ */
+@Component
+public class ToolTracing {
+
+    public static final String CALL = "swagger.tool.call";
+    public static final String PHASE = "swagger.tool.phase";
+
+    static final String PREPARE = "prepare";
+    static final String QUEUE = "queue";
+    static final String CONNECT = "connect";
+    static final String SEND = "send";
+    static final String WAIT = "wait";
+    static final String BODY = "body";
+
+    private final ObservationRegistry registry;
+
+    /** The invocation the phases of an observed call belong to, kept in the Reactor context. */
+    private record Invocation(String toolId, String source) {}
+
+    public ToolTracing(ObservationRegistry registry) {
+        this.registry = registry;
+    }
+
+    /** Observes {@code call} as the invocation of {@code tool} on {@code baseUrl}, the parent of its phases. */
+    public <T> Mono<T> call(DynamicToolDefinition tool, String baseUrl, Mono<T> call) {
+        if (registry.isNoop()) {
+            return call;
+        }
+        return Mono.deferContextual(context -> {
+            Invocation invocation = new Invocation(tool.getId(), tool.getSource() != null ? tool.getSource() : "default");
+            Observation observation = Observation.createNotStarted(CALL, registry)
+                    .contextualName("tool call")
+                    .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                    .lowCardinalityKeyValue("source", invocation.source())
+                    .highCardinalityKeyValue("tool", tool.getId())
+                    .highCardinalityKeyValue("http.method", String.valueOf(tool.getMethod()).toUpperCase())
+                    .highCardinalityKeyValue("upstream", String.valueOf(baseUrl))
+                    .start();
+            return observed(observation, call).contextWrite(inner -> inner.put(Invocation.class, invocation));
+        });
+    }
+
+    /** Observes {@code work} as a phase of the invocation it runs in. */
+    <T> Mono<T> phase(String phase, Mono<T> work) {
+        if (registry.isNoop()) {
+            return work;
+        }
+        return Mono.deferContextual(context -> observed(start(phase, context), work));
+    }
+
+    /** Runs {@code work} as a phase of the invocation of {@code context}. */
+    <T> T phase(String phase, ContextView context, Supplier<T> work) {
+        if (registry.isNoop()) {
+            return work.get();
+        }
+        Observation observation = start(phase, context);
+        try {
+            return work.get();
+        } catch (RuntimeException e) {
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    /**
+     * Starts the connect phase of every exchange of the WebClient; the HTTP client, set up with
+     * {@link #instrument}, moves it on to send and wait.
+     */
+    ExchangeFilterFunction exchangePhases() {
+        return (request, next) -> {
+            if (registry.isNoop()) {
+                return next.exchange(request);
+            }
+            return Mono.deferContextual(context -> {
+                ExchangePhases phases = new ExchangePhases(context);
+                return next.exchange(request)
+                        .doOnError(phases::failed)
+                        .doFinally(signal -> phases.end())
+                        .contextWrite(inner -> inner.put(ExchangePhases.class, phases));
+            });
+        };
+    }
+
+    /** Marks the ends of the connect, send and wait phases from the lifecycle of each request. */
+    static HttpClient instrument(HttpClient httpClient) {
+        return httpClient
+                .doOnRequest((request, connection) -> next(request.currentContextView(), SEND))
+                .doAfterRequest((request, connection) -> next(request.currentContextView(), WAIT))
+                .doOnResponse((response, connection) -> next(response.currentContextView(), null));
+    }
+
+    private static void next(ContextView context, String phase) {
+        ExchangePhases phases = context.getOrDefault(ExchangePhases.class, null);
+        if (phases != null) {
+            phases.next(phase);
+        }
+    }
+
+    private Observation start(String phase, ContextView context) {
+        Invocation invocation = context.getOrDefault(Invocation.class, null);
+        Observation observation = Observation.createNotStarted(PHASE, registry)
+                .contextualName(phase)
+                .parentObservation(context.getOrDefault(ObservationThreadLocalAccessor.KEY, null))
+                .lowCardinalityKeyValue("phase", phase)
+                .lowCardinalityKeyValue("source", invocation != null ? invocation.source() : "default");
+        if (invocation != null) {
+            observation.highCardinalityKeyValue("tool", invocation.toolId());
+        }
+        return observation.start();
+    }
+
+    private static <T> Mono<T> observed(Observation observation, Mono<T> work) {
+        return work.doOnError(observation::error)
+                .doFinally(signal -> observation.stop())
+                .contextWrite(context -> context.put(ObservationThreadLocalAccessor.KEY, observation));
+    }
+
+    /**
+     * The phase an upstream exchange is in. Moved on from the event loop and ended by the
+     * exchange's own termination or cancellation, whichever comes first.
+     */
+    private final class ExchangePhases {
+
+        private final ContextView context;
+        private Observation current;
+        private boolean ended;
+
+        private ExchangePhases(ContextView context) {
+            this.context = context;
+            this.current = start(CONNECT, context);
+        }
+
+        /** Ends the current phase and starts {@code phase}, if not null. */
+        private synchronized void next(String phase) {
+            if (ended) {
+                return;
+            }
+            if (current != null) {
+                current.stop();
+            }
+            current = phase != null ? start(phase, context) : null;
+        }
+
+        private synchronized void failed(Throwable error) {
+            if (current != null) {
+                current.error(error);
+            }
+        }
+
+        private synchronized void end() {
+            ended = true;
+            if (current != null) {
+                current.stop();
+                current = null;
+            }
+        }
+    }
+}
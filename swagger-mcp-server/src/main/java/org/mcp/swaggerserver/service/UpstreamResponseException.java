@@ -0,0 +1,34 @@
+package org.mcp.swaggerserver.service;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+
+/**
+ * An upstream API answered a tool call with a 4xx or 5xx status.
+ */
+public class UpstreamResponseException extends RuntimeException {
+
+    private final HttpStatusCode statusCode;
+    private final String responseBody;
+    private final MediaType contentType;
+
+    public UpstreamResponseException(HttpStatusCode statusCode, String responseBody, MediaType contentType) {
+        super("API call failed with status " + statusCode + " and body: " + responseBody);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+        this.contentType = contentType;
+    }
+
+    public HttpStatusCode getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    /** The content type of the error body, if the upstream sent one. */
+    public MediaType getContentType() {
+        return contentType;
+    }
+}
@@ -0,0 +1,168 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.mcp.swaggerserver.config.ConcurrencyLimitConfig;
+import org.mcp.swaggerserver.model.ClientIdentity;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import reactor.util.context.Context;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConcurrencyLimitConfig config = new ConcurrencyLimitConfig();
+
+    @Test
+    void startsAtTheDefaultLimitUnlessConfigured() {
+        assertThat(limiter().limit()).isEqualTo(100);
+
+        config.setInitialLimit(5);
+        assertThat(limiter().limit()).isEqualTo(5);
+    }
+
+    @Test
+    void grantsSlotsUpToTheLimitAndQueuesTheRest() {
+        config.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        Disposable first = limiter.run(Mono.never()).subscribe();
+        Disposable second = limiter.run(Mono.never()).subscribe();
+        AtomicBoolean started = new AtomicBoolean();
+
+        StepVerifier.create(limiter.run(Mono.fromCallable(() -> {
+                    started.set(true);
+                    return "third";
+                })))
+                .then(() -> {
+                    assertThat(limiter.inFlight()).isEqualTo(2);
+                    assertThat(limiter.queued()).isEqualTo(1);
+                    assertThat(started).isFalse();
+                    // Cancelling a running call hands its slot to the queued one
+                    first.dispose();
+                })
+                .expectNext("third")
+                .verifyComplete();
+
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        assertThat(limiter.queued()).isZero();
+        second.dispose();
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void cancellingAQueuedCallLeavesTheQueue() {
+        config.setInitialLimit(1);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        Disposable running = limiter.run(Mono.never()).subscribe();
+
+        StepVerifier.create(limiter.run(Mono.just("queued")))
+                .then(() -> assertThat(limiter.queued()).isEqualTo(1))
+                .thenCancel()
+                .verify();
+
+        assertThat(limiter.queued()).isZero();
+        assertThat(limiter.inFlight()).isEqualTo(1);
+        running.dispose();
+        assertThat(limiter.inFlight()).isZero();
+        assertThat(limiter.limit()).isEqualTo(1);
+    }
+
+    @Test
+    void rejectsQueuedCallsAfterTheMaximumWait() {
+        config.setInitialLimit(1);
+        config.setMaxQueueWait(Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        Disposable running = limiter.run(Mono.never()).subscribe();
+
+        StepVerifier.withVirtualTime(() -> limiter.run(Mono.just("late")))
+                .expectSubscription()
+                .expectNoEvent(Duration.ofMillis(4999))
+                .thenAwait(Duration.ofMillis(1))
+                .expectError(ConcurrencyLimitExceededException.class)
+                .verify();
+
+        assertThat(limiter.queued()).isZero();
+        assertThat(rejected()).isEqualTo(1);
+        running.dispose();
+    }
+
+    @Test
+    void makesRoomInAFullQueueForAClientWithFewerCallsWaiting() {
+        config.setInitialLimit(1);
+        config.setMaxQueueSize(2);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        Disposable running = limiter.run(Mono.never()).subscribe();
+        AtomicReference<Throwable> evicted = new AtomicReference<>();
+        limiter.run(Mono.just("a-1")).contextWrite(client("a")).subscribe();
+        limiter.run(Mono.just("a-2")).contextWrite(client("a")).subscribe(value -> { }, evicted::set);
+
+        StepVerifier.create(limiter.run(Mono.just("b-1")).contextWrite(client("b")))
+                .then(() -> {
+                    assertThat(evicted.get()).isInstanceOf(ConcurrencyLimitExceededException.class);
+                    assertThat(limiter.queued()).isEqualTo(2);
+                    // The queue is shared fairly now, so another call of a is rejected outright
+                    StepVerifier.create(limiter.run(Mono.just("a-3")).contextWrite(client("a")))
+                            .expectError(ConcurrencyLimitExceededException.class)
+                            .verify();
+                    running.dispose();
+                })
+                .expectNext("b-1")
+                .verifyComplete();
+
+        assertThat(rejected()).isEqualTo(2);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    void growsWhileInUseAndBacksOffOnFailures() {
+        config.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+
+        StepVerifier.create(limiter.run(Mono.just("ok"))).expectNext("ok").verifyComplete();
+        assertThat(limiter.limit()).isEqualTo(3);
+
+        StepVerifier.create(limiter.run(Mono.error(new IllegalStateException("connection reset"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    @Test
+    void backsOffOnASlowdownButNotOnAnUpstreamThatIsSlowAllAlong() {
+        config.setInitialLimit(2);
+        AdaptiveConcurrencyLimiter limiter = limiter();
+        Mono<String> slow = Mono.delay(Duration.ofMillis(100)).thenReturn("slow");
+
+        StepVerifier.create(limiter.run(slow)).expectNext("slow").verifyComplete();
+        assertThat(limiter.limit()).isEqualTo(3);
+        StepVerifier.create(limiter.run(slow)).expectNext("slow").verifyComplete();
+        assertThat(limiter.limit()).isEqualTo(3);
+
+        StepVerifier.create(limiter.run(Mono.delay(Duration.ofMillis(500)).thenReturn("slower")))
+                .expectNext("slower")
+                .verifyComplete();
+        assertThat(limiter.limit()).isEqualTo(2);
+    }
+
+    private AdaptiveConcurrencyLimiter limiter() {
+        return new AdaptiveConcurrencyLimiter("test", config, 100, meterRegistry, new ToolTracing(ObservationRegistry.NOOP));
+    }
+
+    private double rejected() {
+        return meterRegistry.counter("swagger.upstream.concurrency.rejected", "source", "test").count();
+    }
+
+    private static Function<Context, Context> client(String id) {
+        return new ClientIdentity(id, 1)::putInto;
+    }
+}
@@ -0,0 +1,167 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+import org.mcp.swaggerserver.config.ResponseShapingConfig;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class BoundedBodyReaderTest {
+
+    // Byte by byte, splits inside names, escapes and multi-byte characters, and whole bodies
+    private static final int[] CHUNK_SIZES = {1, 2, 3, 5, 7, 4096};
+
+    private final ResponseShapingConfig config = new ResponseShapingConfig();
+
+    @Test
+    void keepsNestedAndArrayItemFields() {
+        String body = "{\"id\": 7, \"owner\": {\"name\": \"Zoë\", \"age\": 3, \"tags\": [\"a\"]},"
+                + " \"items\": [{\"id\": 1, \"x\": {\"deep\": [1, 2]}}, {\"x\": \"b\", \"id\": 2}], \"ok\": true}";
+        ResponseShaper shaper = shaper(Map.of(ResponseShaper.FIELDS_PARAM, List.of("owner.name", "$.items[*].id")));
+
+        for (int size : CHUNK_SIZES) {
+            assertThat(read(body, shaper, size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"owner\":{\"name\":\"Zoë\"},\"items\":[{\"id\":1},{\"id\":2}]}");
+        }
+    }
+
+    @Test
+    void keepsEveryFieldBelowAWildcardOrAWholeObject() {
+        String body = "{\"a\": {\"x\": 1, \"y\": {\"z\": [true, null]}}, \"b\": {\"x\": 2, \"y\": 3}, \"c\": 4}";
+        ResponseShaper shaper = shaper(Map.of(ResponseShaper.FIELDS_PARAM, "a, *.x"));
+
+        for (int size : CHUNK_SIZES) {
+            assertThat(read(body, shaper, size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"a\":{\"x\":1,\"y\":{\"z\":[true,null]}},\"b\":{\"x\":2}}");
+        }
+    }
+
+    @Test
+    void capsArraysAndNamesTheCursorOfTheNextItems() {
+        String body = "{\"items\": [10, 11, 12, 13, 14], \"total\": 5}";
+
+        for (int size : CHUNK_SIZES) {
+            assertThat(read(body, shaper(Map.of(ResponseShaper.MAX_ITEMS_PARAM, 2)), size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"items\":[10,11],\"total\":5}\n\n[Array $.items: items 0-2 of 5 shown."
+                            + " Call again with \"_cursor\": \"$.items:2\" for the next items.]");
+            assertThat(read(body, shaper(Map.of(ResponseShaper.MAX_ITEMS_PARAM, "2", ResponseShaper.CURSOR_PARAM, "$.items:2")), size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"items\":[12,13],\"total\":5}\n\n[Array $.items: items 2-4 of 5 shown."
+                            + " Call again with \"_cursor\": \"$.items:4\" for the next items.]");
+            assertThat(read(body, shaper(Map.of(ResponseShaper.MAX_ITEMS_PARAM, 2, ResponseShaper.CURSOR_PARAM, "$.items:4")), size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"items\":[14],\"total\":5}\n\n[Array $.items: items 4-5 of 5 shown.]");
+            assertThat(read(body, shaper(Map.of(ResponseShaper.CURSOR_PARAM, "$.items:9")), size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"items\":[],\"total\":5}\n\n[Array $.items has 5 items, none from 9 on.]");
+        }
+    }
+
+    @Test
+    void countsCutArraysNoCursorCanAddress() {
+        String body = "{\"pages\": [[1, 2, 3], [4, 5, 6]], \"ids\": [1, 2, 3]}";
+
+        for (int size : CHUNK_SIZES) {
+            assertThat(read(body, shaper(Map.of(ResponseShaper.MAX_ITEMS_PARAM, 1)), size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"pages\":[[1]],\"ids\":[1]}\n\n[Array $.pages: items 0-1 of 2 shown."
+                            + " Call again with \"_cursor\": \"$.pages:1\" for the next items. 2 other arrays were cut to 1 items.]");
+        }
+    }
+
+    @Test
+    void compactsOnlyTheWhitespaceOutsideStrings() {
+        config.setCompact(true);
+        String body = "{\n  \"text\" : \"a  b \\\" c\\\\\" ,\n\t\"list\": [ 1 , \"x y\" ]\r\n}";
+
+        for (int size : CHUNK_SIZES) {
+            assertThat(read(body, shaper(Map.of()), size))
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("{\"text\":\"a  b \\\" c\\\\\",\"list\":[1,\"x y\"]}");
+        }
+    }
+
+    @Test
+    void reportsBodiesThatAreNotJson() {
+        ResponseShaper shaper = shaper(Map.of(ResponseShaper.MAX_ITEMS_PARAM, 2));
+
+        for (String body : List.of("{\"items\": [1, 2,, 3]}", "{\"items\": [1, 2", "<html>busy</html>")) {
+            for (int size : CHUNK_SIZES) {
+                StepVerifier.create(BoundedBodyReader.read(chunks(body, size), shaper, 0, 1024, body.length(), true))
+                        .expectErrorSatisfies(e -> assertThat(e)
+                                .isInstanceOf(IllegalStateException.class)
+                                .hasMessageStartingWith("Could not shape the response, it is not valid JSON"))
+                        .verify();
+            }
+        }
+    }
+
+    @Test
+    void stopsReadingOnceTheShapedWindowIsFull() {
+        String body = IntStream.range(0, 2000).mapToObj(i -> "{\"id\": " + i + ", \"name\": \"pet " + i + "\"}")
+                .collect(Collectors.joining(", ", "{\"items\": [", "]}"));
+        ResponseShaper shaper = shaper(Map.of(ResponseShaper.FIELDS_PARAM, List.of("items.id")));
+        AtomicBoolean cancelled = new AtomicBoolean();
+
+        StepVerifier.create(BoundedBodyReader.read(chunks(body, 7).doOnCancel(() -> cancelled.set(true)),
+                        shaper, 0, 25, body.length(), true))
+                .expectNext("{\"items\":[{\"id\":0},{\"id\":\n\n[Response truncated: bytes 0-25."
+                        + " Call again with \"_responseOffset\": 25 for the next part.]")
+                .verifyComplete();
+        assertThat(cancelled).isTrue();
+
+        // The offset of the next page refers to the shaped result, not the upstream body
+        StepVerifier.create(BoundedBodyReader.read(chunks(body, 7), shaper, 25, 25, body.length(), false))
+                .expectNext("1},{\"id\":2},{\"id\":3},{\"id\n\n[Response truncated: bytes 25-50.]")
+                .verifyComplete();
+
+        StepVerifier.create(BoundedBodyReader.read(chunks(body, 7), shaper, 0, 25, body.length(), true, true))
+                .expectError(ResponseTooLargeException.class)
+                .verify();
+    }
+
+    @Test
+    void neverEndsAPageInsideAMultiByteCharacter() {
+        config.setCompact(true);
+        String body = "[\"ééé\"]";
+
+        for (int size : CHUNK_SIZES) {
+            assertThat(BoundedBodyReader.read(chunks(body, size), shaper(Map.of()), 0, 5, -1, true).block())
+                    .as("chunks of %d bytes", size)
+                    .isEqualTo("[\"é\n\n[Response truncated: bytes 0-4. Call again with \"_responseOffset\": 4 for the next part.]");
+        }
+    }
+
+    private ResponseShaper shaper(Map<String, Object> arguments) {
+        return ResponseShaper.forTool("getPets", config).withArguments(arguments);
+    }
+
+    private static String read(String body, ResponseShaper shaper, int chunkSize) {
+        return BoundedBodyReader.read(chunks(body, chunkSize), shaper, 0, 64 * 1024, -1, true).block();
+    }
+
+    private static Flux<DataBuffer> chunks(String body, int size) {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        List<byte[]> chunks = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += size) {
+            chunks.add(Arrays.copyOfRange(bytes, start, Math.min(bytes.length, start + size)));
+        }
+        return Flux.fromIterable(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+    }
+}
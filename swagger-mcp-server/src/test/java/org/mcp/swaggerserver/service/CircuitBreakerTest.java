@@ -0,0 +1,154 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mcp.swaggerserver.config.ResilienceConfig;
+import org.mcp.swaggerserver.service.CircuitBreaker.State;
+import org.springframework.http.HttpStatus;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+class CircuitBreakerTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000L);
+    private CircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        ResilienceConfig.CircuitBreaker config = new ResilienceConfig.CircuitBreaker();
+        config.setWindowSize(4);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setOpenDuration(Duration.ofSeconds(30));
+        config.setHalfOpenCalls(2);
+        breaker = new CircuitBreaker("api.example.com", config, now::get);
+    }
+
+    @Test
+    void staysClosedBelowMinimumCallsAndOpensAtTheThreshold() {
+        succeed();
+        fail();
+        fail();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.failureRate()).isEqualTo(-1);
+
+        succeed();
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        assertThat(breaker.openedAt()).isNotNull();
+        StepVerifier.create(breaker.run(Mono.just("ok"))).expectError(CircuitOpenException.class).verify();
+    }
+
+    @Test
+    void doesNotCountClientErrors() {
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(breaker.run(Mono.error(
+                            new UpstreamResponseException(HttpStatus.NOT_FOUND, "{}", null))))
+                    .expectError(UpstreamResponseException.class)
+                    .verify();
+        }
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.failureRate()).isEqualTo(-1);
+    }
+
+    @Test
+    void halfOpensAfterTheOpenDurationAndClosesWhenAllTrialsSucceed() {
+        open();
+        now.addAndGet(Duration.ofSeconds(29).toMillis());
+        StepVerifier.create(breaker.run(Mono.just("ok"))).expectError(CircuitOpenException.class).verify();
+
+        now.addAndGet(Duration.ofSeconds(1).toMillis());
+        Sinks.One<String> first = Sinks.one();
+        Sinks.One<String> second = Sinks.one();
+        StepVerifier.create(breaker.run(first.asMono()))
+                .then(() -> assertThat(breaker.state()).isEqualTo(State.HALF_OPEN))
+                .then(() -> StepVerifier.create(breaker.run(second.asMono()))
+                        .then(() -> {
+                            // Both trials are taken; further calls fail fast
+                            StepVerifier.create(breaker.run(Mono.just("ok")))
+                                    .expectError(CircuitOpenException.class)
+                                    .verify();
+                            second.tryEmitValue("second");
+                        })
+                        .expectNext("second")
+                        .verifyComplete())
+                .then(() -> assertThat(breaker.state()).isEqualTo(State.HALF_OPEN))
+                .then(() -> first.tryEmitValue("first"))
+                .expectNext("first")
+                .verifyComplete();
+
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        StepVerifier.create(breaker.run(Mono.just("ok"))).expectNext("ok").verifyComplete();
+    }
+
+    @Test
+    void reopensWhenATrialFails() {
+        open();
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+
+        fail();
+
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+        StepVerifier.create(breaker.run(Mono.just("ok"))).expectError(CircuitOpenException.class).verify();
+    }
+
+    @Test
+    void handsBackTheTrialOfACancelledOrIgnoredCall() {
+        open();
+        now.addAndGet(Duration.ofSeconds(30).toMillis());
+
+        StepVerifier.create(breaker.run(Mono.never())).thenCancel().verify();
+        StepVerifier.create(breaker.run(Mono.error(new IllegalArgumentException("bad argument"))))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+
+        succeed();
+        succeed();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+    }
+
+    @Test
+    void ignoresOutcomesOfCallsStartedBeforeATransition() {
+        Sinks.One<String> slow = Sinks.one();
+        StepVerifier.create(breaker.run(slow.asMono()))
+                .then(() -> {
+                    open();
+                    now.addAndGet(Duration.ofSeconds(30).toMillis());
+                    succeed();
+                    // Started while closed: its failure neither reopens the half-open breaker nor counts as a trial
+                    slow.tryEmitError(new TimeoutException("slow"));
+                })
+                .expectError(TimeoutException.class)
+                .verify();
+        assertThat(breaker.state()).isEqualTo(State.HALF_OPEN);
+
+        succeed();
+        assertThat(breaker.state()).isEqualTo(State.CLOSED);
+        assertThat(breaker.failureRate()).isEqualTo(-1);
+    }
+
+    private void open() {
+        for (int i = 0; i < 4; i++) {
+            fail();
+        }
+        assertThat(breaker.state()).isEqualTo(State.OPEN);
+    }
+
+    private void succeed() {
+        StepVerifier.create(breaker.run(Mono.just("ok"))).expectNext("ok").verifyComplete();
+    }
+
+    private void fail() {
+        StepVerifier.create(breaker.run(Mono.error(new UpstreamResponseException(HttpStatus.SERVICE_UNAVAILABLE, "", null))))
+                .expectError(UpstreamResponseException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,54 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.mcp.swaggerserver.config.RateLimitConfig;
+import org.mcp.swaggerserver.model.ClientIdentity;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ClientRateLimiterTest {
+
+    private final DynamicToolDefinition tool = new DynamicToolDefinition("getPet", "Get a pet", "/pets/{id}", "GET", List.of());
+
+    @Test
+    void throttlesAClientOverItsBurst() {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setEnabled(true);
+        config.setRequestsPerSecond(1);
+        config.setBurst(2);
+        ClientRateLimiter limiter = new ClientRateLimiter(config, new SimpleMeterRegistry());
+
+        StepVerifier.create(call(limiter, "a")).expectNext("ok").verifyComplete();
+        StepVerifier.create(call(limiter, "a")).expectNext("ok").verifyComplete();
+        StepVerifier.create(call(limiter, "a"))
+                .expectErrorSatisfies(e -> assertThat(e).isInstanceOf(RateLimitExceededException.class))
+                .verify();
+        // Another client has its own bucket
+        StepVerifier.create(call(limiter, "b")).expectNext("ok").verifyComplete();
+    }
+
+    @Test
+    void tracksAtMostMaxClientsAndForgetsTheLeastRecentlySeen() {
+        RateLimitConfig config = new RateLimitConfig();
+        config.setMaxClients(3);
+        ClientRateLimiter limiter = new ClientRateLimiter(config, new SimpleMeterRegistry());
+
+        for (String client : List.of("a", "b", "c", "a", "d", "e")) {
+            call(limiter, client).block();
+        }
+
+        assertThat(limiter.clients()).extracting(ClientRateLimiter.ClientUsage::clientId)
+                .containsExactly("a", "d", "e");
+    }
+
+    private Mono<String> call(ClientRateLimiter limiter, String client) {
+        return limiter.limit(tool, Mono.just("ok")).contextWrite(new ClientIdentity(client, 1)::putInto);
+    }
+}
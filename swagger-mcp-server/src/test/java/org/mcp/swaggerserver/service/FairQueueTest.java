@@ -0,0 +1,78 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class FairQueueTest {
+
+    private final FairQueue<String> queue = new FairQueue<>();
+
+    @Test
+    void aClientFloodingTheQueueDoesNotHoldBackAnother() {
+        for (int i = 1; i <= 5; i++) {
+            queue.add("flood", 1, "flood-" + i);
+        }
+        queue.add("quiet", 1, "quiet-1");
+
+        assertThat(drain()).containsExactly("flood-1", "quiet-1", "flood-2", "flood-3", "flood-4", "flood-5");
+    }
+
+    @Test
+    void sharesDequeuesByWeight() {
+        for (int i = 1; i <= 4; i++) {
+            queue.add("heavy", 2, "heavy-" + i);
+            queue.add("light", 1, "light-" + i);
+        }
+
+        assertThat(drain().subList(0, 6)).containsExactly("heavy-1", "light-1", "heavy-2", "heavy-3", "light-2", "heavy-4");
+    }
+
+    @Test
+    void removesAQueuedItem() {
+        queue.add("a", 1, "a-1");
+        queue.add("a", 1, "a-2");
+
+        assertThat(queue.remove("a-1")).isTrue();
+        assertThat(queue.remove("a-1")).isFalse();
+        assertThat(drain()).containsExactly("a-2");
+    }
+
+    @Test
+    void evictsTheNewestItemOfTheLongestClient() {
+        queue.add("a", 1, "a-1");
+        queue.add("a", 1, "a-2");
+        queue.add("a", 1, "a-3");
+        queue.add("b", 1, "b-1");
+
+        assertThat(queue.evictFor("c")).isEqualTo("a-3");
+        assertThat(queue.size()).isEqualTo(3);
+        // a has 2 queued, b has 1: already fair towards b
+        assertThat(queue.evictFor("b")).isNull();
+        assertThat(queue.evictFor("a")).isNull();
+    }
+
+    @Test
+    void forgetsEarlierServiceOnceIdle() {
+        queue.add("a", 1, "a-1");
+        queue.add("a", 1, "a-2");
+        drain();
+
+        queue.add("b", 1, "b-1");
+        queue.add("b", 1, "b-2");
+        queue.add("a", 1, "a-3");
+
+        assertThat(drain()).containsExactly("b-1", "a-3", "b-2");
+    }
+
+    private List<String> drain() {
+        List<String> items = new ArrayList<>();
+        for (String item = queue.poll(); item != null; item = queue.poll()) {
+            items.add(item);
+        }
+        return items;
+    }
+}
@@ -0,0 +1,133 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+
+/**
+ * The streaming parser must discover the same tools as the swagger-parser / openapi4j parsers it
+ * replaced on the discovery path, which remain the fallback.
+ */
+class StreamingSpecParserTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final SwaggerApiDiscoveryService discovery = new SwaggerApiDiscoveryService();
+
+    /**
+     * The generated sample specs (as used by the benchmarks, 100 operations each) and hand-written
+     * edge cases: YAML, shared parameter $refs, path-level parameters merged into operations,
+     * body and formData parameters, requestBody and schema $refs.
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {"swagger-2.0-100.json.gz", "openapi-3.0-100.json.gz", "openapi-3.1-100.json.gz",
+            "edge-cases-2.0.yaml", "edge-cases-3.0.json", "edge-cases-3.1.json"})
+    void discoversTheSameToolsAsTheLibraryParsers(String spec) throws IOException {
+        String content = read(spec);
+
+        List<DynamicToolDefinition> streamed = StreamingSpecParser.parse(content).tools();
+        List<DynamicToolDefinition> library = discovery.parseToolsWithLibrary(spec, content);
+
+        assertThat(streamed).isNotEmpty();
+        assertThat(normalized(streamed)).isEqualTo(normalized(library));
+    }
+
+    @Test
+    void detectsTheVersionInTheSamePass() throws IOException {
+        assertThat(StreamingSpecParser.parse(read("swagger-2.0-100.json.gz")).version()).isEqualTo("2.0");
+        assertThat(StreamingSpecParser.parse(read("edge-cases-2.0.yaml")).version()).isEqualTo("2.0");
+        assertThat(StreamingSpecParser.parse(read("edge-cases-3.0.json")).version()).isEqualTo("3.0.3");
+        assertThat(StreamingSpecParser.parse(read("edge-cases-3.1.json")).version()).isEqualTo("3.1.0");
+    }
+
+    @Test
+    void mergesPathLevelParametersAndLetsOperationsOverrideThem() throws IOException {
+        Map<String, DynamicToolDefinition> tools = byId(StreamingSpecParser.parse(read("edge-cases-3.0.json")).tools());
+
+        assertThat(tools.get("getOrder").getParameters())
+                .extracting(DynamicToolDefinition.ToolParameter::getName)
+                .containsExactly("orderId", "X-Trace", "limit");
+        DynamicToolDefinition.ToolParameter trace = tools.get("deleteOrder").getParameters().stream()
+                .filter(parameter -> parameter.getName().equals("X-Trace"))
+                .findFirst().orElseThrow();
+        assertThat(trace.isRequired()).isTrue();
+    }
+
+    @Test
+    void mapsFormDataParametersToTheBodyArgument() throws IOException {
+        Map<String, DynamicToolDefinition> tools = byId(StreamingSpecParser.parse(read("edge-cases-2.0.yaml")).tools());
+
+        DynamicToolDefinition upload = tools.get("uploadPhoto");
+        assertThat(upload.hasRequestBody()).isTrue();
+        JsonNode body = upload.getParameters().get(upload.getParameters().size() - 1).getSchema();
+        assertThat(body.path("properties").has("caption")).isTrue();
+        assertThat(body.path("required")).containsExactly(JsonNodeFactory.instance.textNode("file"));
+    }
+
+    /** openapi4j cannot read 3.1 type arrays, so this is checked against the streaming parser alone. */
+    @Test
+    void takesTheFirstNonNullTypeOfATypeArray() throws IOException {
+        String spec = """
+                {"openapi": "3.1.0", "info": {"title": "Types", "version": "1"},
+                 "paths": {"/items": {"get": {"operationId": "listItems",
+                   "parameters": [{"name": "q", "in": "query", "schema": {"type": ["null", "integer"]}}]}}}}
+                """;
+
+        DynamicToolDefinition tool = StreamingSpecParser.parse(spec).tools().get(0);
+
+        assertThat(tool.getParameters().get(0).getType()).isEqualTo("integer");
+    }
+
+    /**
+     * The tools in id order as JSON trees, with numbers compared by value: the library parsers
+     * turn e.g. "maximum": 100 into 1E+2.
+     */
+    private static JsonNode normalized(List<DynamicToolDefinition> tools) {
+        List<DynamicToolDefinition> sorted = tools.stream()
+                .sorted(Comparator.comparing(DynamicToolDefinition::getId))
+                .toList();
+        return normalizeNumbers(MAPPER.valueToTree(sorted));
+    }
+
+    private static JsonNode normalizeNumbers(JsonNode node) {
+        if (node.isNumber()) {
+            return JsonNodeFactory.instance.numberNode(node.decimalValue().stripTrailingZeros());
+        }
+        if (node.isObject()) {
+            node.fields().forEachRemaining(field -> field.setValue(normalizeNumbers(field.getValue())));
+        } else if (node.isArray()) {
+            for (int i = 0; i < node.size(); i++) {
+                ((com.fasterxml.jackson.databind.node.ArrayNode) node).set(i, normalizeNumbers(node.get(i)));
+            }
+        }
+        return node;
+    }
+
+    private static Map<String, DynamicToolDefinition> byId(List<DynamicToolDefinition> tools) {
+        return tools.stream().collect(Collectors.toMap(DynamicToolDefinition::getId, Function.identity()));
+    }
+
+    private static String read(String name) throws IOException {
+        try (InputStream in = StreamingSpecParserTest.class.getResourceAsStream("/specs/" + name)) {
+            InputStream spec = name.endsWith(".gz") ? new GZIPInputStream(in) : in;
+            return new String(spec.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
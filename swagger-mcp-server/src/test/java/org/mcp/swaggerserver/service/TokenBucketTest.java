@@ -0,0 +1,53 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+
+    private final AtomicLong now = new AtomicLong(1_000_000_000L);
+
+    @Test
+    void startsFullAndAllowsABurst() {
+        TokenBucket bucket = new TokenBucket(10, 3, now::get);
+
+        assertThat(bucket.tryTake()).isZero();
+        assertThat(bucket.tryTake()).isZero();
+        assertThat(bucket.tryTake()).isZero();
+        assertThat(bucket.tryTake()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void refillsContinuouslyUpToTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 2, now::get);
+        bucket.tryTake();
+        bucket.tryTake();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(bucket.available()).isEqualTo(0.5);
+        assertThat(bucket.tryTake()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(50));
+        assertThat(bucket.tryTake()).isZero();
+
+        now.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        assertThat(bucket.available()).isEqualTo(2.0);
+    }
+
+    @Test
+    void givesBackATokenWithoutExceedingTheBurst() {
+        TokenBucket bucket = new TokenBucket(1, 1, now::get);
+        bucket.tryTake();
+
+        bucket.giveBack();
+        assertThat(bucket.tryTake()).isZero();
+
+        bucket.giveBack();
+        bucket.giveBack();
+        assertThat(bucket.available()).isEqualTo(1.0);
+    }
+}
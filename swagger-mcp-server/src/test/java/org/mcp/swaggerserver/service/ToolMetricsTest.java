@@ -0,0 +1,46 @@
+package org.mcp.swaggerserver.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.Test;
+import org.mcp.swaggerserver.config.AccessLogConfig;
+import org.mcp.swaggerserver.model.DynamicToolDefinition;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ToolMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DynamicToolDefinition tool = new DynamicToolDefinition("getPet", "Get a pet", "/pets/{id}", "get", List.of());
+
+    @Test
+    void timesCallsAndCountsFailuresPerSeriesAndExceptionType() {
+        AccessLogConfig accessLogConfig = new AccessLogConfig();
+        accessLogConfig.setEnabled(false);
+        ToolMetrics metrics = new ToolMetrics(meterRegistry, new AccessLog(accessLogConfig));
+
+        for (int i = 0; i < 3; i++) {
+            StepVerifier.create(metrics.record(tool, "http://api.example.com:8080", Map.of(),
+                            call -> Mono.error(new TimeoutException("slow"))))
+                    .expectError(TimeoutException.class)
+                    .verify();
+        }
+        StepVerifier.create(metrics.record(tool, "http://api.example.com:8080", Map.of(), call -> Mono.just("ok")))
+                .expectNext("ok")
+                .verifyComplete();
+
+        assertThat(meterRegistry.get(ToolMetrics.ERRORS).counters()).hasSize(1);
+        assertThat(meterRegistry.get(ToolMetrics.ERRORS)
+                .tags("tool", "getPet", "method", "GET", "host", "api.example.com:8080", "status", "TIMEOUT",
+                        "exception", "TimeoutException")
+                .counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(ToolMetrics.REQUESTS).tag("status", "TIMEOUT").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get(ToolMetrics.REQUESTS).tag("status", "2xx").timer().count()).isEqualTo(1);
+    }
+}